@@ -7,6 +7,7 @@ import iot.networkentity.Mote;
 import iot.networkentity.MoteSensor;
 import iot.networkentity.NetworkServer;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,7 +16,10 @@ import java.util.Map;
 /**
  * An abstract class for an application in the system.
  */
-public abstract class Application {
+public abstract class Application implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     /**
      * An MQTT client used to communicate with the {@link NetworkServer}.
      */
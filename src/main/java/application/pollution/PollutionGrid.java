@@ -4,12 +4,16 @@ import org.jxmapviewer.viewer.GeoPosition;
 import util.MapHelper;
 import util.Pair;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-public class PollutionGrid {
+public class PollutionGrid implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     // FIXME synchronized is necessary here, otherwise concurrent modification exceptions are thrown
     //  (even though the GUI updating should happen synchronously with invokeAndWait)
 
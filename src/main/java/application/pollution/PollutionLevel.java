@@ -2,6 +2,7 @@ package application.pollution;
 
 import util.Pair;
 
+import java.io.Serializable;
 import java.util.Comparator;
 import java.util.List;
 
@@ -9,7 +10,9 @@ import java.util.List;
 /**
  * Class used to track the pollution level, specified by a value in the range [0,1] (good to bad respectively)
  */
-public class PollutionLevel {
+public class PollutionLevel implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     // The pollution level
     private double level;
 
@@ -59,10 +59,7 @@ public class PollutionMonitor extends Application {
             return;
         }
 
-        var mote = this.environment.getMotes().stream()
-            .filter(m -> m.getEUI() == message.getSenderEUI())
-            .findFirst()
-            .orElseThrow();
+        var mote = this.environment.getNetworkEntityRegistry().getMote(message.getSenderEUI()).orElseThrow();
 
         // Retrieve the position of the mote
         // TODO is this position even correct when getting it at this point? Has it changed since the transmission of the data?
@@ -4,9 +4,10 @@ import org.jxmapviewer.viewer.GeoPosition;
 import util.GraphStructure;
 import util.Pair;
 
+import java.io.Serializable;
 import java.util.List;
 
-public interface PathFinder {
+public interface PathFinder extends Serializable {
     /**
      * Retrieve a path from a given starting position to an end destination using a graph with available connections.
      * @param graph The graph containing all the connections.
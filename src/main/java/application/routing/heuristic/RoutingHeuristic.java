@@ -4,11 +4,13 @@ import org.jxmapviewer.viewer.GeoPosition;
 import util.Connection;
 import util.GraphStructure;
 
+import java.io.Serializable;
+
 
 /**
  * An interface used to specify routing heuristics.
  */
-public interface RoutingHeuristic {
+public interface RoutingHeuristic extends Serializable {
 
     /**
      * Calculates a heuristic value based on the given entry.
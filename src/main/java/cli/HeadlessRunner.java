@@ -0,0 +1,210 @@
+package cli;
+
+import iot.InputProfile;
+import iot.MoteUpdateMode;
+import iot.ShadowFadingMode;
+import iot.SimulationRunner;
+import iot.TimeAdvanceMode;
+import iot.scheduler.SchedulerType;
+import util.RetentionPolicy;
+import util.xml.InputProfilesReader;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Entry point to run the simulator from the command line, without any GUI.
+ * N.B. this class must not use any class of the {@code gui} package nor AWT/Swing,
+ * so that no windowing toolkit is loaded on batch nodes.
+ *
+ * Usage: {@code java -cp <jar> cli.HeadlessRunner --configuration <file> [options]}
+ */
+public class HeadlessRunner {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: cli.HeadlessRunner --configuration <file> [options]",
+        "  --configuration <file>    the configuration to simulate (required)",
+        "  --input-profiles <file>   the input profiles file (default: the packaged input profiles)",
+        "  --input-profile <name>    the name of the input profile to use (default: the first one)",
+        "  --run single|timed|total  the kind of run (default: single)",
+        "  --approach <name>         the adaptation approach (default: No Adaptation)",
+        "  --threads <n>             the number of runs of a total run executed at the same time (default: 1)",
+        "  --time-advance <mode>     " + Arrays.toString(TimeAdvanceMode.values()) + " (default: FIXED_STEP)",
+        "  --mote-update <mode>      " + Arrays.toString(MoteUpdateMode.values()) + " (default: SERIAL)",
+        "  --scheduler <type>        " + Arrays.toString(SchedulerType.values()) + " (default: LEGACY)",
+        "  --shadow-fading <mode>    " + Arrays.toString(ShadowFadingMode.values()) + " (default: INDEPENDENT)",
+        "  --traces on|off           keep the transmissions of the statistics, or only their aggregates (default: on)",
+        "  --trace-runs <n>          keep the transmissions of the last n runs only (default: all)",
+        "  --trace-transmissions <n> keep the last n transmissions of every entity in a run only (default: all)",
+        "  --trace-sampling <n>      keep every n-th transmission of every entity only (default: 1)",
+        "  --output <file>           the file to which the results are written (default: no output file)");
+
+    private enum RunType {SINGLE, TIMED, TOTAL}
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out));
+    }
+
+    /**
+     * Parses the arguments and executes the requested run.
+     * @param args The command line arguments.
+     * @param out The stream to which the progress and the timings are reported.
+     * @return The exit code: 0 if the run succeeded, 1 if it failed, 2 if the arguments are invalid.
+     */
+    public static int run(String[] args, PrintStream out) {
+        long mainStarted = System.nanoTime();
+
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return 2;
+        }
+        if (!options.containsKey("configuration")) {
+            out.println(USAGE);
+            return 2;
+        }
+
+        try {
+            var configuration = new File(options.get("configuration"));
+            var runType = RunType.valueOf(options.getOrDefault("run", "single").toUpperCase(Locale.ROOT));
+
+            SimulationRunner runner = SimulationRunner.getInstance();
+            runner.loadConfigurationFromFile(configuration);
+            if (runner.getEnvironment() == null) {
+                out.println("Could not load configuration " + configuration);
+                return 1;
+            }
+
+            var inputProfiles = options.containsKey("input-profiles") ?
+                InputProfilesReader.readInputProfiles(new File(options.get("input-profiles"))) :
+                runner.getInputProfiles();
+            InputProfile inputProfile = inputProfiles.stream()
+                .filter(p -> !options.containsKey("input-profile") || p.getName().equals(options.get("input-profile")))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No input profile found"));
+
+            runner.getSimulation().setInputProfile(inputProfile);
+            runner.updateQoS(inputProfile.getQualityOfServiceProfile());
+            runner.setApproach(options.getOrDefault("approach", "No Adaptation"));
+            runner.setNumberOfThreads(Integer.parseInt(options.getOrDefault("threads", "1")));
+            runner.setTimeAdvanceMode(TimeAdvanceMode.valueOf(options.getOrDefault("time-advance", "FIXED_STEP")));
+            runner.setMoteUpdateMode(MoteUpdateMode.valueOf(options.getOrDefault("mote-update", "SERIAL")));
+            runner.setSchedulerType(SchedulerType.valueOf(options.getOrDefault("scheduler", "LEGACY")));
+            runner.setShadowFadingMode(ShadowFadingMode.valueOf(options.getOrDefault("shadow-fading", "INDEPENDENT")));
+            runner.setRetentionPolicy(parseRetentionPolicy(options));
+
+            long setupFinished = System.nanoTime();
+            long jvmStartup = getJvmStartupMillis(mainStarted).orElse(0L);
+            long loading = toMillis(setupFinished - mainStarted);
+            out.printf(Locale.ROOT, "Startup: %d ms (JVM %d ms, loading the configuration %d ms)%n",
+                jvmStartup + loading, jvmStartup, loading);
+
+            switch (runType) {
+                case SINGLE:
+                    runner.setupSingleRun();
+                    simulate(runner);
+                    break;
+                case TIMED:
+                    runner.setupTimedRun();
+                    simulate(runner);
+                    break;
+                case TOTAL:
+                    var finished = new CountDownLatch(1);
+                    runner.totalRun(progress -> {
+                        out.println("Run " + progress.getLeft() + "/" + progress.getRight());
+                        if (progress.getLeft().equals(progress.getRight())) {
+                            finished.countDown();
+                        }
+                    });
+                    finished.await();
+                    break;
+            }
+            long simulationFinished = System.nanoTime();
+            out.printf(Locale.ROOT, "Simulation: %d ms (%d run(s))%n",
+                toMillis(simulationFinished - setupFinished), runner.getEnvironment().getNumberOfRuns());
+
+            if (options.containsKey("output")) {
+                runner.saveSimulationToFile(new File(options.get("output")));
+                out.println("Results written to " + options.get("output"));
+            }
+            return 0;
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private static void simulate(SimulationRunner runner) {
+        var simulation = runner.getSimulation();
+        while (!simulation.isFinished()) {
+            simulation.simulateStep();
+        }
+    }
+
+    /**
+     * Parses arguments of the form {@code --name value}.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Parses the options of the traces of the statistics.
+     */
+    private static RetentionPolicy parseRetentionPolicy(Map<String, String> options) {
+        if (!parseSwitch(options.getOrDefault("traces", "on"))) {
+            return RetentionPolicy.AGGREGATES_ONLY;
+        }
+        return new RetentionPolicy(
+            options.containsKey("trace-runs") ? Integer.parseInt(options.get("trace-runs")) : RetentionPolicy.UNBOUNDED,
+            options.containsKey("trace-transmissions") ?
+                Integer.parseInt(options.get("trace-transmissions")) : RetentionPolicy.UNBOUNDED,
+            Integer.parseInt(options.getOrDefault("trace-sampling", "1")));
+    }
+
+    /**
+     * Parses an option of which the value is {@code on} or {@code off}.
+     */
+    private static boolean parseSwitch(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "on":
+                return true;
+            case "off":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid value: " + value);
+        }
+    }
+
+    /**
+     * @param mainStarted The value of {@link System#nanoTime()} at the start of {@link HeadlessRunner#run}.
+     * @return The time between the start of the process and the start of {@link HeadlessRunner#run}, if known.
+     */
+    private static Optional<Long> getJvmStartupMillis(long mainStarted) {
+        long sinceMain = toMillis(System.nanoTime() - mainStarted);
+        return ProcessHandle.current().info().startInstant()
+            .map(start -> Duration.between(start, Instant.now()).toMillis() - sinceMain);
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
@@ -1,24 +1,20 @@
 package datagenerator;
 
+import iot.SimulationContext;
 import util.Pair;
 
-import java.time.LocalTime;
-import java.util.Random;
-
 /**
  * A class representing a sensor for carbon dioxide.
  */
 public class CarbonDioxideDataGenerator implements SensorDataGenerator {
 
-    private static final int DEFAULT_SEED = 1;
-    private static Random random = new Random(DEFAULT_SEED);
-
     @Override
     public void reset() {
-        random = new Random(DEFAULT_SEED);
+        SimulationContext.resetRandom(CarbonDioxideDataGenerator.class);
     }
 
     public static double generateData(double x, double y) {
+        var random = SimulationContext.getRandom(CarbonDioxideDataGenerator.class);
         if (x < 200 && y < 230)
             return (double) 97 - 20 + (x + y) / 250 + 0.3 * random.nextGaussian();
         else if (x < 1000 && y < 1000)
@@ -38,11 +34,11 @@ public class CarbonDioxideDataGenerator implements SensorDataGenerator {
      * @param time The time of the measurement.
      * @return A measurement of carbon dioxide at the given position and time.
      */
-    public byte[] generateData(int x, int y, LocalTime time) {
+    public byte[] generateData(int x, int y, long time) {
         double result = CarbonDioxideDataGenerator.generateData(x, y);
         return new byte[]{(byte)Math.floorMod((int) Math.round(result),255)};
     }
-    public byte[] generateData(Pair<Integer, Integer> pos, LocalTime time) {
+    public byte[] generateData(Pair<Integer, Integer> pos, long time) {
         return this.generateData(pos.getLeft(), pos.getRight(), time);
     }
 }
@@ -5,19 +5,17 @@ import util.Converter;
 import util.MapHelper;
 import util.Pair;
 
-import java.time.LocalTime;
-
 public class GPSDataGenerator implements SensorDataGenerator {
 
     public GPSDataGenerator() {}
 
     @Override
-    public byte[] generateData(int x, int y, LocalTime time) {
+    public byte[] generateData(int x, int y, long time) {
         MapHelper mapHelper = SimulationRunner.getInstance().getEnvironment().getMapHelper();
         return Converter.toByteArray(mapHelper.toGeoPosition(x, y));
     }
 
-    public byte[] generateData(Pair<Integer, Integer> pos, LocalTime time) {
+    public byte[] generateData(Pair<Integer, Integer> pos, long time) {
         return this.generateData(pos.getLeft(), pos.getRight(), time);
     }
 
@@ -1,23 +1,19 @@
 package datagenerator;
 
+import iot.SimulationContext;
 import util.Pair;
-
-import java.time.LocalTime;
-import java.util.Random;
 /**
  * A class representing a sensor for particulate matter.
  */
 public class ParticulateMatterDataGenerator implements SensorDataGenerator{
 
-    private static final int DEFAULT_SEED = 1;
-    private static Random random = new Random(DEFAULT_SEED);
-
     @Override
     public void reset() {
-        random = new Random(DEFAULT_SEED);
+        SimulationContext.resetRandom(ParticulateMatterDataGenerator.class);
     }
 
     public static double generateData(double x, double y) {
+        var random = SimulationContext.getRandom(ParticulateMatterDataGenerator.class);
         if (x < 250 && y < 250)
             return (double) 97 + (x + y) / 250 + 0.3 * random.nextGaussian();
         else if (x < 750 && y < 750)
@@ -38,11 +34,11 @@ public class ParticulateMatterDataGenerator implements SensorDataGenerator{
      * @param time The time of the measurement.
      * @return A measurement of particulate matter at the given position and time.
      */
-    public byte[] generateData(int x, int y, LocalTime time) {
+    public byte[] generateData(int x, int y, long time) {
         double result = ParticulateMatterDataGenerator.generateData(x, y);
         return new byte[]{(byte)Math.floorMod((int) Math.round(result),255)};
     }
-    public byte[] generateData(Pair<Integer, Integer> pos, LocalTime time) {
+    public byte[] generateData(Pair<Integer, Integer> pos, long time) {
         return this.generateData(pos.getLeft(), pos.getRight(), time);
     }
 }
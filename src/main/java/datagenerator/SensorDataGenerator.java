@@ -2,8 +2,6 @@ package datagenerator;
 
 import util.Pair;
 
-import java.time.LocalTime;
-
 /**
  * An abstract class representing all sensor data generators
  */
@@ -12,11 +10,11 @@ public interface SensorDataGenerator {
      * Generates sensor data based on location and time.
      * @param x x-position of measurement.
      * @param y y-position of measurement.
-     * @param time time of measurement.
+     * @param time time of measurement (in nanoseconds since the start of the simulation).
      * @return sensor data based on location and time.
      */
-    byte[] generateData(int x, int y, LocalTime time);
-    byte[] generateData(Pair<Integer, Integer> pos, LocalTime time);
+    byte[] generateData(int x, int y, long time);
+    byte[] generateData(Pair<Integer, Integer> pos, long time);
     double nonStaticDataGeneration(double x, double y);
 
     void reset();
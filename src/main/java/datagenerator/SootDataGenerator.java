@@ -1,19 +1,15 @@
 package datagenerator;
 
+import iot.SimulationContext;
 import util.Pair;
 
-import java.time.LocalTime;
-import java.util.Random;
-
 /**
  * A class representing a sensor for soot.
  */
 public class SootDataGenerator implements SensorDataGenerator {
 
-    private static final int DEFAULT_SEED = 1;
-    private static Random random = new Random(DEFAULT_SEED);
-
     public static double generateData(double x, double y) {
+        var random = SimulationContext.getRandom(SootDataGenerator.class);
         if (x < 210 && y < 230)
             return (double) 97 - 10 + (x + y) / 250 + 0.3 * random.nextGaussian();
         else if (x < 1100 && y < 1100)
@@ -29,7 +25,7 @@ public class SootDataGenerator implements SensorDataGenerator {
 
     @Override
     public void reset() {
-        random = new Random(DEFAULT_SEED);
+        SimulationContext.resetRandom(SootDataGenerator.class);
     }
 
     /**
@@ -39,11 +35,11 @@ public class SootDataGenerator implements SensorDataGenerator {
      * @param time The time of the measurement.
      * @return A measurement of soot at the given position and time.
      */
-    public byte[] generateData(int x, int y, LocalTime time) {
+    public byte[] generateData(int x, int y, long time) {
         double result = SootDataGenerator.generateData(x, y);
         return new byte[]{(byte)Math.floorMod((int) Math.round(result),255)};
     }
-    public byte[] generateData(Pair<Integer, Integer> pos, LocalTime time) {
+    public byte[] generateData(Pair<Integer, Integer> pos, long time) {
         return this.generateData(pos.getLeft(), pos.getRight(), time);
     }
 }
@@ -1,8 +1,11 @@
 package datagenerator.iaqsensor;
 
 import java.beans.ConstructorProperties;
+import java.io.Serializable;
 
-public class Cell {
+public class Cell implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final int cellNumber;
     private final double fromTime;
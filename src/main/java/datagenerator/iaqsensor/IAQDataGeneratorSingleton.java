@@ -3,16 +3,16 @@ package datagenerator.iaqsensor;
 import com.uchuhimo.konf.BaseConfig;
 import com.uchuhimo.konf.Config;
 import datagenerator.SensorDataGenerator;
-import iot.Environment;
+import iot.SimulationContext;
+import iot.SimulationRunner;
 import util.Pair;
 
-import java.time.LocalTime;
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-
 /**
  *      -------------
  *      | 1 | 2 | 3 |
@@ -22,7 +22,9 @@ import java.util.stream.Collectors;
  *      | 7 | 8 | 9 |
  *      -------------
  */
-public class IAQDataGeneratorSingleton implements SensorDataGenerator {
+public class IAQDataGeneratorSingleton implements SensorDataGenerator, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final String configFile = "/sensorsConfigurations/sensorConfig.toml";
 
@@ -48,15 +50,28 @@ public class IAQDataGeneratorSingleton implements SensorDataGenerator {
         config = config.from().toml.inputStream(this.getClass().getResourceAsStream(configFile));
         row = config.get(IAQSensorConfigSpec.row);
         columns = config.get(IAQSensorConfigSpec.columns);
-        width = Environment.getMapWidth();
-        height = Environment.getMapHeight();
+        var environment = SimulationRunner.getInstance().getEnvironment();
+        if (environment == null) {
+            throw new IllegalStateException("map not already initialized");
+        }
+        width = environment.getMaxXpos();
+        height = environment.getMaxYpos();
         defaultLevel = config.get(IAQSensorConfigSpec.defaultLevel);
         timeUnit = config.get(IAQSensorConfigSpec.timeUnit);
         map = config.get(IAQSensorConfigSpec.cells).stream().collect(Collectors.groupingBy(Cell::getCellNumber));
         map.forEach((e, v) -> v.sort((c1, c2) -> Double.compare(c2.getFromTime(), c1.getFromTime())));
     }
 
+    /**
+     * Returns the generator of the current {@link SimulationContext}, for the map of its environment.
+     * @return The generator of the current context, or the global one if there is no context.
+     */
     public static IAQDataGeneratorSingleton getInstance() {
+        return SimulationContext.getSingleton(IAQDataGeneratorSingleton.class, IAQDataGeneratorSingleton::new)
+            .orElseGet(IAQDataGeneratorSingleton::getGlobalInstance);
+    }
+
+    private static synchronized IAQDataGeneratorSingleton getGlobalInstance() {
         if (instance == null) {
             instance = new IAQDataGeneratorSingleton();
         }
@@ -64,13 +79,13 @@ public class IAQDataGeneratorSingleton implements SensorDataGenerator {
     }
 
     @Override
-    public byte[] generateData(int x, int y, LocalTime time) {
+    public byte[] generateData(int x, int y, long time) {
         //`(height - y)` because in the simulator environment the origin is in the bottom left corner
         int moteRow = (height - y) / (height/row);
         int moteCol = x/ (width/columns);
         int cell = moteRow * columns + moteCol;
         var level = map.getOrDefault(cell, new LinkedList<>()).stream()
-            .filter(c -> c.getFromTime() < timeUnit.convertFromNano(time.toNanoOfDay()))
+            .filter(c -> c.getFromTime() < timeUnit.convertFromNano(time))
             .findFirst()// the list of cell is ordered for time
             .map(Cell::getLevel)
             .orElse(defaultLevel)
@@ -79,7 +94,7 @@ public class IAQDataGeneratorSingleton implements SensorDataGenerator {
     }
 
     @Override
-    public byte[] generateData(Pair<Integer, Integer> pos, LocalTime time) {
+    public byte[] generateData(Pair<Integer, Integer> pos, long time) {
         return generateData(pos.getLeft(), pos.getRight(), time);
     }
 
@@ -34,11 +34,7 @@ public class CharacteristicGUI {
         characteristicComboBox.setSelectedItem(environment.getCharacteristic(beginX + 1, beginY + 1));
 
         okButton.addActionListener(e -> {
-            for (int i = beginX; i < endX; i++) {
-                for (int j = beginY; j < endY; j++) {
-                    environment.setCharacteristics((Characteristic) characteristicComboBox.getSelectedItem(), i, j);
-                }
-            }
+            environment.setCharacteristics((Characteristic) characteristicComboBox.getSelectedItem(), beginX, beginY, endX, endY);
             parent.update();
             frame.dispose();
         });
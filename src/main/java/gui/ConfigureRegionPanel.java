@@ -63,7 +63,7 @@ public class ConfigureRegionPanel extends AbstractConfigurePanel {
             g.fillRect(0, 0, 15, 15);
             //reset composite
             g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
-            g.setColor(characteristic.getColor());
+            g.setColor(new Color(characteristic.getColorRGB()));
             g.fill(new Ellipse2D.Double(0, 0, 15, 15));
             legendPanel.add(new JLabel(new ImageIcon(img)), c);
         }
@@ -118,7 +118,7 @@ public class ConfigureRegionPanel extends AbstractConfigurePanel {
                 environment.getMapHelper().toMapXCoordinate(geoPosition),
                 environment.getMapHelper().toMapYCoordinate(geoPosition)
             );
-            painters.add(new CharacteristicPainter(geoPosition, ch.getColor()));
+            painters.add(new CharacteristicPainter(geoPosition, new Color(ch.getColorRGB())));
         }
 
         for (List<GeoPosition> verticalLine : verticalLines) {
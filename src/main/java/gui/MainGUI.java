@@ -922,25 +922,10 @@ public class MainGUI extends JFrame implements SimulationUpdateListener, Refresh
     }
 
     private void updateGeneralResultsMote(Mote mote, int run) {
-        this.usedEnergy = 0;
-        this.packetsLost = 0;
-        this.packetsSent = 0;
-
-        Statistics statistics = Statistics.getInstance();
-        Environment environment = simulationRunner.getEnvironment();
-
-        environment.getGateways().forEach(gw ->
-            statistics.getAllReceivedTransmissions(gw.getEUI(), run).stream()
-                .filter(t -> t.getSender() == mote.getEUI())
-                .forEach(t -> {
-                    this.packetsSent++;
-                    if (t.isCollided()) {
-                        this.packetsLost++;
-                    }
-                })
-        );
-
-        statistics.getUsedEnergy(mote.getEUI(), run).forEach(energy -> this.usedEnergy += energy);
+        var aggregates = Statistics.getInstance().getAggregatedStatistics(mote.getEUI(), run);
+        this.packetsSent = (int) aggregates.getReceptionsAtGateways();
+        this.packetsLost = (int) aggregates.getCollisionsAtGateways();
+        this.usedEnergy = aggregates.getUsedEnergy();
     }
 
 
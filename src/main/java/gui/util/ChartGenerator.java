@@ -32,6 +32,7 @@ import org.jxmapviewer.viewer.GeoPosition;
 import org.jxmapviewer.viewer.TileFactory;
 import util.Pair;
 import util.Statistics;
+import util.TimeHelper;
 
 import javax.swing.*;
 import javax.swing.event.MouseInputListener;
@@ -67,11 +68,11 @@ public class ChartGenerator {
                     if (!transmission.isCollided())
                         transmissionsMote.getLast().add(
                             new Pair<>(environment.getNetworkEntityById(transmission.getReceiver()),
-                                new Pair<>(transmission.getDepartureTime().toSecondOfDay(), transmission.getTransmissionPower())));
+                                new Pair<>((int) TimeHelper.nanoToSec(transmission.getDepartureTime()), transmission.getTransmissionPower())));
                     else {
                         transmissionsMote.getLast().add(
                             new Pair<>(environment.getNetworkEntityById(transmission.getReceiver()),
-                                new Pair<>(transmission.getDepartureTime().toSecondOfDay(), (double) 20)));
+                                new Pair<>((int) TimeHelper.nanoToSec(transmission.getDepartureTime()), (double) 20)));
                     }
                 }
             }
@@ -2,17 +2,15 @@ package iot;
 
 import be.kuleuven.cs.som.annotate.Basic;
 
-import java.awt.*;
-
 
 /**
  * A class representing the characteristics of a certain location.
  */
 public enum Characteristic {
 
-    Forest(3, 1000, 1.5, new Color(0, 102, 0)),
-    City(1, 1000, 2, new Color(51, 153, 255)),
-    Plain(2, 1000, 1.5, new Color(255, 153, 0));
+    Forest(3, 1000, 1.5, 0x006600),
+    City(1, 1000, 2, 0x3399FF),
+    Plain(2, 1000, 1.5, 0xFF9900);
     /**
      * An integer representing the path loss exponent in a certain position.
      */
@@ -26,9 +24,9 @@ public enum Characteristic {
      */
     private final double shadowFading;
     /**
-     * The color of the characteristic.
+     * The color of the characteristic (as RGB value, so that no AWT classes are needed outside the GUI).
      */
-    private final Color color;
+    private final int colorRGB;
 
     /**
      * A constructor generating a characteristic with a given mean path loss, path loss exponent, reference distance
@@ -36,10 +34,10 @@ public enum Characteristic {
      * @param pathLossExponent  The path loss exponent to set.
      * @param referenceDistance The reference distance to set.
      * @param shadowFading The shadow fading to set.
-     * @param color The color of the characteristic.
+     * @param colorRGB The color of the characteristic, as RGB value.
      */
-     Characteristic(double pathLossExponent, double referenceDistance, double shadowFading, Color color) {
-         this.color = color;
+     Characteristic(double pathLossExponent, double referenceDistance, double shadowFading, int colorRGB) {
+         this.colorRGB = colorRGB;
         this.pathLossExponent = pathLossExponent;
         this.referenceDistance = referenceDistance;
         this.shadowFading = shadowFading;
@@ -75,10 +73,10 @@ public enum Characteristic {
 
     /**
      * Returns the color.
-     * @return the color.
+     * @return the RGB value of the color.
      */
     @Basic
-    public Color getColor() {
-        return color;
+    public int getColorRGB() {
+        return colorRGB;
     }
 }
@@ -0,0 +1,215 @@
+package iot;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A compact raster of the characteristics of a map.
+ * <p>
+ * The raster is divided in square tiles of {@link CharacteristicRaster#TILE_SIZE} positions. A tile in which every
+ * position has the same characteristic (e.g. a tile inside a zone of the configuration) is stored as a single value,
+ * other tiles are stored as one byte per position. A characteristic is stored as its ordinal plus one,
+ * so that positions without a characteristic are 0.
+ * For a map with a few large zones this takes about one byte per tile instead of one reference per position.
+ */
+public class CharacteristicRaster implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The size (in both directions) of the tiles of the raster.
+     */
+    private static final int TILE_SIZE = 64;
+
+    private static final Characteristic[] characteristics = Characteristic.values();
+
+    private final int width;
+    private final int height;
+    private final int numberOfTilesY;
+
+    /**
+     * The value of every uniform tile.
+     */
+    private final byte[] tileValues;
+
+    /**
+     * The values of every position of the tiles which are not uniform, {@code null} for uniform tiles.
+     */
+    private final byte[][] tiles;
+
+    /**
+     * A constructor creating a raster of a given size without characteristics.
+     * @param width The number of positions in the x-direction.
+     * @param height The number of positions in the y-direction.
+     */
+    public CharacteristicRaster(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size of the characteristic raster: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.numberOfTilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        int numberOfTiles = ((width + TILE_SIZE - 1) / TILE_SIZE) * numberOfTilesY;
+        this.tileValues = new byte[numberOfTiles];
+        this.tiles = new byte[numberOfTiles][];
+    }
+
+    /**
+     * Creates a raster with the characteristics of a map.
+     * @param characteristics The characteristics of the map, of which every row has the same length.
+     * @return A raster with the same characteristics.
+     */
+    public static CharacteristicRaster of(Characteristic[][] characteristics) {
+        var raster = new CharacteristicRaster(characteristics.length, characteristics[0].length);
+        for (int tileX = 0; tileX < raster.width; tileX += TILE_SIZE) {
+            for (int tileY = 0; tileY < raster.height; tileY += TILE_SIZE) {
+                var first = characteristics[tileX][tileY];
+                boolean uniform = true;
+                for (int x = tileX; uniform && x < Math.min(tileX + TILE_SIZE, raster.width); x++) {
+                    for (int y = tileY; uniform && y < Math.min(tileY + TILE_SIZE, raster.height); y++) {
+                        uniform = characteristics[x][y] == first;
+                    }
+                }
+                if (uniform) {
+                    raster.tileValues[raster.getTileIndex(tileX, tileY)] = toValue(first);
+                } else {
+                    for (int x = tileX; x < Math.min(tileX + TILE_SIZE, raster.width); x++) {
+                        for (int y = tileY; y < Math.min(tileY + TILE_SIZE, raster.height); y++) {
+                            raster.set(characteristics[x][y], x, y);
+                        }
+                    }
+                }
+            }
+        }
+        return raster;
+    }
+
+    /**
+     * @return A copy of this raster, which can be changed without changing this raster.
+     */
+    public CharacteristicRaster copy() {
+        var copy = new CharacteristicRaster(width, height);
+        System.arraycopy(tileValues, 0, copy.tileValues, 0, tileValues.length);
+        for (int i = 0; i < tiles.length; i++) {
+            copy.tiles[i] = tiles[i] == null ? null : tiles[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * @return The number of positions in the x-direction.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of positions in the y-direction.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the characteristic of a position.
+     * @param x The x-coordinate of the position, within the raster.
+     * @param y The y-coordinate of the position, within the raster.
+     * @return The characteristic of the position, {@code null} if it has none.
+     * @throws IndexOutOfBoundsException if the position is not within the raster.
+     */
+    public Characteristic get(int x, int y) {
+        checkPosition(x, y);
+        int tileIndex = getTileIndex(x, y);
+        var tile = tiles[tileIndex];
+        return toCharacteristic(tile == null ? tileValues[tileIndex] : tile[getIndexInTile(x, y)]);
+    }
+
+    /**
+     * Sets the characteristic of a position.
+     * @param characteristic The characteristic to set.
+     * @param x The x-coordinate of the position, within the raster.
+     * @param y The y-coordinate of the position, within the raster.
+     * @throws IndexOutOfBoundsException if the position is not within the raster.
+     */
+    public void set(Characteristic characteristic, int x, int y) {
+        checkPosition(x, y);
+        byte value = toValue(characteristic);
+        int tileIndex = getTileIndex(x, y);
+        var tile = tiles[tileIndex];
+        if (tile == null) {
+            if (tileValues[tileIndex] == value) {
+                return;
+            }
+            tile = createTile(tileValues[tileIndex]);
+            tiles[tileIndex] = tile;
+        }
+        tile[getIndexInTile(x, y)] = value;
+    }
+
+    /**
+     * Sets the characteristic of a rectangle of positions.
+     * The tiles which are completely covered by the rectangle become uniform.
+     * @param characteristic The characteristic to set.
+     * @param fromX The first x-coordinate of the rectangle (inclusive).
+     * @param fromY The first y-coordinate of the rectangle (inclusive).
+     * @param toX The last x-coordinate of the rectangle (exclusive).
+     * @param toY The last y-coordinate of the rectangle (exclusive).
+     */
+    public void fill(Characteristic characteristic, int fromX, int fromY, int toX, int toY) {
+        byte value = toValue(characteristic);
+        for (int tileX = fromX - fromX % TILE_SIZE; tileX < toX; tileX += TILE_SIZE) {
+            for (int tileY = fromY - fromY % TILE_SIZE; tileY < toY; tileY += TILE_SIZE) {
+                int tileIndex = getTileIndex(tileX, tileY);
+                int startX = Math.max(tileX, fromX);
+                int startY = Math.max(tileY, fromY);
+                int endX = Math.min(tileX + TILE_SIZE, toX);
+                int endY = Math.min(tileY + TILE_SIZE, toY);
+                if (startX == tileX && startY == tileY &&
+                    endX >= Math.min(tileX + TILE_SIZE, width) && endY >= Math.min(tileY + TILE_SIZE, height)) {
+                    tileValues[tileIndex] = value;
+                    tiles[tileIndex] = null;
+                } else {
+                    for (int x = startX; x < endX; x++) {
+                        for (int y = startY; y < endY; y++) {
+                            set(characteristic, x, y);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a position, since a position outside the raster can still have a valid tile index (e.g. a negative
+     * y-coordinate in the tile of the previous column).
+     */
+    private void checkPosition(int x, int y) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+    }
+
+    private int getTileIndex(int x, int y) {
+        return (x / TILE_SIZE) * numberOfTilesY + y / TILE_SIZE;
+    }
+
+    private static int getIndexInTile(int x, int y) {
+        return (x % TILE_SIZE) * TILE_SIZE + y % TILE_SIZE;
+    }
+
+    private static byte[] createTile(byte value) {
+        var tile = new byte[TILE_SIZE * TILE_SIZE];
+        if (value != 0) {
+            Arrays.fill(tile, value);
+        }
+        return tile;
+    }
+
+    private static byte toValue(Characteristic characteristic) {
+        return characteristic == null ? 0 : (byte) (characteristic.ordinal() + 1);
+    }
+
+    private static Characteristic toCharacteristic(byte value) {
+        return value == 0 ? null : characteristics[value - 1];
+    }
+}
@@ -1,20 +1,26 @@
 package iot;
 
 import be.kuleuven.cs.som.annotate.Basic;
+import iot.lora.Channel;
+import iot.lora.EU868Channel;
+import iot.networkcommunication.impl.CollisionModel;
 import iot.networkentity.Gateway;
 import iot.networkentity.Mote;
 import iot.networkentity.NetworkEntity;
+import iot.propagation.PathLossModel;
+import iot.propagation.PropagationModel;
 import org.jxmapviewer.viewer.GeoPosition;
 import util.Connection;
 import util.GraphStructure;
 import util.MapHelper;
+import util.Pair;
 import util.Statistics;
 
 import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.Optional;
 
 /**
  * A class representing a map of the environment.
@@ -27,11 +33,11 @@ public class Environment implements Serializable {
     /**
      * The max x-coordinate allowed on the map
      */
-    private static int maxXpos = -1;
+    private final int maxXpos;
     /**
      * The max y-coordinate allowed on the map
      */
-    private static int maxYpos = -1;
+    private final int maxYpos;
 
     /**
      * The origin of the map
@@ -51,7 +57,7 @@ public class Environment implements Serializable {
     /**
      * The actual map containing the characteristics of the environment.
      */
-    private Characteristic[][] characteristics;
+    private CharacteristicRaster characteristics;
 
     /**
      * The number of zones in the configuration.
@@ -72,6 +78,41 @@ public class Environment implements Serializable {
     private GraphStructure graph;
     private MapHelper mapHelper;
 
+    /**
+     * The cache of the path loss to the gateways, created when it is first used.
+     */
+    private transient PathLossRasterCache pathLossRasterCache;
+
+    /**
+     * The registry of the motes and gateways by EUI, created when it is first used.
+     */
+    private transient NetworkEntityRegistry networkEntityRegistry;
+
+    /**
+     * The correlated shadow fading fields of the gateways, created when they are first used.
+     */
+    private transient ShadowFadingField shadowFadingField;
+
+    /**
+     * The way in which the shadow fading of transmissions is determined.
+     */
+    private ShadowFadingMode shadowFadingMode = ShadowFadingMode.INDEPENDENT;
+
+    /**
+     * The model of the path loss of transmissions over the characteristics.
+     */
+    private PropagationModel propagationModel = PropagationModel.STEPWISE;
+
+    /**
+     * The channels on which the network entities send their transmissions.
+     */
+    private List<Channel> channels = List.of(EU868Channel.CHANNEL_0);
+
+    /**
+     * The model with which the receivers decide the collisions of transmissions.
+     */
+    private CollisionModel collisionModel = CollisionModel.PAIRWISE;
+
 
     /**
      * A constructor generating a new environment with a given map with characteristics.
@@ -89,13 +130,25 @@ public class Environment implements Serializable {
      */
     public Environment(Characteristic[][] characteristics, GeoPosition mapOrigin, int numberOfZones,
                        Map<Long, GeoPosition> wayPoints, Map<Long, Connection> connections) {
-        if (areValidCharacteristics(characteristics)) {
-            maxXpos = characteristics.length - 1;
-            maxYpos = characteristics[0].length - 1;
-            this.characteristics = characteristics;
-        } else {
-            throw new IllegalArgumentException("Invalid characteristics given in constructor of Environment.");
-        }
+        this(toRaster(characteristics), mapOrigin, numberOfZones, wayPoints, connections);
+    }
+
+    /**
+     * A constructor generating a new environment with a given raster of characteristics.
+     * @param characteristics   The raster with the characteristics of the current environment.
+     * @param mapOrigin coordinates of the point [0,0] on the map.
+     * @param numberOfZones the number of zones defined in the region.
+     * @param wayPoints a map of waypoints (ID -> coordinates).
+     * @param connections a map of connections (ID -> connection).
+     * @Post    Sets the max x-coordinate to the width of the raster minus one.
+     * @Post    Sets the max y-coordinate to the height of the raster minus one.
+     * @Post    Sets the characteristics to the given raster.
+     */
+    public Environment(CharacteristicRaster characteristics, GeoPosition mapOrigin, int numberOfZones,
+                       Map<Long, GeoPosition> wayPoints, Map<Long, Connection> connections) {
+        maxXpos = characteristics.getWidth() - 1;
+        maxYpos = characteristics.getHeight() - 1;
+        this.characteristics = characteristics;
 
         this.numberOfZones = numberOfZones;
         this.origin = mapOrigin;
@@ -107,20 +160,6 @@ public class Environment implements Serializable {
         numberOfRuns = 1;
     }
 
-    public static int getMapWidth() {
-        if (maxXpos == -1) {
-            throw new IllegalStateException("map not already initialized");
-        }
-        return maxXpos;
-    }
-
-    public static int getMapHeight() {
-        if (maxYpos == -1) {
-            throw new IllegalStateException("map not already initialized");
-        }
-        return maxYpos;
-    }
-
     /**
      * Returns the clock used by this environment.
      * @return The clock used by this environment.
@@ -210,6 +249,24 @@ public class Environment implements Serializable {
     public void addGateway(Gateway gateway) {
         // TODO check if coordinates are within valid bounds (although... is this really necessary?)
         gateways.add(gateway);
+        getNetworkEntityRegistry().addGateway(gateway, gateways.size() - 1);
+        getPathLossRasterCache().invalidate();
+        getShadowFadingField().invalidate();
+    }
+
+    /**
+     * Removes a gateway from the list of gateways.
+     * @param gateway the gateway to remove
+     * @return True if the gateway was in the list of gateways.
+     */
+    public boolean removeGateway(Gateway gateway) {
+        if (!gateways.remove(gateway)) {
+            return false;
+        }
+        networkEntityRegistry = null;
+        getPathLossRasterCache().invalidate();
+        getShadowFadingField().invalidate();
+        return true;
     }
 
     /**
@@ -230,6 +287,20 @@ public class Environment implements Serializable {
     public void addMote(Mote mote) {
         // TODO check if coordinates are within valid bounds (although... is this really necessary?)
         motes.add(mote);
+        getNetworkEntityRegistry().addMote(mote, motes.size() - 1);
+    }
+
+    /**
+     * Removes a mote from the list of motes.
+     * @param mote the mote to remove
+     * @return True if the mote was in the list of motes.
+     */
+    public boolean removeMote(Mote mote) {
+        if (!motes.remove(mote)) {
+            return false;
+        }
+        networkEntityRegistry = null;
+        return true;
     }
 
 
@@ -240,10 +311,46 @@ public class Environment implements Serializable {
      * @throws java.util.NoSuchElementException if no entity is present with the given Id.
      */
     public NetworkEntity getNetworkEntityById(long id) {
-        return Stream.concat(this.getMotes().stream(), this.getGateways().stream())
-            .filter(ne -> ne.getEUI() == id)
-            .findFirst()
-            .orElseThrow();
+        return getNetworkEntityRegistry().getNetworkEntity(id).orElseThrow();
+    }
+
+    /**
+     * Returns the index of a mote in the list of motes, or of a gateway in the list of gateways.
+     * @param networkEntity The mote or gateway.
+     * @return The index of the entity, or -1 if it is not in this environment.
+     */
+    public int getIndex(NetworkEntity networkEntity) {
+        int index = getNetworkEntityRegistry().getIndex(networkEntity);
+        if (index == -1) {
+            // Not registered, e.g. because another entity has the same EUI
+            return networkEntity instanceof Mote ? motes.indexOf(networkEntity) : gateways.indexOf(networkEntity);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the registry of the motes and gateways of this environment by EUI.
+     * N.B. entities which are added to (or removed from) the lists of motes and gateways directly are not registered.
+     * @return The registry of the network entities of this environment.
+     */
+    public NetworkEntityRegistry getNetworkEntityRegistry() {
+        if (networkEntityRegistry == null) {
+            networkEntityRegistry = new NetworkEntityRegistry(motes, gateways);
+        }
+        return networkEntityRegistry;
+    }
+
+    /**
+     * Converts a valid map of characteristics to a raster.
+     * @param characteristics The map to convert.
+     * @return A raster with the characteristics of the map.
+     * @throws IllegalArgumentException if the map is not valid.
+     */
+    private static CharacteristicRaster toRaster(Characteristic[][] characteristics) {
+        if (!areValidCharacteristics(characteristics)) {
+            throw new IllegalArgumentException("Invalid characteristics given in constructor of Environment.");
+        }
+        return CharacteristicRaster.of(characteristics);
     }
 
     /**
@@ -251,7 +358,7 @@ public class Environment implements Serializable {
      * @param characteristics The map to check.
      * @return  True if the Map is square.
      */
-    private boolean areValidCharacteristics(Characteristic[][] characteristics) {
+    private static boolean areValidCharacteristics(Characteristic[][] characteristics) {
         if (characteristics.length == 0) {
             return false;
         } else if (characteristics[0].length == 0) {
@@ -278,7 +385,7 @@ public class Environment implements Serializable {
      */
     public Characteristic getCharacteristic(int xPos, int yPos) {
         if (isValidXpos(xPos) && isValidYpos(yPos)) {
-            return characteristics[xPos][yPos];
+            return characteristics.get(xPos, yPos);
         } else {
             return null;
         }
@@ -289,7 +396,126 @@ public class Environment implements Serializable {
      * @param characteristic the given characteristic.
      */
     public void setCharacteristics(Characteristic characteristic, int xPos, int yPos) {
-        this.characteristics[xPos][yPos] = characteristic;
+        this.characteristics.set(characteristic, xPos, yPos);
+        getPathLossRasterCache().invalidate();
+    }
+
+    /**
+     * Sets the characteristic to the given characteristic on a rectangle of locations.
+     * @param characteristic the given characteristic.
+     * @param fromX The first x-coordinate of the rectangle (inclusive).
+     * @param fromY The first y-coordinate of the rectangle (inclusive).
+     * @param toX The last x-coordinate of the rectangle (exclusive).
+     * @param toY The last y-coordinate of the rectangle (exclusive).
+     */
+    public void setCharacteristics(Characteristic characteristic, int fromX, int fromY, int toX, int toY) {
+        this.characteristics.fill(characteristic, fromX, fromY, toX, toY);
+        getPathLossRasterCache().invalidate();
+    }
+
+    /**
+     * Returns the raster with the characteristics of every position, e.g. to traverse the map without the checks
+     * of {@link Environment#getCharacteristic(int, int)} (the raster throws for positions outside the map).
+     * @return The raster with the characteristics of this environment.
+     */
+    public CharacteristicRaster getCharacteristicRaster() {
+        return characteristics;
+    }
+
+    /**
+     * @return The model of the path loss of transmissions in this environment.
+     */
+    public PropagationModel getPropagationModel() {
+        return propagationModel;
+    }
+
+    /**
+     * Sets the model of the path loss of transmissions in this environment.
+     * @param propagationModel The propagation model to use.
+     */
+    public void setPropagationModel(PropagationModel propagationModel) {
+        this.propagationModel = propagationModel;
+        getPathLossRasterCache().invalidate();
+    }
+
+    /**
+     * @return The channels on which the network entities of this environment send their transmissions.
+     */
+    public List<Channel> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Sets the number of channels on which the network entities send their transmissions.
+     * The first channels of {@link EU868Channel} are used, so with a single channel every transmission is sent on
+     * {@link EU868Channel#CHANNEL_0}.
+     * @param numberOfChannels The number of channels to use.
+     * @throws IllegalArgumentException if the number of channels is not between 1 and the number of EU868 channels.
+     */
+    public void setNumberOfChannels(int numberOfChannels) {
+        if (numberOfChannels < 1 || numberOfChannels > EU868Channel.values().length) {
+            throw new IllegalArgumentException("Invalid number of channels: " + numberOfChannels);
+        }
+        this.channels = List.copyOf(EU868Channel.valuesAsList().subList(0, numberOfChannels));
+    }
+
+    /**
+     * @return The model with which the receivers of this environment decide the collisions of transmissions.
+     */
+    public CollisionModel getCollisionModel() {
+        return collisionModel;
+    }
+
+    /**
+     * Sets the model with which the receivers decide the collisions of transmissions, from the next transmission on.
+     * @param collisionModel The collision model to use.
+     */
+    public void setCollisionModel(CollisionModel collisionModel) {
+        this.collisionModel = collisionModel;
+    }
+
+    /**
+     * @return The path loss model of the propagation model of this environment.
+     */
+    public PathLossModel getPathLossModel() {
+        return propagationModel.getPathLossModel();
+    }
+
+    /**
+     * Returns the cache of the path loss from every position to the gateways.
+     * @return The cache of the path loss of this environment.
+     */
+    public PathLossRasterCache getPathLossRasterCache() {
+        if (pathLossRasterCache == null) {
+            pathLossRasterCache = new PathLossRasterCache(this);
+        }
+        return pathLossRasterCache;
+    }
+
+    /**
+     * Returns the correlated shadow fading fields of the gateways of this environment.
+     * @return The shadow fading fields of this environment.
+     */
+    public ShadowFadingField getShadowFadingField() {
+        if (shadowFadingField == null) {
+            shadowFadingField = new ShadowFadingField(this);
+        }
+        return shadowFadingField;
+    }
+
+    /**
+     * @return The way in which the shadow fading of transmissions is determined.
+     */
+    public ShadowFadingMode getShadowFadingMode() {
+        return shadowFadingMode;
+    }
+
+    /**
+     * Sets the way in which the shadow fading of transmissions is determined.
+     * @param shadowFadingMode The shadow fading mode to use.
+     */
+    public void setShadowFadingMode(ShadowFadingMode shadowFadingMode) {
+        this.shadowFadingMode = shadowFadingMode;
     }
 
 
@@ -318,22 +544,43 @@ public class Environment implements Serializable {
      * @param destination The position to move towards.
      */
     public void moveMote(Mote mote, GeoPosition destination) {
-        double xPosDest = this.mapHelper.toMapXCoordinate(destination);
-        double yPosDest = this.mapHelper.toMapYCoordinate(destination);
+        this.moveMote(mote, this.mapHelper.toMapXCoordinate(destination), this.mapHelper.toMapYCoordinate(destination));
+    }
+
+    /**
+     * A function that moves a mote 1 step towards a position on the map.
+     * @param mote The mote to move.
+     * @param xPosDest The x-coordinate on the map of the position to move towards.
+     * @param yPosDest The y-coordinate on the map of the position to move towards.
+     */
+    public void moveMote(Mote mote, int xPosDest, int yPosDest) {
+        this.getNextMotePosition(mote, xPosDest, yPosDest)
+            .ifPresent(position -> mote.setPos(position.getLeft(), position.getRight()));
+    }
+
+    /**
+     * Computes the position of a mote after moving 1 step towards a position on the map, without moving the mote.
+     * @param mote The mote to move.
+     * @param xPosDest The x-coordinate on the map of the position to move towards.
+     * @param yPosDest The y-coordinate on the map of the position to move towards.
+     * @return The new position of the mote, or an empty optional if the mote is already at the given position.
+     */
+    public Optional<Pair<Double, Double>> getNextMotePosition(Mote mote, int xPosDest, int yPosDest) {
         double xPosMote = mote.getXPosDouble();
         double yPosMote = mote.getYPosDouble();
 
-        if (xPosMote != xPosDest || yPosMote != yPosDest) {
-            double deltaX = (xPosDest - xPosMote);
-            double deltaY = (yPosDest - yPosMote);
-            double distance = Math.min(1, Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY, 2)));
-            var angle = Math.atan(Math.abs(deltaY) / Math.abs(deltaX));
+        if (xPosMote == xPosDest && yPosMote == yPosDest) {
+            return Optional.empty();
+        }
+        double deltaX = (xPosDest - xPosMote);
+        double deltaY = (yPosDest - yPosMote);
+        double distance = Math.min(1, Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY, 2)));
+        var angle = Math.atan(Math.abs(deltaY) / Math.abs(deltaX));
 
-            xPosMote += distance * Math.cos(angle) * (xPosDest > xPosMote ? 1 : -1);
-            yPosMote += distance * Math.sin(angle) * (yPosDest > yPosMote ? 1 : -1);
+        xPosMote += distance * Math.cos(angle) * (xPosDest > xPosMote ? 1 : -1);
+        yPosMote += distance * Math.sin(angle) * (yPosDest > yPosMote ? 1 : -1);
 
-            mote.setPos(xPosMote, yPosMote);
-        }
+        return Optional.of(new Pair<>(xPosMote, yPosMote));
     }
 
 
@@ -0,0 +1,73 @@
+package iot;
+
+import iot.networkentity.Gateway;
+
+import java.util.function.Function;
+
+/**
+ * An immutable hash table (open addressing) from the positions of the gateways of an environment to a value for every
+ * position. The positions are packed in a {@code long} (see {@link GatewayTable#packPosition(int, int)}), so that a
+ * lookup does not allocate and does not take a lock.
+ * The table has to be created again when the gateways of the environment change or move.
+ * @param <V> The type of the values.
+ */
+final class GatewayTable<V> {
+
+    private final long[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * A constructor creating a table with a value for the position of every gateway of an environment.
+     * @param environment The environment of which the gateways are used.
+     * @param factory The function which creates the value of a position, from the (first) gateway at that position.
+     */
+    GatewayTable(Environment environment, Function<Gateway, V> factory) {
+        var gateways = environment.getGateways();
+        int capacity = Integer.highestOneBit(Math.max(1, gateways.size()) * 2) * 2;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Gateway gateway : gateways) {
+            long position = packPosition(gateway.getXPosInt(), gateway.getYPosInt());
+            int index = getSlot(position);
+            while (values[index] != null && keys[index] != position) {
+                index = (index + 1) & mask;
+            }
+            if (values[index] == null) {
+                keys[index] = position;
+                values[index] = factory.apply(gateway);
+            }
+        }
+    }
+
+    /**
+     * @param x The x-coordinate of a position.
+     * @param y The y-coordinate of a position.
+     * @return The position packed in a single value, the x-coordinate in the high and the y-coordinate in the low bits.
+     */
+    static long packPosition(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private int getSlot(long position) {
+        long hash = position * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    /**
+     * @param x The x-coordinate of a position.
+     * @param y The y-coordinate of a position.
+     * @return The value of the position, or {@code null} if there is no gateway at the position.
+     */
+    @SuppressWarnings("unchecked")
+    V get(int x, int y) {
+        long position = packPosition(x, y);
+        for (int index = getSlot(position); values[index] != null; index = (index + 1) & mask) {
+            if (keys[index] == position) {
+                return (V) values[index];
+            }
+        }
+        return null;
+    }
+}
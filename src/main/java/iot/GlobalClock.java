@@ -1,39 +1,83 @@
 package iot;
 
+import iot.scheduler.SchedulerType;
+import iot.scheduler.TriggerScheduler;
+import util.SerializableLongSupplier;
+import util.SerializableRunnable;
 import util.TimeHelper;
 
+import java.io.Serializable;
+
+import java.time.Duration;
 import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * N.B. This clock store the triggers in a stack stack (list LIFO based on trigger uid)
+ * N.B. This clock stores the triggers in a {@link TriggerScheduler}, chosen with a {@link SchedulerType}.
+ * Triggers scheduled at the same time are fired LIFO (based on trigger uid), and the scheduler keeps track
+ * of the next time at which a trigger is scheduled, so that the clock can jump directly to it
+ * instead of advancing one millisecond at a time.
+ *
+ * The time is expressed as the number of nanoseconds elapsed since the start of the simulation,
+ * so it does not wrap around after 24 hours.
+ *
+ * Adding a trigger returns a {@link Trigger} handle which can be cancelled or rescheduled in constant time:
+ * the previous occurrence of the trigger is left behind in its list and skipped when that time is reached.
  */
-public class GlobalClock {
+public class GlobalClock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
-    private static long nextTriggerUid = 0;
+    private static final AtomicLong nextTriggerUid = new AtomicLong();
+
+    /**
+     * A representation of time (in nanoseconds since the start of the simulation).
+     */
+    private long time;
 
     /**
-     * A representation of time.
+     * The type of scheduler used to store the triggers.
      */
-    private LocalTime time;
+    private SchedulerType schedulerType;
 
-    private Map<LocalTime, List<Trigger>> triggers;
+    private TriggerScheduler<Occurrence> triggers;
 
     public GlobalClock() {
-        time = LocalTime.of(0,0);
-        triggers = new HashMap<>();
+        this(SchedulerType.LEGACY);
+    }
+
+    public GlobalClock(SchedulerType schedulerType) {
+        this.schedulerType = schedulerType;
+        reset();
     }
 
     /**
      * Returns the current time.
-     * @return The current time.
+     * @return The current time (in nanoseconds since the start of the simulation).
      */
-    public LocalTime getTime() {
+    public long getTime() {
         return time;
     }
 
+    /**
+     * Returns the current time as a time of the day, wrapping around after 24 hours.
+     * N.B. only meant to display the time, use {@link GlobalClock#getTime()} in the simulation itself.
+     * @return The current time of the day.
+     */
+    public LocalTime getTimeOfDay() {
+        return TimeHelper.toLocalTime(time);
+    }
+
+    /**
+     * Returns the time elapsed since the start of the simulation.
+     * N.B. only meant to display the time, use {@link GlobalClock#getTime()} in the simulation itself.
+     * @return The elapsed time.
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(time);
+    }
+
     /**
      * Increases the time with a given amount of milliseconds.
      * @param milliSeconds
@@ -41,79 +85,151 @@ public class GlobalClock {
      */
     public void tick(long milliSeconds) {
         for (long i = milliSeconds; i > 0; i--) {
-            this.time = this.time.plus(1, ChronoUnit.MILLIS);
+            this.time += TimeHelper.NANOS_PER_MILLI;
             fireTrigger();
         }
     }
 
+    /**
+     * Advances the time to the given time, firing every trigger scheduled in between (bounds included)
+     * in the same order as {@link GlobalClock#tick(long)} would, but without visiting the milliseconds
+     * in which nothing is scheduled.
+     * @param time The time to advance to (in nanoseconds since the start of the simulation).
+     * @post The current time is equal to the given time if it was after the current time.
+     */
+    public void advanceTo(long time) {
+        var nextTriggerTime = getNextTriggerTime();
+        while (nextTriggerTime.isPresent() && nextTriggerTime.getAsLong() <= time) {
+            this.time = nextTriggerTime.getAsLong();
+            fireTrigger();
+            nextTriggerTime = getNextTriggerTime();
+        }
+        if (time > this.time) {
+            this.time = time;
+            // Keep the scheduler in sync with the clock, nothing is scheduled at this time
+            fireTrigger();
+        }
+    }
+
+    /**
+     * Returns the earliest time after the current time at which a trigger is scheduled.
+     * @return The time of the next trigger, or an empty optional if no trigger is scheduled anymore.
+     */
+    public OptionalLong getNextTriggerTime() {
+        return triggers.getNextTime();
+    }
+
+    /**
+     * Returns the type of scheduler used to store the triggers.
+     * @return The scheduler type.
+     */
+    public SchedulerType getSchedulerType() {
+        return schedulerType;
+    }
+
+    /**
+     * Sets the type of scheduler used to store the triggers.
+     * @param schedulerType The scheduler type.
+     * @post The new scheduler type is used from the next {@link GlobalClock#reset()} on.
+     */
+    public void setSchedulerType(SchedulerType schedulerType) {
+        this.schedulerType = schedulerType;
+    }
+
     /**
      * Resets the time.
      * @post time is set to 0
      * @post all events are removed
      */
     public void reset() {
-        this.time = LocalTime.of(0,0);
-        triggers = new HashMap<>();
+        this.time = 0;
+        triggers = schedulerType.create();
     }
 
-    public boolean containsTriggers(LocalTime time) {
-        return triggers.containsKey(time);
-    }
-
-    public long addTrigger(LocalTime time, Supplier<LocalTime> trigger) {
+    /**
+     * Adds a trigger to the clock.
+     * @param time The time at which the trigger is fired (in nanoseconds), rounded to the millisecond.
+     * @param trigger The callback to fire, which returns the next time at which it has to be fired again.
+     *                The trigger is not fired again if this time is not after the current time.
+     * @return A handle to cancel or reschedule the trigger.
+     */
+    public Trigger addTrigger(long time, SerializableLongSupplier trigger) {
         var trig = new Trigger(trigger);
-        addTrigger(TimeHelper.roundToMilli(time), trig);
-        return trig.getUid();
+        schedule(TimeHelper.roundToMilli(time), trig);
+        return trig;
     }
 
-    public long addTriggerOneShot(LocalTime time, Runnable trigger) {
+    public Trigger addTriggerOneShot(long time, SerializableRunnable trigger) {
         return addTrigger(time, () -> {
             trigger.run();
-            return LocalTime.of(0,0);
+            return 0;
         });
     }
 
-    private void addTrigger(LocalTime time, Trigger trigger) {
-        if (containsTriggers(time)) {
-            triggers.get(time).add(0,trigger);
-        } else {
-            List<Trigger> newTriggers = new ArrayList<>(List.of(trigger));
-            triggers.put(time,newTriggers);
+    /**
+     * Schedules a new occurrence of the trigger, triggers at or before the current time are never fired.
+     * @param time The time in nanoseconds, rounded to the millisecond.
+     */
+    private void schedule(long time, Trigger trigger) {
+        if (time <= getTime()) {
+            trigger.occurrence = null;
+            return;
         }
+        var occurrence = new Occurrence(trigger);
+        trigger.occurrence = occurrence;
+        triggers.schedule(time, occurrence);
     }
 
-    public boolean removeTrigger(long triggerId) {
-        for (Map.Entry<LocalTime, List<Trigger>> e: triggers.entrySet()) {
-            if (e.getValue().removeIf(p -> p.getUid() == triggerId)) {
-                return true;
+    private void fireTrigger() {
+        for (var occurrence : triggers.poll(getTime())) {
+            var trigger = occurrence.trigger;
+            // Skip the occurrences of triggers which have been cancelled or rescheduled in the meantime
+            if (trigger.occurrence != occurrence) {
+                continue;
+            }
+            long newTime = trigger.getCallback().getAsLong();
+            // The callback itself can have cancelled or rescheduled the trigger
+            if (trigger.occurrence == occurrence) {
+                trigger.occurrence = null;
+                if (newTime > getTime()) {
+                    schedule(TimeHelper.roundToMilli(newTime), trigger);
+                }
             }
         }
-        return false;
     }
 
-    private void fireTrigger() {
-        var triggersToFire = triggers.get(getTime());
-        if (triggersToFire != null) {
-            //Here you have to leave the normal 'for' because you can remove element from the list during the iteration
-            //noinspection ForLoopReplaceableByForEach
-            for (int i = 0; i < triggersToFire.size(); i++) {
-                var trigger = triggersToFire.get(i);
-                LocalTime newTime = trigger.getCallback().get();
-                if (newTime.isAfter(getTime())) {
-                    addTrigger(newTime, trigger);
-                }
-            }
-            triggers.remove(getTime());
+    /**
+     * A single scheduled firing of a trigger.
+     * It is only valid as long as it is the current occurrence of its trigger.
+     */
+    private static class Occurrence implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Trigger trigger;
+
+        Occurrence(Trigger trigger) {
+            this.trigger = trigger;
         }
     }
 
-    private static class Trigger {
+    /**
+     * A handle to a trigger added to the clock.
+     */
+    public class Trigger implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         private final long uid;
-        private final Supplier<LocalTime> callback;
+        private final SerializableLongSupplier callback;
 
-        public Trigger(Supplier<LocalTime> callback) {
-            uid = nextTriggerUid++;
+        /**
+         * The occurrence of this trigger which will be fired, {@code null} if the trigger is not scheduled.
+         */
+        private Occurrence occurrence;
+
+        private Trigger(SerializableLongSupplier callback) {
+            uid = nextTriggerUid.getAndIncrement();
             this.callback = callback;
         }
 
@@ -121,10 +237,36 @@ public class GlobalClock {
             return uid;
         }
 
-        public Supplier<LocalTime> getCallback() {
+        private SerializableLongSupplier getCallback() {
             return callback;
         }
 
+        /**
+         * Returns if the trigger will still be fired by the clock.
+         * @return True if the trigger is scheduled.
+         */
+        public boolean isScheduled() {
+            return occurrence != null;
+        }
+
+        /**
+         * Cancels the trigger.
+         * @return True if the trigger was scheduled.
+         */
+        public boolean cancel() {
+            boolean wasScheduled = isScheduled();
+            occurrence = null;
+            return wasScheduled;
+        }
+
+        /**
+         * Moves the trigger to another time, or schedules it again if it was already fired or cancelled.
+         * @param time The new time at which the trigger is fired (in nanoseconds), rounded to the millisecond.
+         */
+        public void reschedule(long time) {
+            schedule(TimeHelper.roundToMilli(time), this);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -11,6 +11,7 @@ import selfadaptation.adaptationgoals.ThresholdAdaptationGoal;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.Serializable;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.Set;
@@ -18,7 +19,9 @@ import java.util.Set;
 /**
  * A class representing an input profile for the simulator.
  */
-public class InputProfile {
+public class InputProfile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * The default duration of the simulation.
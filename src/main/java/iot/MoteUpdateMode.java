@@ -0,0 +1,17 @@
+package iot;
+
+/**
+ * The ways in which a {@link Simulation} updates its motes (packet consumption and movement) in every step.
+ */
+public enum MoteUpdateMode {
+    /**
+     * The motes are updated one after the other on the simulation thread.
+     */
+    SERIAL,
+    /**
+     * The packet consumption and the new positions of the motes are computed in parallel,
+     * after which the new positions are applied one mote at a time in the order of the environment.
+     * This gives the same results as {@link MoteUpdateMode#SERIAL}, as long as consuming a packet only affects the mote itself.
+     */
+    PARALLEL
+}
@@ -0,0 +1,156 @@
+package iot;
+
+import util.Pair;
+import util.Statistics;
+import util.xml.Configuration;
+import util.xml.ConfigurationReader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A class which executes the runs of a simulation in parallel.
+ * Every run is executed in its own {@link SimulationContext}, with its own copy of the environment (loaded from a
+ * configuration), clock, statistics, MQTT broker and applications. The random generators of run {@code i} are seeded
+ * with {@code SimulationContext.DEFAULT_SEED + i}, so the runs differ from each other but are reproducible.
+ */
+public class MultiRunExecutor {
+
+    /**
+     * The configuration which is loaded in the simulation runner of every run.
+     */
+    private final Configuration configuration;
+
+    /**
+     * The setup of the simulation runner of a run (input profile, approach, ...), after loading the configuration.
+     */
+    private final Consumer<SimulationRunner> setup;
+
+    /**
+     * The number of runs executed at the same time.
+     */
+    private final int numberOfThreads;
+
+    /**
+     * If true, timed runs are executed (see {@link SimulationRunner#setupTimedRun()}), otherwise single runs.
+     */
+    private boolean timedRuns = false;
+
+    /**
+     * Creates a new executor, which reads the configuration file once for all the runs.
+     * @param configurationFile The configuration which is loaded for every run.
+     * @param setup The setup of the simulation runner of every run, after loading the configuration.
+     * @param numberOfThreads The number of runs executed at the same time.
+     * @throws IllegalArgumentException if the configuration file cannot be read.
+     */
+    public MultiRunExecutor(File configurationFile, Consumer<SimulationRunner> setup, int numberOfThreads) {
+        this(ConfigurationReader.readConfiguration(configurationFile)
+            .orElseThrow(() -> new IllegalArgumentException("Could not read configuration " + configurationFile)),
+            setup, numberOfThreads);
+    }
+
+    /**
+     * Creates a new executor of which every run creates its environment from the same configuration.
+     * @param configuration The configuration which is loaded for every run.
+     * @param setup The setup of the simulation runner of every run, after loading the configuration.
+     * @param numberOfThreads The number of runs executed at the same time.
+     */
+    public MultiRunExecutor(Configuration configuration, Consumer<SimulationRunner> setup, int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed to execute the runs.");
+        }
+        this.configuration = configuration;
+        this.setup = setup;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Sets if timed runs or single runs (until all motes are at their destination) are executed.
+     * @param timedRuns True to execute timed runs.
+     * @return This executor.
+     */
+    public MultiRunExecutor setTimedRuns(boolean timedRuns) {
+        this.timedRuns = timedRuns;
+        return this;
+    }
+
+    /**
+     * Executes the runs and merges their statistics, in the order of the runs.
+     * @param numberOfRuns The number of runs to execute.
+     * @param merge A callback which receives the statistics of every run, in the order of the runs.
+     * @param fn A callback function which is invoked after every executed run (with the number of finished runs).
+     *           N.B. the last call is only done after all the statistics have been merged.
+     */
+    public void execute(int numberOfRuns, Consumer<Statistics> merge, Consumer<Pair<Integer, Integer>> fn) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, Math.max(numberOfRuns, 1)));
+        try {
+            AtomicInteger finishedRuns = new AtomicInteger();
+            List<Future<Statistics>> runs = new ArrayList<>();
+            for (int i = 0; i < numberOfRuns; i++) {
+                final int run = i;
+                runs.add(executor.submit(() -> {
+                    var statistics = executeRun(run);
+                    int finished = finishedRuns.incrementAndGet();
+                    if (finished < numberOfRuns) {
+                        synchronized (fn) {
+                            fn.accept(new Pair<>(finished, numberOfRuns));
+                        }
+                    }
+                    return statistics;
+                }));
+            }
+
+            for (var run : runs) {
+                merge.accept(run.get());
+            }
+            fn.accept(new Pair<>(numberOfRuns, numberOfRuns));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the runs", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A run of the simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes a single run in a new context on the current thread.
+     * @param run The number of the run, which determines the seed of its random generators.
+     * @return The statistics of the run.
+     */
+    public Statistics executeRun(int run) {
+        return executeRun(run, runner -> Statistics.getInstance());
+    }
+
+    /**
+     * Executes a single run in a new context on the current thread.
+     * @param run The number of the run, which determines the seed of its random generators.
+     * @param result A function which extracts the result of the run, called in the context of the run.
+     * @param <T> The type of the result.
+     * @return The result of the run.
+     */
+    public <T> T executeRun(int run, Function<SimulationRunner, T> result) {
+        return new SimulationContext(SimulationContext.DEFAULT_SEED + run).call(() -> {
+            var runner = SimulationRunner.getInstance();
+            runner.loadConfiguration(configuration);
+            setup.accept(runner);
+            if (timedRuns) {
+                runner.setupTimedRun();
+            } else {
+                runner.setupSingleRun(true);
+            }
+
+            var simulation = runner.getSimulation();
+            while (!simulation.isFinished()) {
+                simulation.simulateStep();
+            }
+            return result.apply(runner);
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package iot;
+
+import iot.networkentity.Gateway;
+import iot.networkentity.Mote;
+import iot.networkentity.NetworkEntity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A registry of the motes and gateways of an environment by EUI, so that an entity, its role and its index in the
+ * list of motes or gateways of the environment are found without scanning these lists.
+ * <p>
+ * If several motes (or gateways) have the same EUI, the registry keeps the first one, which is the one a scan of the
+ * list would find first. An EUI can be registered both as a mote and as a gateway.
+ */
+public class NetworkEntityRegistry {
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * A constructor creating a registry of the given motes and gateways.
+     * @param motes The motes, in the order of the environment.
+     * @param gateways The gateways, in the order of the environment.
+     */
+    public NetworkEntityRegistry(List<Mote> motes, List<Gateway> gateways) {
+        int index = 0;
+        for (Mote mote : motes) {
+            addMote(mote, index++);
+        }
+        index = 0;
+        for (Gateway gateway : gateways) {
+            addGateway(gateway, index++);
+        }
+    }
+
+    /**
+     * Registers a mote, unless a mote with the same EUI is already registered.
+     * @param mote The mote to register.
+     * @param index The index of the mote in the list of motes of the environment.
+     */
+    public void addMote(Mote mote, int index) {
+        var entry = entries.computeIfAbsent(mote.getEUI(), eui -> new Entry());
+        if (entry.mote == null) {
+            entry.mote = mote;
+            entry.moteIndex = index;
+        }
+    }
+
+    /**
+     * Registers a gateway, unless a gateway with the same EUI is already registered.
+     * @param gateway The gateway to register.
+     * @param index The index of the gateway in the list of gateways of the environment.
+     */
+    public void addGateway(Gateway gateway, int index) {
+        var entry = entries.computeIfAbsent(gateway.getEUI(), eui -> new Entry());
+        if (entry.gateway == null) {
+            entry.gateway = gateway;
+            entry.gatewayIndex = index;
+        }
+    }
+
+    /**
+     * Returns the network entity with a given EUI, where motes take precedence over gateways.
+     * @param eui The EUI of the entity.
+     * @return The entity with the given EUI, if any.
+     */
+    public Optional<NetworkEntity> getNetworkEntity(long eui) {
+        var entry = entries.get(eui);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.mote != null ? entry.mote : entry.gateway);
+    }
+
+    /**
+     * @param eui The EUI of the mote.
+     * @return The mote with the given EUI, if any.
+     */
+    public Optional<Mote> getMote(long eui) {
+        var entry = entries.get(eui);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.mote);
+    }
+
+    /**
+     * @param eui The EUI of the gateway.
+     * @return The gateway with the given EUI, if any.
+     */
+    public Optional<Gateway> getGateway(long eui) {
+        var entry = entries.get(eui);
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.gateway);
+    }
+
+    /**
+     * @param eui An EUI.
+     * @return True if a mote with the given EUI is registered.
+     */
+    public boolean isMote(long eui) {
+        var entry = entries.get(eui);
+        return entry != null && entry.mote != null;
+    }
+
+    /**
+     * @param eui An EUI.
+     * @return True if a gateway with the given EUI is registered.
+     */
+    public boolean isGateway(long eui) {
+        var entry = entries.get(eui);
+        return entry != null && entry.gateway != null;
+    }
+
+    /**
+     * Returns the index of a registered network entity in the list of motes or gateways of the environment.
+     * @param networkEntity The entity.
+     * @return The index of the entity, or -1 if this entity is not registered
+     *         (e.g. because another entity with the same EUI is registered).
+     */
+    public int getIndex(NetworkEntity networkEntity) {
+        var entry = entries.get(networkEntity.getEUI());
+        if (entry == null) {
+            return -1;
+        } else if (entry.mote == networkEntity) {
+            return entry.moteIndex;
+        } else if (entry.gateway == networkEntity) {
+            return entry.gatewayIndex;
+        }
+        return -1;
+    }
+
+    private static class Entry {
+        private Mote mote;
+        private int moteIndex = -1;
+        private Gateway gateway;
+        private int gatewayIndex = -1;
+    }
+}
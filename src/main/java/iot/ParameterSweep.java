@@ -0,0 +1,313 @@
+package iot;
+
+import iot.networkentity.Gateway;
+import iot.networkentity.Mote;
+import util.Statistics;
+import util.xml.Configuration;
+import util.xml.ConfigurationReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * A class which executes every combination of a grid of configurations, input profiles, adaptation approaches and
+ * QoS goals (a cell), and writes a table with the results of the runs of every cell.
+ * The runs of all the cells are executed on a work stealing pool, every run in its own {@link SimulationContext}.
+ * Every configuration file is only parsed once.
+ */
+public class ParameterSweep {
+
+    private final List<File> configurations = new ArrayList<>();
+    private final List<InputProfile> inputProfiles = new ArrayList<>();
+    private final List<String> approaches = new ArrayList<>();
+
+    /**
+     * The QoS goals which are set on top of the ones of the input profile, empty to only use the input profile.
+     */
+    private final List<QualityOfService> qualityOfServices = new ArrayList<>();
+
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+    private boolean timedRuns = false;
+    private TimeAdvanceMode timeAdvanceMode = TimeAdvanceMode.FIXED_STEP;
+
+    // region builder
+
+    public ParameterSweep addConfiguration(File configuration) {
+        configurations.add(configuration);
+        return this;
+    }
+
+    public ParameterSweep addInputProfile(InputProfile inputProfile) {
+        inputProfiles.add(inputProfile);
+        return this;
+    }
+
+    /**
+     * Adds an adaptation approach to the grid.
+     * @param approach The name of the approach (see {@link SimulationRunner#getAlgorithms()}).
+     * @return This sweep.
+     */
+    public ParameterSweep addApproach(String approach) {
+        approaches.add(approach);
+        return this;
+    }
+
+    public ParameterSweep addQualityOfService(QualityOfService qualityOfService) {
+        qualityOfServices.add(qualityOfService);
+        return this;
+    }
+
+    public ParameterSweep setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed to execute the runs.");
+        }
+        this.numberOfThreads = numberOfThreads;
+        return this;
+    }
+
+    /**
+     * Sets if timed runs or single runs (until all motes are at their destination) are executed.
+     * @param timedRuns True to execute timed runs.
+     * @return This sweep.
+     */
+    public ParameterSweep setTimedRuns(boolean timedRuns) {
+        this.timedRuns = timedRuns;
+        return this;
+    }
+
+    public ParameterSweep setTimeAdvanceMode(TimeAdvanceMode timeAdvanceMode) {
+        this.timeAdvanceMode = timeAdvanceMode;
+        return this;
+    }
+
+    // endregion
+
+    /**
+     * Returns all the combinations of the grid.
+     * @return The cells of the grid, in the order in which their results are written.
+     */
+    public List<Cell> getCells() {
+        List<Cell> cells = new ArrayList<>();
+        List<QualityOfService> qosValues = qualityOfServices.isEmpty() ?
+            Collections.singletonList(null) : qualityOfServices;
+        for (File configuration : configurations) {
+            for (InputProfile inputProfile : inputProfiles) {
+                for (String approach : approaches) {
+                    for (QualityOfService qualityOfService : qosValues) {
+                        cells.add(new Cell(cells.size(), configuration, inputProfile, approach, qualityOfService));
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Executes all the runs of all the cells and writes the results to a directory:
+     * {@code cells.csv} describes the cells and {@code cell_<index>.csv} contains one row per run of a cell.
+     * @param outputDirectory The directory in which the results are written.
+     * @return The results of every cell, in the order of {@link ParameterSweep#getCells()}.
+     */
+    public Map<Cell, List<RunResult>> execute(File outputDirectory) {
+        var cells = getCells();
+        Map<File, Configuration> parsedConfigurations = new HashMap<>();
+        for (File configuration : configurations) {
+            parsedConfigurations.put(configuration, ConfigurationReader.readConfiguration(configuration)
+                .orElseThrow(() -> new IllegalArgumentException("Could not read configuration " + configuration)));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        Map<Cell, List<RunResult>> results = new LinkedHashMap<>();
+        try {
+            // Submit every run of every cell first, so that idle threads can steal runs of other cells
+            Map<Cell, List<Future<RunResult>>> runs = new LinkedHashMap<>();
+            for (Cell cell : cells) {
+                var executor = new MultiRunExecutor(parsedConfigurations.get(cell.configuration), cell::setup, 1)
+                    .setTimedRuns(timedRuns);
+                List<Future<RunResult>> cellRuns = new ArrayList<>();
+                for (int i = 0; i < cell.inputProfile.getNumberOfRuns(); i++) {
+                    final int run = i;
+                    cellRuns.add(pool.submit(() -> executor.executeRun(run, RunResult::of)));
+                }
+                runs.put(cell, cellRuns);
+            }
+
+            for (var cellRuns : runs.entrySet()) {
+                List<RunResult> cellResults = new ArrayList<>();
+                for (var run : cellRuns.getValue()) {
+                    cellResults.add(run.get());
+                }
+                results.put(cellRuns.getKey(), cellResults);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the runs", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A run of the parameter sweep failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        writeResults(outputDirectory, results);
+        return results;
+    }
+
+    private static void writeResults(File outputDirectory, Map<Cell, List<RunResult>> results) {
+        try {
+            Files.createDirectories(outputDirectory.toPath());
+            List<String> cellLines = new ArrayList<>();
+            cellLines.add("cell,configuration,inputProfile,approach,qualityOfService");
+            for (var entry : results.entrySet()) {
+                Cell cell = entry.getKey();
+                cellLines.add(cell.toCsvRow());
+
+                List<String> runLines = new ArrayList<>();
+                runLines.add(RunResult.CSV_HEADER);
+                for (int run = 0; run < entry.getValue().size(); run++) {
+                    runLines.add(run + "," + entry.getValue().get(run).toCsvRow());
+                }
+                Files.write(new File(outputDirectory, "cell_" + cell.index + ".csv").toPath(), runLines);
+            }
+            Files.write(new File(outputDirectory, "cells.csv").toPath(), cellLines);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write the results of the parameter sweep", e);
+        }
+    }
+
+
+    /**
+     * A single combination of the grid.
+     */
+    public class Cell {
+        private final int index;
+        private final File configuration;
+        private final InputProfile inputProfile;
+        private final String approach;
+        private final QualityOfService qualityOfService;
+
+        private Cell(int index, File configuration, InputProfile inputProfile, String approach,
+                     QualityOfService qualityOfService) {
+            this.index = index;
+            this.configuration = configuration;
+            this.inputProfile = inputProfile;
+            this.approach = approach;
+            this.qualityOfService = qualityOfService;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public File getConfiguration() {
+            return configuration;
+        }
+
+        public InputProfile getInputProfile() {
+            return inputProfile;
+        }
+
+        public String getApproach() {
+            return approach;
+        }
+
+        public Optional<QualityOfService> getQualityOfService() {
+            return Optional.ofNullable(qualityOfService);
+        }
+
+        /**
+         * Sets up the simulation runner of a run of this cell, after the configuration has been loaded.
+         */
+        private void setup(SimulationRunner runner) {
+            runner.getSimulation().setInputProfile(inputProfile);
+            runner.updateQoS(inputProfile.getQualityOfServiceProfile());
+            if (qualityOfService != null) {
+                runner.updateQoS(qualityOfService);
+            }
+            runner.setTimeAdvanceMode(timeAdvanceMode);
+            runner.setApproach(approach);
+        }
+
+        private String toCsvRow() {
+            String goals = getQualityOfService()
+                .map(qos -> qos.getNames().stream()
+                    .sorted()
+                    .map(name -> name + "=" + qos.getAdaptationGoal(name))
+                    .collect(Collectors.joining(" ")))
+                .orElse("");
+            return String.join(",", Integer.toString(index), configuration.getName(), inputProfile.getName(),
+                approach, "\"" + goals + "\"");
+        }
+    }
+
+
+    /**
+     * The aggregated results of a single run.
+     */
+    public static class RunResult {
+        static final String CSV_HEADER = "run,sentPackets,receivedPackets,collidedPackets,usedEnergy";
+
+        private final int sentPackets;
+        private final int receivedPackets;
+        private final int collidedPackets;
+        private final double usedEnergy;
+
+        RunResult(int sentPackets, int receivedPackets, int collidedPackets, double usedEnergy) {
+            this.sentPackets = sentPackets;
+            this.receivedPackets = receivedPackets;
+            this.collidedPackets = collidedPackets;
+            this.usedEnergy = usedEnergy;
+        }
+
+        /**
+         * Aggregates the statistics of the (only) run of a simulation runner.
+         */
+        private static RunResult of(SimulationRunner runner) {
+            var statistics = Statistics.getInstance();
+            var environment = runner.getEnvironment();
+            int sent = 0;
+            double energy = 0;
+            for (Mote mote : environment.getMotes()) {
+                var aggregates = statistics.getAggregatedStatistics(mote.getEUI(), 0);
+                sent += (int) aggregates.getSentPackets();
+                energy += aggregates.getUsedEnergy();
+            }
+            int received = 0;
+            int collided = 0;
+            for (Gateway gateway : environment.getGateways()) {
+                var aggregates = statistics.getAggregatedStatistics(gateway.getEUI(), 0);
+                received += (int) (aggregates.getReceivedPackets() - aggregates.getCollidedPackets());
+                collided += (int) aggregates.getCollidedPackets();
+            }
+            return new RunResult(sent, received, collided, energy);
+        }
+
+        public int getSentPackets() {
+            return sentPackets;
+        }
+
+        public int getReceivedPackets() {
+            return receivedPackets;
+        }
+
+        public int getCollidedPackets() {
+            return collidedPackets;
+        }
+
+        /**
+         * @return The energy used by all the motes for their transmissions.
+         */
+        public double getUsedEnergy() {
+            return usedEnergy;
+        }
+
+        private String toCsvRow() {
+            return String.format(Locale.ROOT, "%d,%d,%d,%.6f", sentPackets, receivedPackets, collidedPackets, usedEnergy);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package iot;
+
+import java.util.Arrays;
+
+/**
+ * A class caching the deterministic part of the path loss (the transmission power before shadow fading)
+ * from every position of the map to the receivers which never move, i.e. the gateways.
+ * For every gateway position and initial transmission power, a raster with the resulting transmission power
+ * for every sender position is kept. The rasters are filled lazily with the results of the path loss model,
+ * so a cached value is exactly the value the model computes.
+ * The cache has to be invalidated when the characteristics, the path loss model or the gateways of the environment
+ * change.
+ * <p>
+ * A lookup does not allocate: the rasters are found by the position of the receiver in a {@link GatewayTable}
+ * and by the transmission power.
+ */
+public class PathLossRasterCache {
+
+    /**
+     * The size (in both directions) of the tiles of a raster, which are only allocated once a value in them is cached.
+     */
+    private static final int TILE_SIZE = 64;
+
+    private final Environment environment;
+
+    /**
+     * The rasters of the positions of the gateways, {@code null} if the gateways have to be determined again.
+     */
+    private volatile GatewayTable<ReceiverRasters> receivers;
+
+    /**
+     * A constructor creating an empty cache for an environment.
+     * @param environment The environment of which the characteristics and the gateways are used.
+     */
+    public PathLossRasterCache(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Returns the cached transmission power (before shadow fading) of a transmission between two positions.
+     * @param xReceiver The x-coordinate of the receiver.
+     * @param yReceiver The y-coordinate of the receiver.
+     * @param transmissionPower The initial transmission power.
+     * @param xSender The x-coordinate of the sender.
+     * @param ySender The y-coordinate of the sender.
+     * @return The cached transmission power at the sender, or {@link Double#NaN} if it is not cached.
+     */
+    public double get(int xReceiver, int yReceiver, double transmissionPower, int xSender, int ySender) {
+        if (!environment.isValidXpos(xSender) || !environment.isValidYpos(ySender)) {
+            return Double.NaN;
+        }
+        var rasters = getReceivers().get(xReceiver, yReceiver);
+        var raster = rasters == null ? null : rasters.get(transmissionPower);
+        return raster == null ? Double.NaN : raster.get(xSender, ySender);
+    }
+
+    /**
+     * Caches the transmission power (before shadow fading) of a transmission between two positions,
+     * if the receiver is located at the position of a gateway.
+     * @param xReceiver The x-coordinate of the receiver.
+     * @param yReceiver The y-coordinate of the receiver.
+     * @param transmissionPower The initial transmission power.
+     * @param xSender The x-coordinate of the sender.
+     * @param ySender The y-coordinate of the sender.
+     * @param meanTransmissionPower The transmission power at the sender.
+     */
+    public void put(int xReceiver, int yReceiver, double transmissionPower, int xSender, int ySender, double meanTransmissionPower) {
+        if (!environment.isValidXpos(xSender) || !environment.isValidYpos(ySender)) {
+            return;
+        }
+        var rasters = getReceivers().get(xReceiver, yReceiver);
+        if (rasters != null) {
+            rasters.getOrCreate(transmissionPower).put(xSender, ySender, meanTransmissionPower);
+        }
+    }
+
+    /**
+     * Removes all cached values, e.g. after the characteristics or the gateways are edited.
+     */
+    public void invalidate() {
+        receivers = null;
+    }
+
+    private GatewayTable<ReceiverRasters> getReceivers() {
+        var table = receivers;
+        if (table == null) {
+            table = new GatewayTable<>(environment, gateway -> new ReceiverRasters());
+            receivers = table;
+        }
+        return table;
+    }
+
+    /**
+     * The rasters of a receiver, one for every initial transmission power (there are only a few power settings).
+     */
+    private class ReceiverRasters {
+
+        private volatile double[] transmissionPowers = new double[0];
+        private volatile Raster[] rasters = new Raster[0];
+
+        /**
+         * @param transmissionPower The initial transmission power.
+         * @return The raster of the transmission power, or {@code null} if nothing is cached for it.
+         */
+        Raster get(double transmissionPower) {
+            // The powers are written before the rasters, so the powers read after the rasters are never shorter
+            var currentRasters = rasters;
+            var powers = transmissionPowers;
+            for (int i = 0; i < currentRasters.length; i++) {
+                if (Double.compare(powers[i], transmissionPower) == 0) {
+                    return currentRasters[i];
+                }
+            }
+            return null;
+        }
+
+        synchronized Raster getOrCreate(double transmissionPower) {
+            var raster = get(transmissionPower);
+            if (raster == null) {
+                int size = rasters.length;
+                raster = new Raster(environment.getMaxXpos() + 1, environment.getMaxYpos() + 1);
+                var powers = Arrays.copyOf(transmissionPowers, size + 1);
+                powers[size] = transmissionPower;
+                var newRasters = Arrays.copyOf(rasters, size + 1);
+                newRasters[size] = raster;
+                transmissionPowers = powers;
+                rasters = newRasters;
+            }
+            return raster;
+        }
+    }
+
+    /**
+     * A raster of transmission powers, of which the tiles are allocated on demand.
+     * N.B. concurrent writes can lose a value, which is then computed again.
+     */
+    private static class Raster {
+
+        private final int numberOfTilesY;
+        private final double[][] tiles;
+
+        Raster(int width, int height) {
+            this.numberOfTilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+            this.tiles = new double[((width + TILE_SIZE - 1) / TILE_SIZE) * numberOfTilesY][];
+        }
+
+        private int getTileIndex(int x, int y) {
+            return (x / TILE_SIZE) * numberOfTilesY + y / TILE_SIZE;
+        }
+
+        private static int getIndexInTile(int x, int y) {
+            return (x % TILE_SIZE) * TILE_SIZE + y % TILE_SIZE;
+        }
+
+        double get(int x, int y) {
+            var tile = tiles[getTileIndex(x, y)];
+            return tile == null ? Double.NaN : tile[getIndexInTile(x, y)];
+        }
+
+        void put(int x, int y, double value) {
+            int tileIndex = getTileIndex(x, y);
+            var tile = tiles[tileIndex];
+            if (tile == null) {
+                tile = new double[TILE_SIZE * TILE_SIZE];
+                Arrays.fill(tile, Double.NaN);
+                tiles[tileIndex] = tile;
+            }
+            tile[getIndexInTile(x, y)] = value;
+        }
+    }
+}
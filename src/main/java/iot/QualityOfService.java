@@ -2,13 +2,16 @@ package iot;
 
 import selfadaptation.adaptationgoals.AdaptationGoal;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * A class representing a requested Quality Of Service.
  */
-public class QualityOfService {
+public class QualityOfService implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Map<String, AdaptationGoal> adaptationGoals;
 
@@ -0,0 +1,215 @@
+package iot;
+
+import iot.networkentity.Gateway;
+
+import java.util.Random;
+
+/**
+ * A class keeping a spatially correlated shadow fading field for every gateway of an environment.
+ * <p>
+ * A field holds standard normal values on a coarse grid over the map, of which the correlation between two grid points
+ * decays exponentially with their (euclidean) distance {@code d}: {@code exp(-d / DECORRELATION_DISTANCE)}, the model of
+ * Gudmundson with a decorrelation distance of {@link ShadowFadingField#DECORRELATION_DISTANCE}.
+ * The field is generated as a sum of {@link ShadowFadingField#NUMBER_OF_WAVES} plane waves with a random phase, of
+ * which the spatial frequencies are drawn from the spectrum of that correlation (a bivariate Cauchy distribution).
+ * <p>
+ * The value at a position is interpolated bilinearly between the surrounding grid points and divided by the standard
+ * deviation of the interpolation, so that every position has a unit variance. It is scaled with the shadow fading of
+ * the characteristic of the sender, so the shadow fading of a link costs one lookup instead of a gaussian draw.
+ * <p>
+ * The random generator of a field is seeded with the position of its gateway, so the fields (and thus the results
+ * of a simulation) are the same in every run. The fields are created when they are first used and
+ * have to be invalidated when the gateways of the environment change or move.
+ */
+public class ShadowFadingField {
+
+    /**
+     * The distance between the points of the grid of a field.
+     */
+    private static final int GRID_SPACING = 10;
+
+    /**
+     * The distance over which the correlation of the shadow fading decays to {@code 1/e}.
+     */
+    private static final double DECORRELATION_DISTANCE = 50.0;
+
+    /**
+     * The number of plane waves of a field, enough for the values to be (close to) normally distributed.
+     */
+    private static final int NUMBER_OF_WAVES = 256;
+
+    private static final long SEED = 0x5AD0F1E1DL;
+
+    /**
+     * The inverse of the standard deviation of the interpolated value, by the offset (in both directions) of a position
+     * from the grid point below it.
+     */
+    private static final double[][] normalization = computeNormalization();
+
+    private final Environment environment;
+
+    private final int numberOfPointsX;
+    private final int numberOfPointsY;
+
+    /**
+     * The fields by gateway position, {@code null} if the gateways have to be determined again.
+     */
+    private volatile GatewayTable<Field> fields;
+
+    /**
+     * A constructor creating the (not yet generated) fields of an environment.
+     * @param environment The environment of which the map size and the gateways are used.
+     */
+    public ShadowFadingField(Environment environment) {
+        this.environment = environment;
+        this.numberOfPointsX = environment.getMaxXpos() / GRID_SPACING + 2;
+        this.numberOfPointsY = environment.getMaxYpos() / GRID_SPACING + 2;
+    }
+
+    /**
+     * Returns the normalized shadow fading of a transmission between a sender and a gateway.
+     * @param xReceiver The x-coordinate of the receiver.
+     * @param yReceiver The y-coordinate of the receiver.
+     * @param xSender The x-coordinate of the sender.
+     * @param ySender The y-coordinate of the sender.
+     * @return The standard normal shadow fading of the link, which still has to be multiplied with the shadow fading
+     *         of the characteristic, or {@link Double#NaN} if the receiver is not located at the position of a gateway
+     *         or the sender is not on the map.
+     */
+    public double get(int xReceiver, int yReceiver, int xSender, int ySender) {
+        if (!environment.isValidXpos(xSender) || !environment.isValidYpos(ySender)) {
+            return Double.NaN;
+        }
+        var field = getFields().get(xReceiver, yReceiver);
+        if (field == null) {
+            return Double.NaN;
+        }
+        var values = field.getValues();
+
+        int gridX = xSender / GRID_SPACING;
+        int gridY = ySender / GRID_SPACING;
+        int offsetX = xSender - gridX * GRID_SPACING;
+        int offsetY = ySender - gridY * GRID_SPACING;
+        double fractionX = offsetX / (double) GRID_SPACING;
+        double fractionY = offsetY / (double) GRID_SPACING;
+        int index = gridX * numberOfPointsY + gridY;
+        return normalization[offsetX][offsetY] *
+            ((1 - fractionX) * ((1 - fractionY) * values[index] + fractionY * values[index + 1]) +
+            fractionX * ((1 - fractionY) * values[index + numberOfPointsY] + fractionY * values[index + numberOfPointsY + 1]));
+    }
+
+    /**
+     * Removes all fields, e.g. after the gateways are edited.
+     */
+    public void invalidate() {
+        fields = null;
+    }
+
+    private GatewayTable<Field> getFields() {
+        var table = fields;
+        if (table == null) {
+            table = new GatewayTable<>(environment, Field::new);
+            fields = table;
+        }
+        return table;
+    }
+
+    /**
+     * Computes the inverse of the standard deviation of a bilinear interpolation between four grid points of a
+     * unit variance field, for every offset of a position in the grid.
+     */
+    private static double[][] computeNormalization() {
+        double adjacent = Math.exp(-GRID_SPACING / DECORRELATION_DISTANCE);
+        double diagonal = Math.exp(-Math.sqrt(2) * GRID_SPACING / DECORRELATION_DISTANCE);
+        var result = new double[GRID_SPACING][GRID_SPACING];
+        for (int offsetX = 0; offsetX < GRID_SPACING; offsetX++) {
+            for (int offsetY = 0; offsetY < GRID_SPACING; offsetY++) {
+                double fractionX = offsetX / (double) GRID_SPACING;
+                double fractionY = offsetY / (double) GRID_SPACING;
+                // The weights of the grid points (0, 0), (1, 0), (0, 1) and (1, 1)
+                double w00 = (1 - fractionX) * (1 - fractionY);
+                double w10 = fractionX * (1 - fractionY);
+                double w01 = (1 - fractionX) * fractionY;
+                double w11 = fractionX * fractionY;
+                double variance = w00 * w00 + w10 * w10 + w01 * w01 + w11 * w11 +
+                    2 * adjacent * (w00 * w10 + w01 * w11 + w00 * w01 + w10 * w11) +
+                    2 * diagonal * (w00 * w11 + w10 * w01);
+                result[offsetX][offsetY] = 1 / Math.sqrt(variance);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The field of a gateway, generated when it is first used.
+     */
+    private class Field {
+
+        private final int xReceiver;
+        private final int yReceiver;
+        private volatile float[] values;
+
+        Field(Gateway gateway) {
+            this.xReceiver = gateway.getXPosInt();
+            this.yReceiver = gateway.getYPosInt();
+        }
+
+        float[] getValues() {
+            var result = values;
+            if (result == null) {
+                synchronized (this) {
+                    result = values;
+                    if (result == null) {
+                        result = generate();
+                        values = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Generates the values of the grid as {@code sqrt(2 / N) * sum(cos(w . p + phase))} over the waves.
+         * The cosine of every wave is split in a factor along x and a factor along y, so only the factors are computed
+         * with trigonometric functions.
+         */
+        private float[] generate() {
+            var random = new Random(SEED ^ (31L * xReceiver + yReceiver));
+            var sums = new double[numberOfPointsX * numberOfPointsY];
+            var cosX = new double[numberOfPointsX];
+            var sinX = new double[numberOfPointsX];
+            var cosY = new double[numberOfPointsY];
+            var sinY = new double[numberOfPointsY];
+            for (int wave = 0; wave < NUMBER_OF_WAVES; wave++) {
+                // A bivariate Cauchy distribution: a normal vector divided by the absolute value of a normal variable
+                double scale = GRID_SPACING / (DECORRELATION_DISTANCE * Math.abs(random.nextGaussian()));
+                double frequencyX = random.nextGaussian() * scale;
+                double frequencyY = random.nextGaussian() * scale;
+                double phase = 2 * Math.PI * random.nextDouble();
+                for (int x = 0; x < numberOfPointsX; x++) {
+                    double angle = frequencyX * x + phase;
+                    cosX[x] = Math.cos(angle);
+                    sinX[x] = Math.sin(angle);
+                }
+                for (int y = 0; y < numberOfPointsY; y++) {
+                    double angle = frequencyY * y;
+                    cosY[y] = Math.cos(angle);
+                    sinY[y] = Math.sin(angle);
+                }
+                for (int x = 0; x < numberOfPointsX; x++) {
+                    int row = x * numberOfPointsY;
+                    for (int y = 0; y < numberOfPointsY; y++) {
+                        sums[row + y] += cosX[x] * cosY[y] - sinX[x] * sinY[y];
+                    }
+                }
+            }
+
+            double amplitude = Math.sqrt(2.0 / NUMBER_OF_WAVES);
+            var result = new float[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                result[i] = (float) (amplitude * sums[i]);
+            }
+            return result;
+        }
+    }
+}
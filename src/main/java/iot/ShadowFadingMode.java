@@ -0,0 +1,17 @@
+package iot;
+
+/**
+ * The ways in which the shadow fading of a transmission is determined.
+ */
+public enum ShadowFadingMode {
+    /**
+     * A new gaussian value is drawn for every transmission to every receiver.
+     */
+    INDEPENDENT,
+    /**
+     * The shadow fading of a transmission to a gateway is looked up in a precomputed field which is correlated over
+     * the position of the sender (see {@link ShadowFadingField}).
+     * Transmissions to motes still use an independent gaussian value.
+     */
+    CORRELATED
+}
@@ -5,18 +5,26 @@ import datagenerator.SensorDataGenerator;
 import iot.networkentity.Gateway;
 import iot.networkentity.Mote;
 import iot.networkentity.MoteSensor;
+import iot.scheduler.TriggerScheduler;
+import org.jxmapviewer.viewer.GeoPosition;
 import selfadaptation.feedbackloop.GenericFeedbackLoop;
+import util.Pair;
+import util.SerializablePredicate;
 import util.TimeHelper;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.lang.ref.WeakReference;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.function.Predicate;
 
 /**
  * A class representing a simulation.
  */
-public class Simulation {
+public class Simulation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     // region fields
     /**
@@ -26,7 +34,7 @@ public class Simulation {
     /**
      * The Environment used in th simulation.
      */
-    private WeakReference<Environment> environment;
+    private transient WeakReference<Environment> environment;
     /**
      * The GenericFeedbackLoop used in the simulation.
      */
@@ -35,13 +43,85 @@ public class Simulation {
     /**
      * A condition which determines if the simulation should continue (should return {@code false} when the simulation is finished).
      */
-    private Predicate<Environment> continueSimulation;
+    private SerializablePredicate<Environment> continueSimulation;
+
+    /**
+     * The motes of the environment during the current run, the other mobility parameters below are indexed in the same way.
+     */
+    private List<Mote> motes;
+    /**
+     * The index of the waypoint in the path towards which every mote is moving.
+     */
+    private int[] wayPointIndices;
+    /**
+     * The last time (in nanoseconds) at which every mote has moved.
+     */
+    private long[] lastMoveTimes;
+    /**
+     * The waypoint towards which every mote moved the last time, and its coordinates on the map
+     * (so that they are only converted once per waypoint instead of on every move).
+     */
+    private GeoPosition[] cachedWayPoints;
+    private int[] cachedWayPointsX;
+    private int[] cachedWayPointsY;
+
+    /**
+     * The indices of the motes, scheduled at the first time at which they are allowed to move again.
+     */
+    private TriggerScheduler<Integer> moveSchedule;
+    /**
+     * The motes which are allowed to move, but had no waypoints left the last time they were allowed to.
+     * They are not handled anymore until waypoints are added to their path, when they have received a packet
+     * (see {@link iot.strategy.consume.AddPositionToPath}) or when their path is replaced.
+     */
+    private BitSet waitingMotes;
+    /**
+     * The waiting motes of which the path has been replaced since the start of the last simulation step.
+     * A replaced path only takes effect in the next step, also when it is replaced while the motes are updated,
+     * so that a mote moves at the same time whether the motes are updated serially or in parallel.
+     */
+    private BitSet changedPaths;
+    /**
+     * The motes which have received a packet which has not been consumed yet.
+     */
+    private BitSet receivedPackets;
+    /**
+     * The motes which have to be handled in the current simulation step (only kept to reuse it between the steps).
+     */
+    private final BitSet activeMotes = new BitSet();
+
+    /**
+     * The minimal number of motes which have to be handled in a step before they are updated in parallel
+     * (see {@link MoteUpdateMode#PARALLEL}), below this number the overhead is larger than the gain.
+     */
+    private static final int MIN_PARALLEL_MOTES = 64;
+    /**
+     * The update of every mote computed in the parallel phase of a step, applied in the commit phase:
+     * one of the UPDATE constants below and, if the mote moves, its new position.
+     */
+    private byte[] moteUpdates;
+    private double[] nextXPositions;
+    private double[] nextYPositions;
+    private static final byte UPDATE_NONE = 0;
+    private static final byte UPDATE_CONSUMED = 1;
+    private static final byte UPDATE_MOVE = 2;
+    private static final byte UPDATE_NEXT_WAYPOINT = 3;
+
+    /**
+     * The way the motes are updated in every simulation step.
+     */
+    private MoteUpdateMode moteUpdateMode = MoteUpdateMode.SERIAL;
 
     /**
-     * Intermediate parameters used during simulation
+     * The way the clock is advanced after every simulation step.
      */
-    private Map<Mote, Integer> wayPointMap;
-    private Map<Mote, LocalTime> timeMap;
+    private TimeAdvanceMode timeAdvanceMode = TimeAdvanceMode.FIXED_STEP;
+
+    /**
+     * The time (in nanoseconds) after which nothing has to be simulated anymore
+     * ({@link Long#MAX_VALUE} if the run is not bounded in time).
+     */
+    private long finalTime;
 
     // endregion
 
@@ -70,6 +150,18 @@ public class Simulation {
         this.environment = environment;
     }
 
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        // The environment is only referred to weakly, so write the environment itself
+        out.writeObject(environment == null ? null : environment.get());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var environment = (Environment) in.readObject();
+        this.environment = environment == null ? null : new WeakReference<>(environment);
+    }
+
     /**
      * Gets the InputProfile used in th simulation.
      * @return The InputProfile used in the simulation.
@@ -120,6 +212,42 @@ public class Simulation {
         this.approach = approach;
         getApproach().start();
     }
+
+    /**
+     * Gets the way the clock is advanced after every simulation step.
+     * @return The time advance mode of the simulation.
+     */
+    @Basic
+    public TimeAdvanceMode getTimeAdvanceMode() {
+        return timeAdvanceMode;
+    }
+
+    /**
+     * Sets the way the clock is advanced after every simulation step.
+     * @param timeAdvanceMode The time advance mode to use in the simulation.
+     */
+    @Basic
+    public void setTimeAdvanceMode(TimeAdvanceMode timeAdvanceMode) {
+        this.timeAdvanceMode = timeAdvanceMode;
+    }
+
+    /**
+     * Gets the way the motes are updated in every simulation step.
+     * @return The mote update mode of the simulation.
+     */
+    @Basic
+    public MoteUpdateMode getMoteUpdateMode() {
+        return moteUpdateMode;
+    }
+
+    /**
+     * Sets the way the motes are updated in every simulation step.
+     * @param moteUpdateMode The mote update mode to use in the simulation.
+     */
+    @Basic
+    public void setMoteUpdateMode(MoteUpdateMode moteUpdateMode) {
+        this.moteUpdateMode = moteUpdateMode;
+    }
     // endregion
 
 
@@ -130,13 +258,14 @@ public class Simulation {
      */
     private void setupMotesActivationStatus() {
         List<Mote> motes = this.getEnvironment().getMotes();
+        Random random = SimulationContext.getRandom(Simulation.class);
         Set<Integer> moteProbabilities = this.inputProfile.getProbabilitiesForMotesKeys();
         for (int i = 0; i < motes.size(); i++) {
             Mote mote = motes.get(i);
             double activityProbability = 1;
             if (moteProbabilities.contains(i))
                 activityProbability = this.inputProfile.getProbabilityForMote(i);
-            if (Math.random() >= 1 - activityProbability)
+            if (random.nextDouble() >= 1 - activityProbability)
                 mote.enable(true);
         }
     }
@@ -153,26 +282,212 @@ public class Simulation {
 
     /**
      * Simulate a single step in the simulator.
+     * Only the motes which have received a packet or which are allowed to move at the current time are handled,
+     * the other motes do not cost anything.
+     * Depending on the {@link TimeAdvanceMode}, the clock is advanced with one millisecond or
+     * directly to the next moment in which a trigger has to be fired or a mote has to move.
      */
     public void simulateStep() {
-        //noinspection SimplifyStreamApiCallChains
-        this.getEnvironment().getMotes().stream()
-            .filter(Mote::isEnabled)
-            .map(mote -> { mote.consumePackets(); return mote;}) //DON'T replace with peek because the filtered mote after this line will not do the consume packet
-            .filter(mote -> mote.getPath().getWayPoints().size() > wayPointMap.get(mote))
-            .filter(mote -> TimeHelper.secToMili( 1 / mote.getMovementSpeed()) <
-                TimeHelper.nanoToMili(this.getEnvironment().getClock().getTime().toNanoOfDay() - timeMap.get(mote).toNanoOfDay()))
-            .filter(mote -> TimeHelper.nanoToMili(this.getEnvironment().getClock().getTime().toNanoOfDay()) > TimeHelper.secToMili(Math.abs(mote.getStartMovementOffset())))
-            .forEach(mote -> {
-                timeMap.put(mote, this.getEnvironment().getClock().getTime());
-                if (!this.getEnvironment().getMapHelper().toMapCoordinate(mote.getPath().getWayPoints().get(wayPointMap.get(mote))).equals(mote.getPosInt())) {
-                    this.getEnvironment().moveMote(mote, mote.getPath().getWayPoints().get(wayPointMap.get(mote)));
-                } else {wayPointMap.put(mote, wayPointMap.get(mote) + 1);}
-            });
-        this.getEnvironment().getClock().tick(1);
+        var clock = this.getEnvironment().getClock();
+        long now = clock.getTime();
+
+        activeMotes.clear();
+        activeMotes.or(receivedPackets);
+        activeMotes.or(changedPaths);
+        changedPaths.clear();
+        var nextMoveTime = moveSchedule.getNextTime();
+        while (nextMoveTime.isPresent() && nextMoveTime.getAsLong() <= now) {
+            for (int index : moveSchedule.poll(nextMoveTime.getAsLong())) {
+                waitingMotes.set(index);
+                activeMotes.set(index);
+            }
+            nextMoveTime = moveSchedule.getNextTime();
+        }
+
+        if (moteUpdateMode == MoteUpdateMode.PARALLEL && activeMotes.cardinality() >= MIN_PARALLEL_MOTES) {
+            updateMotesParallel(now);
+        } else {
+            updateMotes(now);
+        }
+
+        if (timeAdvanceMode == TimeAdvanceMode.NEXT_EVENT) {
+            clock.advanceTo(getNextEventTime());
+        } else {
+            clock.tick(1);
+        }
     }
 
+    /**
+     * Updates the active motes one after the other, in the same order as the environment
+     * so that the order of their transmissions is fixed.
+     * @param now The current time (in nanoseconds).
+     */
+    private void updateMotes(long now) {
+        for (int i = activeMotes.nextSetBit(0); i >= 0; i = activeMotes.nextSetBit(i + 1)) {
+            Mote mote = motes.get(i);
+            receivedPackets.clear(i);
+            if (!mote.isEnabled()) {
+                waitingMotes.clear(i);
+                continue;
+            }
+            mote.consumePackets();
+
+            if (waitingMotes.get(i) && hasWayPointsLeft(i)) {
+                if (isAtWayPoint(i)) {
+                    wayPointIndices[i]++;
+                } else {
+                    this.getEnvironment().moveMote(mote, cachedWayPointsX[i], cachedWayPointsY[i]);
+                }
+                moved(i, now);
+            }
+        }
+    }
 
+    /**
+     * Updates the active motes in two phases.
+     * First the packets are consumed and the new positions are computed for all the motes in parallel,
+     * which only affects the motes themselves. Then the new positions are applied one mote at a time,
+     * in the same order as {@link Simulation#updateMotes(long)}, since this can have side effects on the
+     * clock, the MQTT broker or the statistics (e.g. a mote which sends a packet when it arrives somewhere).
+     * @param now The current time (in nanoseconds).
+     */
+    private void updateMotesParallel(long now) {
+        int[] indices = activeMotes.stream().toArray();
+
+        Arrays.stream(indices).parallel().forEach(i -> {
+            Mote mote = motes.get(i);
+            if (!mote.isEnabled()) {
+                moteUpdates[i] = UPDATE_NONE;
+                return;
+            }
+            mote.consumePackets();
+
+            if (!waitingMotes.get(i) || !hasWayPointsLeft(i)) {
+                moteUpdates[i] = UPDATE_CONSUMED;
+            } else if (isAtWayPoint(i)) {
+                moteUpdates[i] = UPDATE_NEXT_WAYPOINT;
+            } else {
+                moteUpdates[i] = UPDATE_MOVE;
+                var position = this.getEnvironment().getNextMotePosition(mote, cachedWayPointsX[i], cachedWayPointsY[i]);
+                nextXPositions[i] = position.map(Pair::getLeft).orElse(mote.getXPosDouble());
+                nextYPositions[i] = position.map(Pair::getRight).orElse(mote.getYPosDouble());
+            }
+        });
+
+        for (int i : indices) {
+            receivedPackets.clear(i);
+            if (moteUpdates[i] == UPDATE_NONE) {
+                waitingMotes.clear(i);
+            } else if (moteUpdates[i] == UPDATE_NEXT_WAYPOINT) {
+                wayPointIndices[i]++;
+                moved(i, now);
+            } else if (moteUpdates[i] == UPDATE_MOVE) {
+                Mote mote = motes.get(i);
+                if (nextXPositions[i] != mote.getXPosDouble() || nextYPositions[i] != mote.getYPosDouble()) {
+                    mote.setPos(nextXPositions[i], nextYPositions[i]);
+                }
+                moved(i, now);
+            }
+        }
+    }
+
+    /**
+     * Checks if a mote is at the waypoint towards which it is moving.
+     * N.B. this only touches the state of the given mote, so that it can be called for several motes in parallel.
+     * @param index The index of the mote, which should have waypoints left.
+     * @return True if the mote is at its current waypoint.
+     */
+    private boolean isAtWayPoint(int index) {
+        Mote mote = motes.get(index);
+        GeoPosition wayPoint = mote.getPath().getWayPoints().get(wayPointIndices[index]);
+        if (wayPoint != cachedWayPoints[index]) {
+            var mapHelper = this.getEnvironment().getMapHelper();
+            cachedWayPoints[index] = wayPoint;
+            cachedWayPointsX[index] = mapHelper.toMapXCoordinate(wayPoint);
+            cachedWayPointsY[index] = mapHelper.toMapYCoordinate(wayPoint);
+        }
+        return cachedWayPointsX[index] == mote.getXPosInt() && cachedWayPointsY[index] == mote.getYPosInt();
+    }
+
+    /**
+     * Registers that a mote has moved (or selected its next waypoint) and schedules its next movement.
+     * @param index The index of the mote.
+     * @param time The current time (in nanoseconds).
+     */
+    private void moved(int index, long time) {
+        waitingMotes.clear(index);
+        lastMoveTimes[index] = time;
+        var nextMove = getNextMoveTime(index);
+        if (nextMove.isPresent()) {
+            moveSchedule.schedule(nextMove.getAsLong(), index);
+        }
+    }
+
+    private boolean hasWayPointsLeft(int index) {
+        return motes.get(index).getPath().getWayPoints().size() > wayPointIndices[index];
+    }
+
+    /**
+     * Checks if enough time has passed since the previous movement of the mote for it to move again.
+     * @param index The index of the mote to check.
+     * @param time The time at which the mote would move (in nanoseconds).
+     * @return True if the mote is allowed to move at the given time.
+     */
+    private boolean canMoveAt(int index, long time) {
+        Mote mote = motes.get(index);
+        return TimeHelper.secToMili( 1 / mote.getMovementSpeed()) <
+                TimeHelper.nanoToMili(time - lastMoveTimes[index]) &&
+            TimeHelper.nanoToMili(time) > TimeHelper.secToMili(Math.abs(mote.getStartMovementOffset()));
+    }
+
+    /**
+     * Determines the next millisecond after the current time at which the mote is allowed to move.
+     * @param index The index of the mote to check.
+     * @return The time of the next movement (in nanoseconds), or an empty optional if the mote will never move.
+     */
+    private OptionalLong getNextMoveTime(int index) {
+        Mote mote = motes.get(index);
+        long now = (long) TimeHelper.nanoToMili(this.getEnvironment().getClock().getTime());
+        double earliest = Math.max(now + 1, Math.max(
+            Math.floor(TimeHelper.nanoToMili(lastMoveTimes[index]) + TimeHelper.secToMili(1 / mote.getMovementSpeed())) + 1,
+            Math.floor(TimeHelper.secToMili(Math.abs(mote.getStartMovementOffset()))) + 1));
+        if (Double.isNaN(earliest) || TimeHelper.miliToNano(earliest) >= finalTime) {
+            return OptionalLong.empty();
+        }
+
+        // Correct possible rounding errors so that the result agrees with canMoveAt
+        long time = (long) earliest;
+        while (time - 1 > now && canMoveAt(index, TimeHelper.miliToNano(time - 1))) {
+            time--;
+        }
+        while (!canMoveAt(index, TimeHelper.miliToNano(time))) {
+            time++;
+        }
+        return OptionalLong.of(TimeHelper.miliToNano(time));
+    }
+
+    /**
+     * Determines the next moment in which something happens in the simulation:
+     * either a trigger of the clock is fired or a mote moves.
+     * @return The time of the next event (in nanoseconds), never later than the end of a timed run.
+     */
+    private long getNextEventTime() {
+        var clock = this.getEnvironment().getClock();
+        long now = clock.getTime();
+
+        long nextEvent = Math.min(clock.getNextTriggerTime().orElse(finalTime), finalTime);
+        nextEvent = Math.min(nextEvent, moveSchedule.getNextTime().orElse(nextEvent));
+        // A waiting mote of which the path has been replaced moves in the next millisecond
+        if (!changedPaths.isEmpty()) {
+            nextEvent = Math.min(nextEvent, now + TimeHelper.NANOS_PER_MILLI);
+        }
+
+        // Nothing is scheduled anymore: fall back on a regular step
+        if (nextEvent == Long.MAX_VALUE || nextEvent <= now) {
+            nextEvent = now + TimeHelper.NANOS_PER_MILLI;
+        }
+        return nextEvent;
+    }
 
 
     public boolean isFinished() {
@@ -180,15 +495,35 @@ public class Simulation {
     }
 
 
-    private void setupSimulation(Predicate<Environment> pred) {
-        this.wayPointMap = new HashMap<>();
-        this.timeMap = new HashMap<>();
+    /**
+     * Sets up the motes, the gateways and the mobility for a new run.
+     * @param pred The condition which determines if the simulation should continue.
+     * @param finalTime The time (in nanoseconds) after which nothing has to be simulated anymore.
+     */
+    private void setupSimulation(SerializablePredicate<Environment> pred, long finalTime) {
+        this.finalTime = finalTime;
 
         setupMotesActivationStatus();
 
         this.getEnvironment().getGateways().forEach(Gateway::reset);
 
-        this.getEnvironment().getMotes().forEach(mote -> {
+        var clock = this.getEnvironment().getClock();
+        this.motes = new ArrayList<>(this.getEnvironment().getMotes());
+        this.wayPointIndices = new int[motes.size()];
+        this.lastMoveTimes = new long[motes.size()];
+        this.cachedWayPoints = new GeoPosition[motes.size()];
+        this.cachedWayPointsX = new int[motes.size()];
+        this.cachedWayPointsY = new int[motes.size()];
+        this.moveSchedule = clock.getSchedulerType().create();
+        this.waitingMotes = new BitSet(motes.size());
+        this.receivedPackets = new BitSet(motes.size());
+        this.changedPaths = new BitSet(motes.size());
+        this.moteUpdates = new byte[motes.size()];
+        this.nextXPositions = new double[motes.size()];
+        this.nextYPositions = new double[motes.size()];
+
+        for (int i = 0; i < motes.size(); i++) {
+            Mote mote = motes.get(i);
             // Reset all the sensors of the mote
             mote.getSensors().stream()
                 .map(MoteSensor::getSensorDataGenerator)
@@ -197,19 +532,29 @@ public class Simulation {
             // Initialize the mote (e.g. reset starting position)
             mote.reset();
 
-            timeMap.put(mote, this.getEnvironment().getClock().getTime());
-            wayPointMap.put(mote,0);
+            lastMoveTimes[i] = clock.getTime();
+            final int index = i;
+            mote.setReceivedPacketListener(() -> receivedPackets.set(index));
+            mote.setPathListener(() -> {
+                if (waitingMotes.get(index)) {
+                    // N.B. synchronized since a path can be replaced while the motes are updated in parallel
+                    synchronized (changedPaths) {
+                        changedPaths.set(index);
+                    }
+                }
+            });
+            getNextMoveTime(i).ifPresent(time -> moveSchedule.schedule(time, index));
 
             // Add initial triggers to the clock for mote data transmissions (transmit sensor readings)
-            this.getEnvironment().getClock().addTrigger(LocalTime.ofSecondOfDay(mote.getStartSendingOffset()), () -> {
+            this.getEnvironment().getClock().addTrigger(TimeHelper.secToNano(mote.getStartSendingOffset()), () -> {
                 mote.sendToGateWay(
                     mote.getSensors().stream()
                         .flatMap(s -> s.getValueAsList(mote.getPosInt(), this.getEnvironment().getClock().getTime()).stream())
                         .toArray(Byte[]::new),
                     new HashMap<>());
-                return this.getEnvironment().getClock().getTime().plusSeconds(mote.getPeriodSendingPacket());
+                return this.getEnvironment().getClock().getTime() + TimeHelper.secToNano(mote.getPeriodSendingPacket());
             });
-        });
+        }
 
         this.continueSimulation = pred;
     }
@@ -219,14 +564,15 @@ public class Simulation {
             this.getEnvironment().resetHistory();
         }
 
-        this.setupSimulation((env) -> !areAllMotesAtDestination());
+        this.setupSimulation((env) -> !areAllMotesAtDestination(), Long.MAX_VALUE);
     }
 
     void setupTimedRun() {
         this.getEnvironment().resetHistory();
 
-        var finalTime = this.getEnvironment().getClock().getTime()
-            .plus(inputProfile.getSimulationDuration(), inputProfile.getTimeUnit());
-        this.setupSimulation((env) -> env.getClock().getTime().isBefore(finalTime));
+        // N.B. the estimated duration of the unit is used, so that also runs of several days or weeks are possible
+        long finalTime = this.getEnvironment().getClock().getTime() +
+            inputProfile.getTimeUnit().getDuration().multipliedBy(inputProfile.getSimulationDuration()).toNanos();
+        this.setupSimulation((env) -> env.getClock().getTime() < finalTime, finalTime);
     }
 }
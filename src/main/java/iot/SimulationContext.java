@@ -0,0 +1,235 @@
+package iot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A class representing the state which the parts of a simulation share through singletons
+ * ({@link SimulationRunner}, {@link util.Statistics}, the MQTT broker and client).
+ * Code executed with {@link SimulationContext#call(Supplier)} uses the singletons of that context instead of the
+ * global ones, so that several simulations can be executed at the same time on different threads.
+ * <p>
+ * A context also holds the random generators of its simulation (see {@link SimulationContext#getRandom(Class)}),
+ * which are seeded with the seed of the context, so that a simulation in a context can be reproduced.
+ * <p>
+ * The state of a context can be captured in a {@link Snapshot}, which is restored into new, independent contexts
+ * (see {@link SimulationContext#snapshot()}). Everything which is part of that state is serializable, including the
+ * callbacks of the clock triggers, the listeners of the motes and the MQTT subscriptions.
+ */
+public class SimulationContext {
+
+    /**
+     * The seed of a context created without a seed, and of the global random generators.
+     */
+    public static final long DEFAULT_SEED = 1;
+
+    /**
+     * The random generators used without a context, by purpose.
+     */
+    private static final Map<Class<?>, Random> globalRandoms = new ConcurrentHashMap<>();
+
+    /**
+     * The context bound to the current thread, {@code null} if the global singletons are used.
+     */
+    private static final ThreadLocal<SimulationContext> current = new ThreadLocal<>();
+
+    /**
+     * The singletons of this context, created the first time they are requested.
+     */
+    private final Map<Class<?>, Object> singletons = new HashMap<>();
+
+    /**
+     * The random generators of this context, by purpose, created the first time they are requested.
+     */
+    private final Map<Class<?>, Random> randoms = new HashMap<>();
+
+    /**
+     * The seed of the random generators of this context.
+     */
+    private final long seed;
+
+    /**
+     * A constructor creating a context with the default seed.
+     */
+    public SimulationContext() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * A constructor creating a context of which the random generators are seeded with a given seed.
+     * @param seed The seed of the context.
+     */
+    public SimulationContext(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Executes a task on the current thread with the singletons of this context.
+     * @param task The task to execute.
+     * @param <T> The type of the result of the task.
+     * @return The result of the task.
+     */
+    public <T> T call(Supplier<T> task) {
+        var previous = current.get();
+        current.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Returns the instance of a singleton in the context bound to the current thread.
+     * @param type The type of the singleton.
+     * @param factory The function to create the instance if it does not exist yet in the context.
+     * @param <T> The type of the singleton.
+     * @return The instance of the singleton, or an empty optional if the global instance has to be used.
+     */
+    public static <T> Optional<T> getSingleton(Class<T> type, Supplier<T> factory) {
+        var context = current.get();
+        if (context == null) {
+            return Optional.empty();
+        }
+        // N.B. no computeIfAbsent: creating a singleton can request other singletons of the same context
+        var instance = context.singletons.get(type);
+        if (instance == null) {
+            instance = factory.get();
+            context.singletons.put(type, instance);
+        }
+        return Optional.of(type.cast(instance));
+    }
+
+    /**
+     * Returns the seed of the context bound to the current thread, to seed random generators which are owned by an
+     * object of the simulation (e.g. a network entity) instead of by the context.
+     * @return The seed of the current context, or {@link SimulationContext#DEFAULT_SEED} if there is none.
+     */
+    public static long getSeed() {
+        var context = current.get();
+        return context == null ? DEFAULT_SEED : context.seed;
+    }
+
+    /**
+     * Returns the random generator of the context bound to the current thread for a purpose.
+     * The generator is seeded with the seed of the context and the name of the purpose, so that every purpose
+     * draws the same numbers in every context with the same seed, independently of the other purposes and of the
+     * simulations executed in parallel in other contexts. Since the generator belongs to the context, its state is
+     * part of a snapshot of the context as well.
+     * @param purpose The class which uses the generator.
+     * @return The random generator of the purpose in the current context, or the global one if there is no context.
+     */
+    public static Random getRandom(Class<?> purpose) {
+        var context = current.get();
+        if (context == null) {
+            return globalRandoms.computeIfAbsent(purpose, p -> createRandom(DEFAULT_SEED, p));
+        }
+        return context.randoms.computeIfAbsent(purpose, p -> createRandom(context.seed, p));
+    }
+
+    /**
+     * Resets the random generator of the context bound to the current thread for a purpose, so that it draws the
+     * same numbers again as when it was created.
+     * @param purpose The class which uses the generator.
+     */
+    public static void resetRandom(Class<?> purpose) {
+        getRandom(purpose).setSeed(getPurposeSeed(getSeed(), purpose));
+    }
+
+    private static Random createRandom(long seed, Class<?> purpose) {
+        return new Random(getPurposeSeed(seed, purpose));
+    }
+
+    private static long getPurposeSeed(long seed, Class<?> purpose) {
+        return seed * 31 + purpose.getName().hashCode();
+    }
+
+    /**
+     * Captures the state of the simulation of this context: the singletons of this context (the simulation runner
+     * with the environment, its motes, gateways, paths and clock triggers, the feedback loops and the network server,
+     * the statistics and the MQTT broker) and the states of its random generators.
+     * <p>
+     * N.B. the context must not be simulated on another thread while its snapshot is taken.
+     * @return A snapshot of the state of this context.
+     * @throws IllegalStateException if a part of the state of this context cannot be serialized.
+     */
+    public Snapshot snapshot() {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new ObjectOutputStream(bytes)) {
+            // Both maps in one stream, so that the objects they share are shared in the snapshot as well
+            output.writeObject(singletons);
+            output.writeObject(randoms);
+        } catch (IOException e) {
+            throw new IllegalStateException("The state of the context cannot be serialized", e);
+        }
+        return new Snapshot(seed, bytes.toByteArray());
+    }
+
+    /**
+     * Creates an independent copy of this context, in the same state as the simulation of this context, so that a
+     * warm-up can be simulated once and then forked into several variants, which can be executed in parallel.
+     * @return A new context in the same state as this context.
+     * @see SimulationContext#snapshot()
+     */
+    public SimulationContext fork() {
+        return snapshot().restore();
+    }
+
+    /**
+     * A class representing the serialized state of a context at the moment of its snapshot.
+     */
+    public static class Snapshot {
+
+        /**
+         * The seed of the context.
+         */
+        private final long seed;
+
+        /**
+         * The serialized singletons and random generators of the context.
+         */
+        private final byte[] state;
+
+        private Snapshot(long seed, byte[] state) {
+            this.seed = seed;
+            this.state = state;
+        }
+
+        /**
+         * @return The size of the serialized state in bytes.
+         */
+        public int getSize() {
+            return state.length;
+        }
+
+        /**
+         * Creates a new context in the state of this snapshot. A snapshot can be restored any number of times,
+         * every restored context is independent of the others.
+         * @return A new context in the state of this snapshot.
+         */
+        @SuppressWarnings("unchecked")
+        public SimulationContext restore() {
+            var context = new SimulationContext(seed);
+            try (var input = new ObjectInputStream(new ByteArrayInputStream(state))) {
+                context.singletons.putAll((Map<Class<?>, Object>) input.readObject());
+                context.randoms.putAll((Map<Class<?>, Random>) input.readObject());
+            } catch (IOException | ClassNotFoundException e) {
+                throw new IllegalStateException("The snapshot cannot be restored", e);
+            }
+            return context;
+        }
+    }
+}
@@ -4,12 +4,12 @@ import application.pollution.PollutionGrid;
 import application.pollution.PollutionMonitor;
 import application.routing.*;
 import application.routing.heuristic.SimplePollutionHeuristic;
-import gui.MainGUI;
 import iot.mqtt.MQTTClientFactory;
 import iot.networkentity.Gateway;
 import iot.networkentity.Mote;
 import iot.networkentity.NetworkServer;
 import iot.networkentity.UserMote;
+import iot.scheduler.SchedulerType;
 import org.jetbrains.annotations.NotNull;
 import selfadaptation.adaptationgoals.IntervalAdaptationGoal;
 import selfadaptation.adaptationgoals.ThresholdAdaptationGoal;
@@ -21,11 +21,15 @@ import selfadaptation.instrumentation.MoteEffector;
 import selfadaptation.instrumentation.MoteProbe;
 import util.MutableInteger;
 import util.Pair;
+import util.RetentionPolicy;
 import util.Statistics;
+import util.TimeHelper;
 import util.xml.*;
 
 import javax.sound.midi.SysexMessage;
 import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -33,7 +37,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Consumer;
 
-public class SimulationRunner {
+public class SimulationRunner implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private static SimulationRunner instance = null;
 
     private List<InputProfile> inputProfiles;
@@ -52,9 +59,32 @@ public class SimulationRunner {
 
     private RoutingApplication2 routingApplication2;
 
+    /**
+     * The type of scheduler used by the clock of the environment.
+     */
+    private SchedulerType schedulerType = SchedulerType.LEGACY;
+
+    /**
+     * The way in which the shadow fading of transmissions in the environment is determined.
+     */
+    private ShadowFadingMode shadowFadingMode = ShadowFadingMode.INDEPENDENT;
+
+    /**
+     * The entries of the statistics which are kept, besides their aggregates.
+     */
+    private RetentionPolicy retentionPolicy = RetentionPolicy.ALL;
+
+    /**
+     * The number of runs of {@link SimulationRunner#totalRun(Consumer)} which are executed at the same time.
+     */
+    private int numberOfThreads = 1;
 
 
     public static SimulationRunner getInstance() {
+        var isolatedInstance = SimulationContext.getSingleton(SimulationRunner.class, SimulationRunner::new);
+        if (isolatedInstance.isPresent()) {
+            return isolatedInstance.get();
+        }
         if (instance == null) {
             instance = new SimulationRunner();
         }
@@ -173,6 +203,74 @@ public class SimulationRunner {
 
     public void setEnvironment(Environment environment) {
         this.environment = environment;
+        environment.getClock().setSchedulerType(schedulerType);
+        environment.setShadowFadingMode(shadowFadingMode);
+    }
+
+    /**
+     * Sets the way the clock of the simulation is advanced after every step.
+     * {@link TimeAdvanceMode#NEXT_EVENT} skips the simulated time in which nothing happens.
+     * @param timeAdvanceMode The time advance mode to use.
+     */
+    public void setTimeAdvanceMode(TimeAdvanceMode timeAdvanceMode) {
+        simulation.setTimeAdvanceMode(timeAdvanceMode);
+    }
+
+    /**
+     * Sets the way the motes of the simulation are updated in every step.
+     * {@link MoteUpdateMode#PARALLEL} updates the motes on several threads, with the same results as {@link MoteUpdateMode#SERIAL}.
+     * @param moteUpdateMode The mote update mode to use.
+     */
+    public void setMoteUpdateMode(MoteUpdateMode moteUpdateMode) {
+        simulation.setMoteUpdateMode(moteUpdateMode);
+    }
+
+    /**
+     * Sets the type of scheduler in which the clock of the environment stores its triggers.
+     * The scheduler is used from the start of the next run on.
+     * @param schedulerType The scheduler type to use.
+     */
+    public void setSchedulerType(SchedulerType schedulerType) {
+        this.schedulerType = schedulerType;
+        if (environment != null) {
+            environment.getClock().setSchedulerType(schedulerType);
+        }
+    }
+
+    /**
+     * Sets the way in which the shadow fading of transmissions in the environment is determined.
+     * {@link ShadowFadingMode#CORRELATED} looks up the shadow fading to the gateways in a precomputed field,
+     * which gives the same results in every run.
+     * @param shadowFadingMode The shadow fading mode to use.
+     */
+    public void setShadowFadingMode(ShadowFadingMode shadowFadingMode) {
+        this.shadowFadingMode = shadowFadingMode;
+        if (environment != null) {
+            environment.setShadowFadingMode(shadowFadingMode);
+        }
+    }
+
+    /**
+     * Sets which entries of the statistics are kept, besides their aggregates
+     * (see {@link Statistics#setRetentionPolicy(RetentionPolicy)}).
+     * @param retentionPolicy The retention policy.
+     */
+    public void setRetentionPolicy(RetentionPolicy retentionPolicy) {
+        this.retentionPolicy = retentionPolicy;
+        Statistics.getInstance().setRetentionPolicy(retentionPolicy);
+    }
+
+    /**
+     * Sets the number of runs which are executed at the same time during a total run.
+     * With more than one thread, every run is executed in an isolated copy of the current configuration
+     * (see {@link MultiRunExecutor}).
+     * @param numberOfThreads The number of threads to use.
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed to execute the runs.");
+        }
+        this.numberOfThreads = numberOfThreads;
     }
 
     public void updateQoS(QualityOfService QoS) {
@@ -239,13 +337,17 @@ public class SimulationRunner {
      */
     public void simulate(MutableInteger updateFrequency, SimulationUpdateListener listener) {
         new Thread(() -> {
-            long simulationStep = 0;
+            // Expressed in simulated time, since a step does not always last one millisecond (see TimeAdvanceMode)
+            var clock = this.getEnvironment().getClock();
+            long nextUpdate = clock.getTime();
             while (!this.isSimulationFinished()) {
+                long stepTime = clock.getTime();
                 this.simulation.simulateStep();
 
                 // Visualize every x seconds
-                if (simulationStep++ % (updateFrequency.intValue() * 1000) == 0) {
+                if (stepTime >= nextUpdate) {
                     listener.update();
+                    nextUpdate = stepTime + TimeHelper.miliToNano(updateFrequency.intValue() * 1000L);
                 }
             }
 
@@ -269,6 +371,10 @@ public class SimulationRunner {
         int nrOfRuns = simulation.getInputProfile()
             .orElseThrow(() -> new IllegalStateException("No input profile selected before running the simulation"))
             .getNumberOfRuns();
+        if (numberOfThreads > 1) {
+            this.totalRunParallel(nrOfRuns, fn);
+            return;
+        }
         setupSingleRun(true);
 
         new Thread(() -> {
@@ -290,13 +396,63 @@ public class SimulationRunner {
         }).start();
     }
 
+    /**
+     * Simulate multiple runs at the same time, every run in an isolated copy of the current configuration.
+     * Afterwards the statistics of the runs are available in the same way as after a sequential total run.
+     * @param nrOfRuns The number of runs.
+     * @param fn A callback function which is invoked after every executed single run.
+     */
+    private void totalRunParallel(int nrOfRuns, @NotNull Consumer<Pair<Integer, Integer>> fn) {
+        File configurationCopy;
+        try {
+            configurationCopy = File.createTempFile("configuration", ".xml");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not copy the configuration for the runs", e);
+        }
+        this.saveConfigurationToFile(configurationCopy);
+        var configuration = ConfigurationReader.readConfiguration(configurationCopy)
+            .orElseThrow(() -> new IllegalStateException("Could not copy the configuration for the runs"));
+        //noinspection ResultOfMethodCallIgnored
+        configurationCopy.delete();
+
+        var inputProfile = simulation.getInputProfile().orElseThrow();
+        var approach = simulation.getApproach();
+        var timeAdvanceMode = simulation.getTimeAdvanceMode();
+        var moteUpdateMode = simulation.getMoteUpdateMode();
+        var executor = new MultiRunExecutor(configuration, runner -> {
+            runner.getSimulation().setInputProfile(inputProfile);
+            runner.updateQoS(QoS);
+            runner.setTimeAdvanceMode(timeAdvanceMode);
+            runner.setMoteUpdateMode(moteUpdateMode);
+            runner.setSchedulerType(schedulerType);
+            runner.setShadowFadingMode(shadowFadingMode);
+            runner.setRetentionPolicy(retentionPolicy);
+            if (approach != null) {
+                runner.setApproach(approach.getName());
+            }
+        }, numberOfThreads);
+
+        this.getEnvironment().resetHistory();
+        MutableInteger run = new MutableInteger(0);
+        new Thread(() -> {
+            fn.accept(new Pair<>(0, nrOfRuns));
+            executor.execute(nrOfRuns, statistics -> {
+                if (run.intValue() > 0) {
+                    this.getEnvironment().addRun();
+                }
+                Statistics.getInstance().mergeRun(statistics);
+                run.setValue(run.intValue() + 1);
+            }, fn);
+        }).start();
+    }
+
     // endregion
 
 
     // region loading/saving/cleanup
 
     public void updateInputProfilesFile() {
-        File file = new File(MainGUI.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+        File file = new File(SimulationRunner.class.getProtectionDomain().getCodeSource().getLocation().getPath());
         file = new File(file.getParent() + "/inputProfiles/inputProfile.xml");
         updateInputProfilesFile(file);
     }
@@ -317,6 +473,24 @@ public class SimulationRunner {
         this.cleanupSimulation();
 
         ConfigurationReader.loadConfiguration(file, this);
+        this.setupConfiguration();
+    }
+
+    /**
+     * Load a configuration which has already been read (see {@link ConfigurationReader#readConfiguration(File)}).
+     * @param configuration The configuration.
+     */
+    public void loadConfiguration(Configuration configuration) {
+        this.cleanupSimulation();
+
+        ConfigurationReader.loadConfiguration(configuration, this);
+        this.setupConfiguration();
+    }
+
+    /**
+     * Links the simulation, the feedback loops and the applications to a newly loaded environment.
+     */
+    private void setupConfiguration() {
         simulation.setEnvironment(new WeakReference<>(this.getEnvironment()));
 
         for (Gateway gateway : simulation.getEnvironment().getGateways()) {
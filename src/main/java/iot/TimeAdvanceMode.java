@@ -0,0 +1,16 @@
+package iot;
+
+/**
+ * The ways in which a {@link Simulation} can advance the time of its {@link GlobalClock} after every step.
+ */
+public enum TimeAdvanceMode {
+    /**
+     * The clock advances one millisecond per simulation step.
+     */
+    FIXED_STEP,
+    /**
+     * The clock jumps directly to the next moment in which something happens:
+     * the next scheduled trigger or the next movement of a mote.
+     */
+    NEXT_EVENT
+}
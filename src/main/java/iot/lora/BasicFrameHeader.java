@@ -1,12 +1,15 @@
 package iot.lora;
 
+import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
  * Basic implementation of {@link FrameHeader}
  */
-public class BasicFrameHeader implements FrameHeader {
+public class BasicFrameHeader implements FrameHeader, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final int SOURCE_ADDRESS_LENGTH = 4;
 
@@ -0,0 +1,12 @@
+package iot.lora;
+
+/**
+ * Interface that represent the channel on which a LoRa device sends a packet
+ */
+public interface Channel {
+
+    /**
+     * @return The center frequency of the channel in kHz.
+     */
+    int getFrequency();
+}
@@ -0,0 +1,34 @@
+package iot.lora;
+
+import java.util.List;
+
+/**
+ * The uplink channels of a typical EU868 network: the three default channels followed by five additional ones.
+ * All channels have a bandwidth of 125 kHz.
+ */
+public enum EU868Channel implements Channel {
+
+    CHANNEL_0(868100),
+    CHANNEL_1(868300),
+    CHANNEL_2(868500),
+    CHANNEL_3(867100),
+    CHANNEL_4(867300),
+    CHANNEL_5(867500),
+    CHANNEL_6(867700),
+    CHANNEL_7(867900);
+
+    private final int frequency;
+
+    EU868Channel(int frequency) {
+        this.frequency = frequency;
+    }
+
+    @Override
+    public int getFrequency() {
+        return frequency;
+    }
+
+    public static List<Channel> valuesAsList() {
+        return List.of(EU868Channel.values());
+    }
+}
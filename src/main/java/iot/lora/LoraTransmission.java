@@ -6,7 +6,6 @@ import be.kuleuven.cs.som.annotate.Model;
 import util.Pair;
 
 import java.io.Serializable;
-import java.time.LocalTime;
 import java.util.Objects;
 
 /**
@@ -54,9 +53,14 @@ public class LoraTransmission implements Serializable{
     private final RegionalParameter regionalParameter;
 
     /**
-     * The departure time of the message
+     * The channel on which the transmission is sent.
      */
-    private final LocalTime departureTime;
+    private final Channel channel;
+
+    /**
+     * The departure time of the message (in nanoseconds since the start of the simulation)
+     */
+    private final long departureTime;
 
     /**
      * The time on air of a transmission.
@@ -86,7 +90,24 @@ public class LoraTransmission implements Serializable{
      */
     public LoraTransmission(long sender, long receiver, Pair<Integer, Integer> positionSender,
                             double transmissionPower, RegionalParameter regionalParameter, double timeOnAir,
-                            LocalTime departureTime, LoraWanPacket content) {
+                            long departureTime, LoraWanPacket content) {
+        this(sender, receiver, positionSender, transmissionPower, regionalParameter, EU868Channel.CHANNEL_0, timeOnAir,
+            departureTime, content);
+    }
+
+    /**
+     * A constructor generating a transmission with a given sender, receiver, transmission power, regional parameter,
+     * channel and content.
+     * @param sender    The sender sending the transmission.
+     * @param receiver The receiver receiving the transmission.
+     * @param transmissionPower The transmission power of the transmission.
+     * @param regionalParameter The regional parameter with which the transmission is sent.
+     * @param channel The channel on which the transmission is sent.
+     * @param content The content of the transmission.
+     */
+    public LoraTransmission(long sender, long receiver, Pair<Integer, Integer> positionSender,
+                            double transmissionPower, RegionalParameter regionalParameter, Channel channel,
+                            double timeOnAir, long departureTime, LoraWanPacket content) {
 
         this.sender = sender;
         this.receiver = receiver;
@@ -102,6 +123,7 @@ public class LoraTransmission implements Serializable{
         }
 
         this.regionalParameter = regionalParameter;
+        this.channel = channel;
         this.departureTime = departureTime;
         this.timeOnAir = timeOnAir;
     }
@@ -128,9 +150,9 @@ public class LoraTransmission implements Serializable{
 
     /**
      * Returns the departure time of the transmission.
-     * @return  The departure time of the transmission.
+     * @return  The departure time of the transmission (in nanoseconds since the start of the simulation).
      */
-    public LocalTime getDepartureTime() {
+    public long getDepartureTime() {
         return departureTime;
     }
 
@@ -176,6 +198,15 @@ public class LoraTransmission implements Serializable{
             this.transmissionPower = 0.0;
     }
 
+    /**
+     * Returns the regional parameter with which the transmission is sent.
+     * @return The regional parameter of the transmission.
+     */
+    @Basic
+    public RegionalParameter getRegionalParameter() {
+        return regionalParameter;
+    }
+
     /**
      * Returns the bandwidth of the transmission.
      * @return  The bandwidth of the transmission.
@@ -192,6 +223,22 @@ public class LoraTransmission implements Serializable{
         return regionalParameter.getSpreadingFactor();
     }
 
+    /**
+     * Returns the channel on which the transmission is sent.
+     * @return The channel of the transmission.
+     */
+    public Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the frequency of the transmission.
+     * @return The center frequency of the channel of the transmission in kHz.
+     */
+    public int getFrequency() {
+        return channel.getFrequency();
+    }
+
     /**
      *
      * @return true if the transmission is arrived to destination, false otherwise
@@ -270,7 +317,7 @@ public class LoraTransmission implements Serializable{
         LoraTransmission that = (LoraTransmission) o;
         return getSender() == that.getSender() &&
             getContent().equals(that.getContent()) &&
-            getDepartureTime().equals(that.getDepartureTime());
+            getDepartureTime() == that.getDepartureTime();
     }
 
     @Override
@@ -0,0 +1,109 @@
+package iot.lora;
+
+/**
+ * A class computing the time on air of LoRa packets.
+ * The number of payload symbols only depends on the spreading factor, the payload length, the header flag and the low
+ * data rate optimization, so it is precomputed for all spreading factors of {@link EU868ParameterByDataRate} and all
+ * payload lengths up to {@link TimeOnAir#MAXIMUM_PAYLOAD_LENGTH}. Other combinations are computed when requested.
+ */
+public final class TimeOnAir {
+
+    /**
+     * The maximum length of a LoRa payload.
+     */
+    public static final int MAXIMUM_PAYLOAD_LENGTH = 255;
+
+    private static final int MINIMUM_SPREADING_FACTOR = 7;
+    private static final int MAXIMUM_SPREADING_FACTOR = 12;
+
+    /**
+     * The number of payload symbols, by spreading factor, flags ({@link TimeOnAir#getFlags(boolean, boolean)})
+     * and payload length.
+     */
+    private static final int[][][] payloadSymbols =
+        new int[MAXIMUM_SPREADING_FACTOR - MINIMUM_SPREADING_FACTOR + 1][4][MAXIMUM_PAYLOAD_LENGTH + 1];
+
+    /**
+     * The symbol time (in milliseconds) by data rate of {@link EU868ParameterByDataRate}.
+     */
+    private static final double[] symbolTimes = new double[EU868ParameterByDataRate.values().length];
+
+    static {
+        for (int sf = MINIMUM_SPREADING_FACTOR; sf <= MAXIMUM_SPREADING_FACTOR; sf++) {
+            for (int length = 0; length <= MAXIMUM_PAYLOAD_LENGTH; length++) {
+                for (boolean hasHeader : new boolean[] {false, true}) {
+                    for (boolean lowDataRateOptimization : new boolean[] {false, true}) {
+                        payloadSymbols[sf - MINIMUM_SPREADING_FACTOR][getFlags(hasHeader, lowDataRateOptimization)][length] =
+                            computePayloadSymbols(sf, length, hasHeader, lowDataRateOptimization);
+                    }
+                }
+            }
+        }
+        for (EU868ParameterByDataRate regionalParameter : EU868ParameterByDataRate.values()) {
+            symbolTimes[regionalParameter.ordinal()] = computeSymbolTime(regionalParameter);
+        }
+    }
+
+    private TimeOnAir() {}
+
+    /**
+     * Returns the time on air of a packet.
+     * @param regionalParameter The regional parameter with which the packet is sent.
+     * @param packet The packet.
+     * @return The time on air in milliseconds.
+     */
+    public static double getTimeOnAir(RegionalParameter regionalParameter, LoraWanPacket packet) {
+        return getTimeOnAir(regionalParameter, packet.getPayload().length, packet.hasHeader(),
+            packet.hasLowDataRateOptimization(), packet.getAmountOfPreambleSymbols());
+    }
+
+    /**
+     * Returns the time on air of a packet with the given shape.
+     * @param regionalParameter The regional parameter with which the packet is sent.
+     * @param payloadLength The length of the payload in bytes.
+     * @param hasHeader True if the packet has an explicit header.
+     * @param lowDataRateOptimization True if the low data rate optimization is used.
+     * @param amountOfPreambleSymbols The number of preamble symbols.
+     * @return The time on air in milliseconds.
+     */
+    public static double getTimeOnAir(RegionalParameter regionalParameter, int payloadLength, boolean hasHeader,
+                                      boolean lowDataRateOptimization, int amountOfPreambleSymbols) {
+        var tSym = getSymbolTime(regionalParameter);
+        var tPreamble = (amountOfPreambleSymbols + 4.25) * tSym;
+        var tPayload = getPayloadSymbols(regionalParameter.getSpreadingFactor(), payloadLength, hasHeader, lowDataRateOptimization) * tSym;
+        return tPayload + tPreamble;
+    }
+
+    private static int getFlags(boolean hasHeader, boolean lowDataRateOptimization) {
+        return (hasHeader ? 1 : 0) | (lowDataRateOptimization ? 2 : 0);
+    }
+
+    private static double getSymbolTime(RegionalParameter regionalParameter) {
+        if (regionalParameter instanceof EU868ParameterByDataRate) {
+            return symbolTimes[((EU868ParameterByDataRate) regionalParameter).ordinal()];
+        }
+        return computeSymbolTime(regionalParameter);
+    }
+
+    private static int getPayloadSymbols(int sf, int payloadLength, boolean hasHeader, boolean lowDataRateOptimization) {
+        if (sf >= MINIMUM_SPREADING_FACTOR && sf <= MAXIMUM_SPREADING_FACTOR && payloadLength >= 0 && payloadLength <= MAXIMUM_PAYLOAD_LENGTH) {
+            return payloadSymbols[sf - MINIMUM_SPREADING_FACTOR][getFlags(hasHeader, lowDataRateOptimization)][payloadLength];
+        }
+        return computePayloadSymbols(sf, payloadLength, hasHeader, lowDataRateOptimization);
+    }
+
+    private static double computeSymbolTime(RegionalParameter regionalParameter) {
+        return Math.pow(2, regionalParameter.getSpreadingFactor()) / regionalParameter.getBandwidth();
+    }
+
+    private static int computePayloadSymbols(int sf, int payloadLength, boolean hasHeader, boolean lowDataRateOptimization) {
+        // N.B. the LoRa modem formula multiplies the rounded up number of symbols with (coding rate + 4), which is
+        // missing here. It is kept as it is, since correcting it changes every time on air and thus the results of
+        // the simulation.
+        // https://docs.google.com/spreadsheets/d/1voGAtQAjC1qBmaVuP1ApNKs1ekgUjavHuVQIXyYSvNc/edit#gid=0
+        var payloadSymbNb = (8*payloadLength - 4*sf + (28+16) - 20*(hasHeader? 0: 1)) /
+            ((4*(sf - (lowDataRateOptimization?2:0))) *1.0);
+        payloadSymbNb = Math.ceil(payloadSymbNb);
+        return (int) (8 + Math.max(payloadSymbNb, 0));
+    }
+}
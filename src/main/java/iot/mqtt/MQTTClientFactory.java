@@ -1,5 +1,7 @@
 package iot.mqtt;
 
+import iot.SimulationContext;
+
 /**
  * Factory to retrieve an instance of {@link MqttClientBasicApi}
  */
@@ -14,19 +16,26 @@ public class MQTTClientFactory {
      * @return the singleton instance of {@link MqttClientBasicApi} of the predefined type {@link MqttClientType}
      */
     public static MqttClientBasicApi getSingletonInstance() {
+        var isolatedInstance = SimulationContext.getSingleton(MqttClientBasicApi.class, MQTTClientFactory::createDefaultClient);
+        if (isolatedInstance.isPresent()) {
+            return isolatedInstance.get();
+        }
         if (clientBasicApi == null) {
-            switch (DEFAULT_INSTANCE_TYPE) {
-                case PAHO: {
-                    clientBasicApi = createPahoClient();
-                } break;
-                case MOCK: {
-                    clientBasicApi = createMockClient();
-                } break;
-            }
+            clientBasicApi = createDefaultClient();
         }
         return clientBasicApi;
     }
 
+    private static MqttClientBasicApi createDefaultClient() {
+        switch (DEFAULT_INSTANCE_TYPE) {
+            case PAHO:
+                return createPahoClient();
+            case MOCK:
+            default:
+                return createMockClient();
+        }
+    }
+
     /**
      *
      * @return a new instance of a mock {@link MqttClientBasicApi}
@@ -1,7 +1,9 @@
 package iot.mqtt;
 
+import iot.SimulationContext;
 import util.Pair;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -11,7 +13,9 @@ import java.util.stream.Collectors;
 /**
  * Mock that represent a mqtt broker
  */
-public class MqttBrokerMock {
+public class MqttBrokerMock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final String WILDCARD_SINGLE_LEVEL = "+";
     private static final String WILDCARD_MULTI_LEVEL = "#";
@@ -26,7 +30,7 @@ public class MqttBrokerMock {
      * @return the singleton instance
      */
     public static MqttBrokerMock getInstance() {
-        return ourInstance;
+        return SimulationContext.getSingleton(MqttBrokerMock.class, MqttBrokerMock::new).orElse(ourInstance);
     }
 
     private MqttBrokerMock() {
@@ -1,6 +1,6 @@
 package iot.mqtt;
 
-import java.util.function.BiConsumer;
+import util.SerializableBiConsumer;
 
 /**
  * Interface with basic API for a mqtt client
@@ -32,7 +32,8 @@ public interface MqttClientBasicApi {
      * @param messageConsumer consumer for the message already converted to the required class
      * @param <T> Type of the received message on this topic
      */
-    <T extends MqttMessageType> void subscribe(Object subscriber, String topicFilter, Class<T> classMessage, BiConsumer<String, T> messageConsumer);
+    <T extends MqttMessageType> void subscribe(Object subscriber, String topicFilter, Class<T> classMessage,
+                                               SerializableBiConsumer<String, T> messageConsumer);
 
     /**
      * Unsubscribe a topic previous subscribed
@@ -1,15 +1,19 @@
 package iot.mqtt;
 
+import util.SerializableBiConsumer;
+
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiConsumer;
 
 /**
  * Mock implementation of a mqtt client
  */
-public class MqttMock implements MqttClientBasicApi {
+public class MqttMock implements MqttClientBasicApi, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Map<String, List<MqttMessageConsumer>> subscribed = new HashMap<>();
     private final MqttBrokerMock broker = MqttBrokerMock.getInstance();
@@ -36,7 +40,8 @@ public class MqttMock implements MqttClientBasicApi {
     }
 
     @Override
-    public <T extends MqttMessageType> void subscribe(Object subscriber, String topicFilter, Class<T> classMessage, BiConsumer<String, T> messageConsumer) {
+    public <T extends MqttMessageType> void subscribe(Object subscriber, String topicFilter, Class<T> classMessage,
+                                                      SerializableBiConsumer<String, T> messageConsumer) {
         if (!subscribed.containsKey(topicFilter)) {
             broker.subscribe(this, topicFilter);
             subscribed.put(topicFilter, new LinkedList<>());
@@ -65,13 +70,15 @@ public class MqttMock implements MqttClientBasicApi {
         }
     }
 
-    private static class MqttMessageConsumer<T extends MqttMessageType> {
+    private static class MqttMessageConsumer<T extends MqttMessageType> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         private final Object subscriber;
-        private final BiConsumer<String, T> consumer;
+        private final SerializableBiConsumer<String, T> consumer;
         private final Class<T> clazz;
 
-        public MqttMessageConsumer(Object subscriber, BiConsumer<String, T> consumer, Class<T> clazz) {
+        public MqttMessageConsumer(Object subscriber, SerializableBiConsumer<String, T> consumer, Class<T> clazz) {
             this.consumer = consumer;
             this.clazz = clazz;
             this.subscriber = subscriber;
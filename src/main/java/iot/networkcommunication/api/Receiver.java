@@ -2,13 +2,14 @@ package iot.networkcommunication.api;
 
 import iot.lora.LoraTransmission;
 import util.Pair;
+import util.SerializableConsumer;
 
-import java.util.function.Consumer;
+import java.io.Serializable;
 
 /**
  * Interface for a LoRa receiver entity
  */
-public interface Receiver {
+public interface Receiver extends Serializable {
 
     /**
      *
@@ -39,7 +40,7 @@ public interface Receiver {
      * @param consumerPacket the consumer
      * @return this
      */
-    Receiver setConsumerPacket(Consumer<LoraTransmission> consumerPacket);
+    Receiver setConsumerPacket(SerializableConsumer<LoraTransmission> consumerPacket);
 
     /**
      * reset the receiver to the initial state
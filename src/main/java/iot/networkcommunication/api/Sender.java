@@ -1,10 +1,12 @@
 package iot.networkcommunication.api;
 
 
+import iot.lora.Channel;
 import iot.lora.LoraTransmission;
 import iot.lora.LoraWanPacket;
 import iot.lora.RegionalParameter;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -12,7 +14,7 @@ import java.util.Set;
 /**
  * Interface for a LoRa sender entity
  */
-public interface Sender {
+public interface Sender extends Serializable {
 
     /**
      * Method to send a packet to a set of {@link Receiver}, according to the protocol specification
@@ -65,6 +67,19 @@ public interface Sender {
      */
     RegionalParameter getRegionalParameter();
 
+    /**
+     *
+     * @param channel the channel for the new transmissions
+     * @return this
+     */
+    Sender setChannel(Channel channel);
+
+    /**
+     *
+     * @return the channel used for the transmission
+     */
+    Channel getChannel();
+
     /**
      *
      * @return the transmission power used for the transmission
@@ -0,0 +1,20 @@
+package iot.networkcommunication.impl;
+
+/**
+ * The ways in which a {@link ReceiverWaitPacket} decides which overlapping transmissions (on the same channel with the
+ * same spreading factor) collide, given the transmission power threshold {@code t} of the receiver.
+ * In both models a new transmission collides if it is not at least {@code t} stronger than the strongest transmission
+ * which is still in the air.
+ */
+public enum CollisionModel {
+    /**
+     * A transmission which is still in the air also collides with a new transmission which is weaker or less than
+     * {@code t} stronger, so a later strong transmission leaves the weaker transmissions intact.
+     */
+    PAIRWISE,
+    /**
+     * A transmission which is still in the air collides with a new transmission unless it is at least {@code t}
+     * stronger, so only a transmission which captures the receiver against every competitor survives.
+     */
+    CAPTURE
+}
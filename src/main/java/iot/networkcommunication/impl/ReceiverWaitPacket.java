@@ -5,31 +5,57 @@ import iot.lora.LoraTransmission;
 import iot.networkcommunication.api.Receiver;
 import iot.networkentity.NetworkEntity;
 import util.Pair;
+import util.SerializableConsumer;
+import util.SerializableSupplier;
 import util.TimeHelper;
 
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
 
 public class ReceiverWaitPacket implements Receiver {
 
     // The levels of power in between which it can discriminate.
     private final double transmissionPowerThreshold;
-    private Consumer<LoraTransmission> consumerPacket;
+    private SerializableConsumer<LoraTransmission> consumerPacket;
 
-    private List<LoraTransmission> transmissions = new LinkedList<>();
+    /**
+     * The collision model with which the collisions of new transmissions are decided.
+     */
+    private final SerializableSupplier<CollisionModel> collisionModel;
+
+    /**
+     * The transmissions which are still in the air, by collision domain (see {@link ReceiverWaitPacket#getCollisionDomain}).
+     * Only transmissions on the same channel with the same spreading factor can collide, and a transmission of which
+     * the time on air has ended can not collide with later transmissions (which never depart in the past).
+     */
+    private final Map<Integer, CollisionDomain> inFlightTransmissions = new HashMap<>();
 
     private GlobalClock clock;
 
     private final NetworkEntity receiver;
 
     public ReceiverWaitPacket(NetworkEntity receiver, double transmissionPowerThreshold, GlobalClock clock) {
+        this(receiver, transmissionPowerThreshold, clock, () -> CollisionModel.PAIRWISE);
+    }
+
+    /**
+     * A constructor creating a receiver of which the collision model can change between transmissions.
+     * @param receiver The network entity which receives the transmissions.
+     * @param transmissionPowerThreshold The difference in power above which the stronger transmission is not lost.
+     * @param clock The clock of the environment.
+     * @param collisionModel The collision model used for every new transmission.
+     */
+    public ReceiverWaitPacket(NetworkEntity receiver, double transmissionPowerThreshold, GlobalClock clock,
+                              SerializableSupplier<CollisionModel> collisionModel) {
         this.transmissionPowerThreshold = transmissionPowerThreshold;
         this.receiver = receiver;
         this.clock = clock;
+        this.collisionModel = collisionModel;
     }
 
     @Override
@@ -39,32 +65,33 @@ public class ReceiverWaitPacket implements Receiver {
 
     @Override
     public void receive(LoraTransmission transmission) {
-        var collidedTransmission = transmissions.stream()
-            .filter(t -> collision(transmission, t))
-            .collect(Collectors.toList());
-        collidedTransmission.forEach(LoraTransmission::setCollided);
-        if (!collidedTransmission.isEmpty()) {
-            transmission.setCollided();
-        }
-        transmissions.add(transmission);
-        clock.addTriggerOneShot(transmission.getDepartureTime().plus((long)transmission.getTimeOnAir(), ChronoUnit.MILLIS),()->{
+        var collisionDomain = inFlightTransmissions.computeIfAbsent(getCollisionDomain(transmission), d -> new CollisionDomain());
+        collisionDomain.removeEnded(clock.getTime());
+        collisionDomain.add(transmission, transmissionPowerThreshold, collisionModel.get());
+        clock.addTriggerOneShot(transmission.getDepartureTime() + TimeHelper.miliToNano((long)transmission.getTimeOnAir()),()->{
             transmission.setArrived();
             consumerPacket.accept(transmission);
         });
     }
 
     /**
-     * Checks if two packets collide according to the model
-     * @param a The first packet.
-     * @param b The second packet.
-     * @return true if the packets collide, false otherwise.
+     * @return The collision domain of a transmission, which is the same for two transmissions if and only if they
+     *         are sent on the same channel with the same spreading factor.
      */
-    private boolean collision(LoraTransmission a, LoraTransmission b) {
-        return a.getSpreadingFactor() == b.getSpreadingFactor() &&     //check spreading factor
-            a.getTransmissionPower() - b.getTransmissionPower() < transmissionPowerThreshold && //check transmission power
-            Math.abs(Duration.between(a.getDepartureTime().plusNanos(TimeHelper.miliToNano((long)a.getTimeOnAir()) / 2), //check time on air
-                b.getDepartureTime().plusNanos(TimeHelper.miliToNano((long)b.getTimeOnAir()) / 2)).toNanos())
-                < TimeHelper.miliToNano((long)a.getTimeOnAir()) / 2 + TimeHelper.miliToNano((long)b.getTimeOnAir()) / 2;
+    private static int getCollisionDomain(LoraTransmission transmission) {
+        return transmission.getFrequency() * 16 + transmission.getSpreadingFactor();
+    }
+
+    private static long getHalfTimeOnAir(LoraTransmission transmission) {
+        return TimeHelper.miliToNano((long) transmission.getTimeOnAir()) / 2;
+    }
+
+    /**
+     * @return The time after which a transmission can not collide with transmissions departing from then on,
+     *         i.e. the end of the time on air (rounded in the same way as the overlap of two transmissions).
+     */
+    private static long getEndTime(LoraTransmission transmission) {
+        return transmission.getDepartureTime() + 2 * getHalfTimeOnAir(transmission);
     }
 
     @Override
@@ -78,13 +105,106 @@ public class ReceiverWaitPacket implements Receiver {
     }
 
     @Override
-    public Receiver setConsumerPacket(Consumer<LoraTransmission> consumerPacket) {
+    public Receiver setConsumerPacket(SerializableConsumer<LoraTransmission> consumerPacket) {
         this.consumerPacket = consumerPacket;
         return this;
     }
 
     @Override
     public void reset() {
-        transmissions.clear();
+        inFlightTransmissions.clear();
+    }
+
+    /**
+     * The transmissions which are in the air in one collision domain, ordered by their received power.
+     * Every transmission which departs overlaps with all of them, so its collision only depends on the strongest one,
+     * and the transmissions it makes collide are a range of the ones which did not collide yet.
+     * Since every transmission is marked as collided at most once, adding a transmission takes amortized
+     * {@code O(log n)} time for {@code n} transmissions in the air.
+     */
+    private static class CollisionDomain implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Comparator<InFlightTransmission> byPower =
+            (Comparator<InFlightTransmission> & Serializable) (t1, t2) -> {
+                int comparison = Double.compare(t1.transmissionPower, t2.transmissionPower);
+                return comparison != 0 ? comparison : Long.compare(t1.sequenceNumber, t2.sequenceNumber);
+            };
+
+        private final NavigableSet<InFlightTransmission> transmissions = new TreeSet<>(byPower);
+        private final NavigableSet<InFlightTransmission> notCollidedTransmissions = new TreeSet<>(byPower);
+        private final PriorityQueue<InFlightTransmission> transmissionsByEndTime =
+            new PriorityQueue<>((Comparator<InFlightTransmission> & Serializable)
+                (t1, t2) -> Long.compare(t1.endTime, t2.endTime));
+        private long numberOfTransmissions = 0;
+
+        /**
+         * Removes the transmissions of which the time on air has ended.
+         * @param time The current time.
+         */
+        void removeEnded(long time) {
+            while (!transmissionsByEndTime.isEmpty() && transmissionsByEndTime.peek().endTime <= time) {
+                var transmission = transmissionsByEndTime.poll();
+                transmissions.remove(transmission);
+                notCollidedTransmissions.remove(transmission);
+            }
+        }
+
+        /**
+         * Decides the collisions of a new transmission with the transmissions in the air, and adds it.
+         * @param transmission The new transmission.
+         * @param transmissionPowerThreshold The transmission power threshold of the receiver.
+         * @param collisionModel The collision model to use.
+         */
+        void add(LoraTransmission transmission, double transmissionPowerThreshold, CollisionModel collisionModel) {
+            double power = transmission.getTransmissionPower();
+            boolean collided = !transmissions.isEmpty() &&
+                power - transmissions.last().transmissionPower < transmissionPowerThreshold;
+
+            // The condition is monotone in the power of the transmissions in the air, so the ones which collide
+            // are the strongest (pairwise) or the weakest (capture) ones
+            if (collisionModel == CollisionModel.CAPTURE) {
+                var iterator = notCollidedTransmissions.iterator();
+                InFlightTransmission t;
+                while (iterator.hasNext() && (t = iterator.next()).transmissionPower - power < transmissionPowerThreshold) {
+                    t.transmission.setCollided();
+                    iterator.remove();
+                }
+            } else {
+                var iterator = notCollidedTransmissions.descendingIterator();
+                InFlightTransmission t;
+                while (iterator.hasNext() && power - (t = iterator.next()).transmissionPower < transmissionPowerThreshold) {
+                    t.transmission.setCollided();
+                    iterator.remove();
+                }
+            }
+
+            var inFlightTransmission = new InFlightTransmission(transmission, numberOfTransmissions++);
+            transmissions.add(inFlightTransmission);
+            transmissionsByEndTime.add(inFlightTransmission);
+            if (collided) {
+                transmission.setCollided();
+            } else {
+                notCollidedTransmissions.add(inFlightTransmission);
+            }
+        }
+    }
+
+    private static class InFlightTransmission implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LoraTransmission transmission;
+        private final double transmissionPower;
+        private final long sequenceNumber;
+        private final long endTime;
+
+        InFlightTransmission(LoraTransmission transmission, long sequenceNumber) {
+            this.transmission = transmission;
+            this.transmissionPower = transmission.getTransmissionPower();
+            this.sequenceNumber = sequenceNumber;
+            this.endTime = getEndTime(transmission);
+        }
     }
 }
@@ -1,11 +1,15 @@
 package iot.networkcommunication.impl;
 
-import iot.Characteristic;
 import iot.Environment;
+import iot.ShadowFadingMode;
+import iot.SimulationContext;
+import iot.lora.Channel;
+import iot.lora.EU868Channel;
 import iot.lora.LoraTransmission;
 import iot.lora.LoraWanPacket;
 import iot.lora.RegionalParameter;
 import iot.lora.RxSensitivity;
+import iot.lora.TimeOnAir;
 import iot.networkcommunication.api.Receiver;
 import iot.networkcommunication.api.Sender;
 import iot.networkentity.NetworkEntity;
@@ -13,6 +17,7 @@ import org.jetbrains.annotations.NotNull;
 import util.Pair;
 import util.TimeHelper;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -22,20 +27,22 @@ import java.util.stream.Collectors;
 public class SenderNoWaitPacket implements Sender {
 
     private RegionalParameter regionalParameter;
+    private Channel channel = EU868Channel.CHANNEL_0;
     private double transmissionPower;
     private boolean isTransmitting;
     private final NetworkEntity sender;
     private final Environment env;
     /**
-     * TODO thing if set the seed or put inside the moveTo method
-     * A Random necessary for the gaussian in the model.
+     * A Random necessary for the gaussian in the model, seeded with the seed of the simulation context and the EUI of
+     * the sender so that the shadow fading of the links without a correlated field (e.g. between motes) is reproducible.
      */
-    private final Random random = new Random();
+    private final Random random;
 
     public SenderNoWaitPacket(NetworkEntity sender, Environment environment) {
         reset();
         this.env = environment;
         this.sender = sender;
+        this.random = new Random(SimulationContext.getSeed() * 31 + sender.getEUI());
     }
 
 
@@ -47,14 +54,14 @@ public class SenderNoWaitPacket implements Sender {
                 throw new IllegalArgumentException("Payload size greater then the max size. Payload size: " + payloadSize + ", " +
                     "but max size allowed with this regional parameter is: " + regionalParameter.getMaximumPayloadSize());
             }
-            var timeOnAir = computeTimeOnAir(packet);
+            var timeOnAir = TimeOnAir.getTimeOnAir(regionalParameter, packet);
             var stream = receivers.stream()
                 .map(r -> new Pair<>(r,
                     new LoraTransmission(sender.getEUI(), r.getID(), sender.getPosInt(), moveTo(r.getReceiverPositionAsInt(), transmissionPower),
-                        regionalParameter, timeOnAir, env.getClock().getTime(), packet)))
+                        regionalParameter, channel, timeOnAir, env.getClock().getTime(), packet)))
                 .filter(p -> packetStrengthHighEnough(p.getRight().getTransmissionPower()));
 
-            var filteredSet = stream.collect(Collectors.toSet());
+            var filteredSet = stream.collect(Collectors.toCollection(LinkedHashSet::new));
 
             var ret = filteredSet.stream()
                 .findFirst()
@@ -63,7 +70,7 @@ public class SenderNoWaitPacket implements Sender {
 
             isTransmitting = true;
             var clock = env.getClock();
-            clock.addTriggerOneShot(clock.getTime().plusNanos((long) TimeHelper.miliToNano(timeOnAir)),
+            clock.addTriggerOneShot(clock.getTime() + (long) TimeHelper.miliToNano(timeOnAir),
                 () -> isTransmitting = false);
             return ret;
         } else {
@@ -71,31 +78,6 @@ public class SenderNoWaitPacket implements Sender {
         }
     }
 
-    /**
-     * TODO miss *(codingRate + 4) after ceil
-     * https://docs.google.com/spreadsheets/d/1voGAtQAjC1qBmaVuP1ApNKs1ekgUjavHuVQIXyYSvNc/edit#gid=0
-     * @return time on air in milliseconds
-     */
-    private double computeTimeOnAir(LoraWanPacket packet) {
-        /*((Math.pow(2,getSpreadingFactor())/getBandwidth())*(
-                (8+Math.max(Math.ceil(
-                        (8*getContent().getPayload().length-4*getSpreadingFactor()+28+16 - 20*(getContent().hasHeader()? 1: 0))
-                                /4*(getSpreadingFactor() -2*(getContent().hasLowDataRateOptimization()?0:1)))
-                        *getContent().getCodingRate(),0))
-                        +getContent().getAmountOfPreambleSymbols()*4.25))/10;
-        */
-        var sf = regionalParameter.getSpreadingFactor();
-        var bandwidth = regionalParameter.getBandwidth();
-        var tSym = Math.pow(2,sf)/bandwidth;
-        var tPreamble = (packet.getAmountOfPreambleSymbols()+4.25) * tSym;
-        var payloadSymbNb = (8*packet.getPayload().length - 4*sf + (28+16) - 20*(packet.hasHeader()? 0: 1)) /
-            ((4*(sf - (packet.hasLowDataRateOptimization()?2:0))) *1.0);
-        payloadSymbNb = Math.ceil(payloadSymbNb);
-        payloadSymbNb = 8 + Math.max(payloadSymbNb, 0);
-        var tPayload = payloadSymbNb * tSym;
-        return tPayload + tPreamble;
-    }
-
     /**
      * Moves a transmission to a given position, while adapting the transmission power.
      * @param pos the position of the receiver
@@ -107,54 +89,41 @@ public class SenderNoWaitPacket implements Sender {
     }
 
     /**
-     * Moves a transmission to a given position, while adapting the transmission power.
+     * Moves a transmission to a given position, while adapting the transmission power
+     * according to the path loss model of the environment.
      * @param xPos  The x-coordinate of the destination.
      * @param yPos  The y-coordinate of the destination.
      * @param transmissionPower the initial transmission power
      * @return the transmission
      */
     private double moveTo(int xPos, int yPos, double transmissionPower) {
-        int xDist = Math.abs(xPos - sender.getXPosInt());
-        int yDist = Math.abs(yPos - sender.getYPosInt());
-        int xDir;
-        int yDir;
-        Characteristic characteristic = env.getCharacteristic(xPos, yPos);
-
-        while (transmissionPower > -300 && xDist + yDist > 0) {
-            xDist = Math.abs(xPos - sender.getXPosInt());
-            yDist = Math.abs(yPos - sender.getYPosInt());
-            xDir = Integer.signum(xPos - sender.getXPosInt());
-            yDir = Integer.signum(yPos - sender.getYPosInt());
-            characteristic = env.getCharacteristic(xPos, yPos);
-
-            if (xDist + yDist > 1) {
-                if (xDist >  2*yDist || yDist >  2*xDist) {
-                    transmissionPower = transmissionPower - 10 * characteristic.getPathLossExponent() * (Math.log10(xDist + yDist) - Math.log10(xDist + yDist - 1));
-                    if (xDist >  2*yDist) {
-                        xPos = xPos - xDir;
-                    }
-                    else{
-                        yPos = yPos - yDir;
-                    }
-                }
-                else {
-                    transmissionPower = transmissionPower - 10 * characteristic.getPathLossExponent() * (Math.log10(xDist + yDist) - Math.log10(xDist + yDist - Math.sqrt(2)));
-                    xPos =xPos - xDir;
-                    yPos = yPos - yDir;
-                }
-            }
+        // The path loss to a gateway only depends on the positions, so the result of the path loss model is cached
+        var pathLossRasterCache = env.getPathLossRasterCache();
+        int xSender = sender.getXPosInt();
+        int ySender = sender.getYPosInt();
+        double meanTransmissionPower = pathLossRasterCache.get(xPos, yPos, transmissionPower, xSender, ySender);
+        if (Double.isNaN(meanTransmissionPower)) {
+            meanTransmissionPower = env.getPathLossModel().computeTransmissionPower(env, xSender, ySender, xPos, yPos, transmissionPower);
+            pathLossRasterCache.put(xPos, yPos, transmissionPower, xSender, ySender, meanTransmissionPower);
+        }
+        return meanTransmissionPower - getShadowFading(xPos, yPos) * env.getCharacteristic(xSender, ySender).getShadowFading();
+    }
 
-            else if (xDist + yDist == 1) {
-                if (xDist >  yDist) {
-                    xPos = xPos - xDir;
-                }
-                else {
-                    yPos = yPos - yDir;
-                }
+    /**
+     * Determines the normalized shadow fading of a transmission of this sender to a given receiver position,
+     * according to the {@link ShadowFadingMode} of the environment.
+     * @param xReceiver The x-coordinate of the receiver.
+     * @param yReceiver The y-coordinate of the receiver.
+     * @return The standard normal shadow fading of the transmission.
+     */
+    private double getShadowFading(int xReceiver, int yReceiver) {
+        if (env.getShadowFadingMode() == ShadowFadingMode.CORRELATED) {
+            double shadowFading = env.getShadowFadingField().get(xReceiver, yReceiver, sender.getXPosInt(), sender.getYPosInt());
+            if (!Double.isNaN(shadowFading)) {
+                return shadowFading;
             }
-
         }
-        return transmissionPower - random.nextGaussian() * characteristic.getShadowFading();
+        return random.nextGaussian();
     }
 
     /**
@@ -201,6 +170,17 @@ public class SenderNoWaitPacket implements Sender {
         return regionalParameter;
     }
 
+    @Override
+    public Sender setChannel(Channel channel) {
+        this.channel = channel;
+        return this;
+    }
+
+    @Override
+    public Channel getChannel() {
+        return channel;
+    }
+
     @Override
     public double getTransmissionPower() {
         return transmissionPower;
@@ -75,8 +75,7 @@ public class Gateway extends NetworkEntity {
     protected void OnReceive(LoraTransmission transmission) {
         var packet = transmission.getContent();
         //manage the message only if it is of a mote
-        if (SimulationRunner.getInstance().getEnvironment().getMotes().stream()
-            .anyMatch(m -> m.getEUI() == packet.getSenderEUI())) {
+        if (SimulationRunner.getInstance().getEnvironment().getNetworkEntityRegistry().isMote(packet.getSenderEUI())) {
             var message = new TransmissionWrapper(transmission);
             mqttClient.publish(Topics.getGatewayToNetServer(packet.getReceiverEUI(), getEUI(), packet.getSenderEUI()), message);
             for (MoteProbe moteProbe : getSubscribedMoteProbes()) {
@@ -92,6 +91,32 @@ public class Gateway extends NetworkEntity {
      */
     public void sendToDevice(LoraWanPacket packet) { send(packet);}
 
+    @Override
+    public void setXPos(double xPos) {
+        boolean moved = (int) xPos != getXPosInt();
+        super.setXPos(xPos);
+        if (moved) {
+            invalidatePositionCaches();
+        }
+    }
+
+    @Override
+    public void setYPos(double yPos) {
+        boolean moved = (int) yPos != getYPosInt();
+        super.setYPos(yPos);
+        if (moved) {
+            invalidatePositionCaches();
+        }
+    }
+
+    /**
+     * Invalidates the caches of the environment which are kept by the positions of the gateways.
+     */
+    private void invalidatePositionCaches() {
+        getEnvironment().getPathLossRasterCache().invalidate();
+        getEnvironment().getShadowFadingField().invalidate();
+    }
+
     @Override
     boolean filterLoraSend(NetworkEntity networkEntity, LoraWanPacket packet) {
         return networkEntity.getEUI() == packet.getReceiverEUI();
@@ -5,12 +5,15 @@ import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
 import iot.Environment;
 import iot.GlobalClock;
+import iot.SimulationContext;
 import iot.lora.*;
 import iot.strategy.consume.ConsumePacketStrategy;
 import iot.strategy.store.MaintainLastPacket;
 import iot.strategy.store.ReceivedPacketStrategy;
 import org.jxmapviewer.viewer.GeoPosition;
 import util.Path;
+import util.SerializableRunnable;
+import util.TimeHelper;
 
 import java.util.*;
 
@@ -55,8 +58,8 @@ public class Mote extends NetworkEntity {
     // True if the mote can receive a new packet or it has to wait to send a new one before
     protected boolean canReceive;
 
-    //id of the trigger to send the keep alive message
-    private long keepAliveTriggerId;
+    //trigger to send the keep alive message
+    private GlobalClock.Trigger keepAliveTrigger;
 
     private LoraWanPacket lastPacketSent;
 
@@ -72,6 +75,12 @@ public class Mote extends NetworkEntity {
 
     protected List<ConsumePacketStrategy> consumePacketStrategies;
 
+    // notified when a packet has been stored which still has to be consumed (see consumePackets)
+    private SerializableRunnable receivedPacketListener = () -> {};
+
+    // notified when the path of the mote has been replaced (see setPath)
+    private SerializableRunnable pathListener = () -> {};
+
     //endregion
 
     // region constructor
@@ -124,7 +133,8 @@ public class Mote extends NetworkEntity {
     public Mote(long DevEUI, int xPos, int yPos, int transmissionPower, int SF,
                 List<MoteSensor> moteSensors, int energyLevel, Path path, double movementSpeed, Environment environment) {
         this(DevEUI,xPos,yPos, transmissionPower,SF,moteSensors,energyLevel,path, movementSpeed,
-            Math.abs((new Random()).nextInt(5)), DEFAULT_PERIOD_SENDING_PACKET, DEFAULT_START_SENDING_OFFSET, environment);
+            SimulationContext.getRandom(Mote.class).nextInt(5), DEFAULT_PERIOD_SENDING_PACKET, DEFAULT_START_SENDING_OFFSET,
+            environment);
     }
 
 
@@ -138,10 +148,10 @@ public class Mote extends NetworkEntity {
         var packet = transmission.getContent();
         //if is a message sent to from a gateway to this mote
         if (canReceive && getEUI() == packet.getReceiverEUI() &&
-            this.getEnvironment().getGateways().stream()
-                .anyMatch(m -> m.getEUI() == packet.getSenderEUI())) {
+            this.getEnvironment().getNetworkEntityRegistry().isGateway(packet.getSenderEUI())) {
             canReceive = false;
             receivedPacketStrategy.addReceivedMessage(packet);
+            receivedPacketListener.run();
         }
     }
 
@@ -157,7 +167,7 @@ public class Mote extends NetworkEntity {
 
         this.frameCounter = 0;
         this.canReceive = false;
-        this.keepAliveTriggerId = -1L;
+        this.keepAliveTrigger = null;
         this.lastPacketSent = null;
         this.receivedPacketStrategy = new MaintainLastPacket();
         this.consumePacketStrategies =  new ArrayList<>();
@@ -196,10 +206,12 @@ public class Mote extends NetworkEntity {
     @Basic
     public void setPath(Path path) {
             this.path = path;
+            pathListener.run();
     }
 
     public void setPath(List<GeoPosition> positions) {
         this.path.setPath(positions);
+        pathListener.run();
     }
 
 
@@ -230,25 +242,28 @@ public class Mote extends NetworkEntity {
 
     private void resetKeepAliveTrigger(int offset) {
         GlobalClock clock = this.getEnvironment().getClock();
-
-        if (keepAliveTriggerId != -1L) {
-            clock.removeTrigger(keepAliveTriggerId);
-        }
-        keepAliveTriggerId = clock.addTriggerOneShot(
-            clock.getTime().plusSeconds(offset + periodSendingPacket * 5), //TODO configure parameter
-            () -> {
-                byte[] payload;
-                if (lastPacketSent == null) {
-                    payload = new byte[]{MessageType.KEEPALIVE.getCode()};
-                } else {
-                    payload = lastPacketSent.getPayload();
-                    payload[0] = MessageType.KEEPALIVE.getCode();
+        long keepAliveTime = clock.getTime() + TimeHelper.secToNano(offset + periodSendingPacket * 5); //TODO configure parameter
+
+        // Re-arming the trigger is a cheap reschedule of the existing one
+        if (keepAliveTrigger != null) {
+            keepAliveTrigger.reschedule(keepAliveTime);
+        } else {
+            keepAliveTrigger = clock.addTriggerOneShot(
+                keepAliveTime,
+                () -> {
+                    byte[] payload;
+                    if (lastPacketSent == null) {
+                        payload = new byte[]{MessageType.KEEPALIVE.getCode()};
+                    } else {
+                        payload = lastPacketSent.getPayload();
+                        payload[0] = MessageType.KEEPALIVE.getCode();
+                    }
+                    var packet = new LoraWanPacket(getEUI(), getApplicationEUI(), payload,
+                        new BasicFrameHeader().setFCnt(incrementFrameCounter()), new LinkedList<>());
+                    sendToGateWay(packet);
                 }
-                var packet = new LoraWanPacket(getEUI(), getApplicationEUI(), payload,
-                    new BasicFrameHeader().setFCnt(incrementFrameCounter()), new LinkedList<>());
-                sendToGateWay(packet);
-            }
-        );
+            );
+        }
     }
 
     /**
@@ -302,6 +317,24 @@ public class Mote extends NetworkEntity {
             new BasicFrameHeader().setFCnt(incrementFrameCounter()), new LinkedList<>(macCommands.keySet()));
     }
 
+    /**
+     * Sets the listener which is notified every time a packet has been received which has to be consumed
+     * by {@link Mote#consumePackets()}.
+     * @param receivedPacketListener The listener.
+     */
+    public void setReceivedPacketListener(SerializableRunnable receivedPacketListener) {
+        this.receivedPacketListener = receivedPacketListener;
+    }
+
+    /**
+     * Sets the listener which is notified every time the path of the mote has been replaced
+     * by {@link Mote#setPath(Path)} or {@link Mote#setPath(List)}.
+     * @param pathListener The listener.
+     */
+    public void setPathListener(SerializableRunnable pathListener) {
+        this.pathListener = pathListener;
+    }
+
     /**
      * consume all the packet arrived with the strategies previous defined
      */
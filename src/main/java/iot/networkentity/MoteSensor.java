@@ -4,9 +4,9 @@ import datagenerator.*;
 import datagenerator.iaqsensor.IAQDataGeneratorSingleton;
 import util.Pair;
 
-import java.time.LocalTime;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * An enum representing sensors for the motes.
@@ -18,27 +18,32 @@ public enum MoteSensor {
     CARBON_DIOXIDE(new CarbonDioxideDataGenerator(), 1),
     PARTICULATE_MATTER(new ParticulateMatterDataGenerator(), 1),
     GPS(new GPSDataGenerator(),8),
-    IAQ(IAQDataGeneratorSingleton.getInstance(), 1);
+    // The generator depends on the map, so every simulation context has its own
+    IAQ(IAQDataGeneratorSingleton::getInstance, 1);
 
 
-    private final SensorDataGenerator sensorDataGenerator;
+    private final Supplier<SensorDataGenerator> sensorDataGenerator;
     private final int amountOfData;
 
     MoteSensor(SensorDataGenerator sensorDataGenerator, int amountOfData) {
+        this(() -> sensorDataGenerator, amountOfData);
+    }
+
+    MoteSensor(Supplier<SensorDataGenerator> sensorDataGenerator, int amountOfData) {
         this.sensorDataGenerator = sensorDataGenerator;
         this.amountOfData = amountOfData;
     }
 
-    public byte[] getValue(int xpos, int ypos, LocalTime time) {
-        return sensorDataGenerator.generateData(xpos,ypos,time);
+    public byte[] getValue(int xpos, int ypos, long time) {
+        return getSensorDataGenerator().generateData(xpos,ypos,time);
     }
 
     public double getValue(double xpos, double ypos) {
-        return sensorDataGenerator.nonStaticDataGeneration(xpos,ypos);
+        return getSensorDataGenerator().nonStaticDataGeneration(xpos,ypos);
     }
 
-    public List<Byte> getValueAsList(int xpos, int ypos, LocalTime time) {
-        var tmp = sensorDataGenerator.generateData(xpos, ypos, time);
+    public List<Byte> getValueAsList(int xpos, int ypos, long time) {
+        var tmp = getSensorDataGenerator().generateData(xpos, ypos, time);
         var ret = new LinkedList<Byte>();
         for (byte b : tmp) {
             ret.add(b);
@@ -46,16 +51,16 @@ public enum MoteSensor {
         return ret;
     }
 
-    public byte[] getValue(Pair<Integer, Integer> pos, LocalTime time) {
+    public byte[] getValue(Pair<Integer, Integer> pos, long time) {
         return getValue(pos.getLeft(), pos.getRight(), time);
     }
 
-    public List<Byte> getValueAsList(Pair<Integer, Integer> pos, LocalTime time) {
+    public List<Byte> getValueAsList(Pair<Integer, Integer> pos, long time) {
         return getValueAsList(pos.getLeft(), pos.getRight(), time);
     }
 
     public SensorDataGenerator getSensorDataGenerator() {
-        return sensorDataGenerator;
+        return sensorDataGenerator.get();
     }
 
     public int getAmountOfData() {
@@ -13,9 +13,11 @@ import iot.networkcommunication.impl.SenderNoWaitPacket;
 import util.Converter;
 import util.Pair;
 import util.Statistics;
+import util.TimeHelper;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -53,6 +55,9 @@ public abstract class NetworkEntity implements Serializable {
 
     private final List<RegionalParameter> regionalParameters = EU868ParameterByDataRate.valuesAsList();
 
+    // The number of packets sent in this run, which determines the channel of the next packet.
+    private long numberOfSentPackets;
+
     // strategy to send a LoRa packet
     private Sender sender;
 
@@ -83,7 +88,8 @@ public abstract class NetworkEntity implements Serializable {
         this.environment = environment;
 
         enabled = true;
-        receiver = new ReceiverWaitPacket(this, transmissionPowerThreshold, environment.getClock()).setConsumerPacket(this::receive);
+        receiver = new ReceiverWaitPacket(this, transmissionPowerThreshold, environment.getClock(), environment::getCollisionModel)
+            .setConsumerPacket(this::receive);
         sender = new SenderNoWaitPacket(this, environment)
             .setRegionalParameter(regionalParameters.stream().filter(r -> r.getSpreadingFactor() == SF).findFirst().orElseThrow())
             .setTransmissionPower(transmissionPower);
@@ -127,7 +133,7 @@ public abstract class NetworkEntity implements Serializable {
      * @param transmission The transmission to receiveTransmission.
      */
     private void receive(LoraTransmission transmission) {
-        Statistics.getInstance().addReceivedTransmissionsEntry(this.getEUI(), transmission);
+        Statistics.getInstance().addReceivedTransmissionsEntry(this, transmission);
         if (!transmission.isCollided()) {
             handleMacCommands(transmission.getContent());
             OnReceive(transmission);
@@ -274,20 +280,35 @@ public abstract class NetworkEntity implements Serializable {
      */
     protected void send(LoraWanPacket message) {
         Environment environment = this.getEnvironment();
+        sender.setChannel(selectChannel(environment.getChannels()));
 
         var recs = Stream.concat(environment.getGateways().stream(), environment.getMotes().stream())
             .filter(ne -> filterLoraSend(ne, message))
             .map(NetworkEntity::getReceiver)
-            .collect(Collectors.toSet());
+            // In the order of the environment, so that the shadow fading of the receivers is drawn in the same order
+            .collect(Collectors.toCollection(LinkedHashSet::new));
         sender.send(message, recs)
             .ifPresent(t -> {
                 Statistics statistics = Statistics.getInstance();
-                statistics.addPowerSettingEntry(this.getEUI(), environment.getClock().getTime().toSecondOfDay(), getTransmissionPower());
+                statistics.addPowerSettingEntry(this.getEUI(), (int) TimeHelper.nanoToSec(environment.getClock().getTime()), getTransmissionPower());
                 statistics.addSpreadingFactorEntry(this.getEUI(), this.getSF());
                 statistics.addSentTransmissionsEntry(this.getEUI(), t);
             });
     }
 
+    /**
+     * Selects the channel of the next packet, which hops pseudo-randomly over the given channels.
+     * The hopping sequence only depends on the EUI of the entity, so it is the same in every run.
+     * @param channels The channels which can be used.
+     * @return The channel on which the next packet is sent.
+     */
+    private Channel selectChannel(List<Channel> channels) {
+        long hash = (EUI + numberOfSentPackets++) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return channels.get((int) Long.remainderUnsigned(hash ^ (hash >>> 31), channels.size()));
+    }
+
     public Receiver getReceiver() {
         return receiver;
     }
@@ -334,6 +355,7 @@ public abstract class NetworkEntity implements Serializable {
     public void reset() {
         receiver.reset();
         sender.reset();
+        numberOfSentPackets = 0;
 
         this.initialize();
     }
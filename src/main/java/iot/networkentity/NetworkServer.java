@@ -4,20 +4,24 @@ import iot.lora.BasicFrameHeader;
 import iot.lora.LoraTransmission;
 import iot.lora.LoraWanPacket;
 import iot.mqtt.*;
+import util.SerializableBinaryOperator;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BinaryOperator;
 
-public class NetworkServer {
+public class NetworkServer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     // Map moteId -> (Map gatewayId -> lastTransmission)
     private final Map<Long, Map<Long, LoraTransmission>> transmissionReceived;
     private final Map<Long, List<LoraTransmission>> historyMote;
     private final MqttClientBasicApi mqttClient;
-    private BinaryOperator<Map.Entry<Long, LoraTransmission>> chooseGatewayStrategy = this::chooseByTransmissionPower;
+    private SerializableBinaryOperator<Map.Entry<Long, LoraTransmission>> chooseGatewayStrategy =
+        this::chooseByTransmissionPower;
     private short frameCounter;
 
     public NetworkServer(MqttClientBasicApi mqttClient) {
@@ -40,7 +44,8 @@ public class NetworkServer {
      * @param strategy
      * @return
      */
-    public NetworkServer setChooseGatewayStrategy(BinaryOperator<Map.Entry<Long, LoraTransmission>> strategy) {
+    public NetworkServer setChooseGatewayStrategy(
+            SerializableBinaryOperator<Map.Entry<Long, LoraTransmission>> strategy) {
         chooseGatewayStrategy = strategy;
         return this;
     }
@@ -15,8 +15,8 @@ import selfadaptation.instrumentation.MoteEffector;
 import util.Converter;
 import util.MapHelper;
 import util.Path;
+import util.TimeHelper;
 
-import java.time.LocalTime;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +29,7 @@ public class UserMote extends Mote {
     // the user mote can ask for a path only if this property is true
     private boolean isActive = false;
     private GeoPosition destination;
-    private final LocalTime whenAskPath = LocalTime.of(0, 0, 15);
+    private final long whenAskPath = TimeHelper.secToNano(15);
     private boolean alreadyRequested;
     private boolean adaptation;
 
@@ -50,7 +50,7 @@ public class UserMote extends Mote {
 
             GlobalClock clock = this.getEnvironment().getClock();
 
-            if (isActive() && !alreadyRequested && whenAskPath.isBefore(clock.getTime())) {
+            if (isActive() && !alreadyRequested && whenAskPath < clock.getTime()) {
                 alreadyRequested = true;
                 byte[] payload = new byte[17];
                 payload[0] = MessageType.REQUEST_PATH.getCode();
@@ -122,7 +122,7 @@ public class UserMote extends Mote {
 
         var clock = this.getEnvironment().getClock();
         var oldDestination = getPath().getDestination();
-        clock.addTriggerOneShot(clock.getTime().plusSeconds(30), () -> {
+        clock.addTriggerOneShot(clock.getTime() + TimeHelper.secToNano(30), () -> {
             if (oldDestination.equals(getPath().getDestination())) {
                 askNewPartOfPath();
             }
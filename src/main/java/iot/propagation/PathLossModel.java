@@ -0,0 +1,25 @@
+package iot.propagation;
+
+import iot.Environment;
+
+import java.io.Serializable;
+
+/**
+ * A model of the deterministic part of the path loss of a transmission over the characteristics of an environment.
+ * The shadow fading is added by the sender.
+ */
+public interface PathLossModel extends Serializable {
+
+    /**
+     * Computes the transmission power at which a transmission arrives, before shadow fading.
+     * @param environment The environment over which the transmission travels.
+     * @param xSender The x-coordinate of the sender.
+     * @param ySender The y-coordinate of the sender.
+     * @param xReceiver The x-coordinate of the receiver.
+     * @param yReceiver The y-coordinate of the receiver.
+     * @param transmissionPower The initial transmission power.
+     * @return The transmission power at the receiver.
+     */
+    double computeTransmissionPower(Environment environment, int xSender, int ySender,
+                                    int xReceiver, int yReceiver, double transmissionPower);
+}
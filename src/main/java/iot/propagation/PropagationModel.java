@@ -0,0 +1,29 @@
+package iot.propagation;
+
+/**
+ * The available implementations of {@link PathLossModel}, which can be selected per configuration.
+ */
+public enum PropagationModel {
+    /**
+     * A walk from the receiver to the sender, which loses power with the path loss exponent of every position it visits.
+     */
+    STEPWISE(new StepwisePathLoss()),
+    /**
+     * A Bresenham line from the receiver to the sender, of which the path loss is computed per segment with the same
+     * characteristic.
+     */
+    SEGMENTED(new SegmentedPathLoss());
+
+    private final PathLossModel pathLossModel;
+
+    PropagationModel(PathLossModel pathLossModel) {
+        this.pathLossModel = pathLossModel;
+    }
+
+    /**
+     * @return The path loss model of this type.
+     */
+    public PathLossModel getPathLossModel() {
+        return pathLossModel;
+    }
+}
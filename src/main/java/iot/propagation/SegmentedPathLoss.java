@@ -0,0 +1,63 @@
+package iot.propagation;
+
+import iot.Characteristic;
+import iot.Environment;
+
+/**
+ * A path loss model which follows the Bresenham line from the receiver to the sender.
+ * <p>
+ * Every step of the line loses {@code 10 * n * (log10(d) - log10(d'))} dB, with {@code n} the path loss exponent of the
+ * position before the step and {@code d}, {@code d'} the euclidean distances to the sender before and after the step
+ * (at least 1, the reference distance). These losses telescope over a segment of positions with the same
+ * characteristic, so the path loss is computed with one logarithm per segment instead of one per position,
+ * and the line itself only uses integer arithmetic.
+ * Over a map with a single characteristic this is the log-distance path loss {@code 10 * n * log10(d)}.
+ * <p>
+ * The line stays within the rectangle of the sender and the receiver, so both have to be on the map: otherwise the
+ * characteristic raster throws an {@link IndexOutOfBoundsException}.
+ */
+public class SegmentedPathLoss implements PathLossModel {
+
+    @Override
+    public double computeTransmissionPower(Environment environment, int xSender, int ySender,
+                                           int xReceiver, int yReceiver, double transmissionPower) {
+        var characteristics = environment.getCharacteristicRaster();
+        int xDist = Math.abs(xSender - xReceiver);
+        int yDist = Math.abs(ySender - yReceiver);
+        int xDir = xReceiver < xSender ? 1 : -1;
+        int yDir = yReceiver < ySender ? 1 : -1;
+        int error = xDist - yDist;
+
+        int xPos = xReceiver;
+        int yPos = yReceiver;
+        Characteristic segmentCharacteristic = characteristics.get(xPos, yPos);
+        double segmentStart = log10Distance(xDist, yDist);
+        while (xPos != xSender || yPos != ySender) {
+            int doubleError = 2 * error;
+            if (doubleError > -yDist) {
+                error -= yDist;
+                xPos += xDir;
+            }
+            if (doubleError < xDist) {
+                error += xDist;
+                yPos += yDir;
+            }
+            var characteristic = characteristics.get(xPos, yPos);
+            if (characteristic != segmentCharacteristic) {
+                double segmentEnd = log10Distance(xPos - xSender, yPos - ySender);
+                transmissionPower -= 10 * segmentCharacteristic.getPathLossExponent() * (segmentStart - segmentEnd);
+                segmentCharacteristic = characteristic;
+                segmentStart = segmentEnd;
+            }
+        }
+        // The last segment ends at the sender, at the reference distance
+        return transmissionPower - 10 * segmentCharacteristic.getPathLossExponent() * segmentStart;
+    }
+
+    /**
+     * @return The logarithm of the euclidean distance over the given distances along the axes, at least 0.
+     */
+    private static double log10Distance(int xDist, int yDist) {
+        return Math.log10(Math.max(1.0, (double) xDist * xDist + (double) yDist * yDist)) / 2;
+    }
+}
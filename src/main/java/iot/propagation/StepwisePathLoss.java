@@ -0,0 +1,61 @@
+package iot.propagation;
+
+import iot.Characteristic;
+import iot.Environment;
+
+/**
+ * The original path loss model, which walks from the receiver to the sender.
+ * Every step loses {@code 10 * n * (log10(d) - log10(d - s))} dB, with {@code n} the path loss exponent of the position
+ * before the step, {@code d} the Manhattan distance to the sender and {@code s} the length of the step
+ * (1, or the square root of 2 for a diagonal step). The walk stops below -300 dBm.
+ */
+public class StepwisePathLoss implements PathLossModel {
+
+    @Override
+    public double computeTransmissionPower(Environment environment, int xSender, int ySender,
+                                           int xReceiver, int yReceiver, double transmissionPower) {
+        int xPos = xReceiver;
+        int yPos = yReceiver;
+        int xDist = Math.abs(xPos - xSender);
+        int yDist = Math.abs(yPos - ySender);
+        int xDir;
+        int yDir;
+        Characteristic characteristic;
+
+        while (transmissionPower > -300 && xDist + yDist > 0) {
+            xDist = Math.abs(xPos - xSender);
+            yDist = Math.abs(yPos - ySender);
+            xDir = Integer.signum(xPos - xSender);
+            yDir = Integer.signum(yPos - ySender);
+            characteristic = environment.getCharacteristic(xPos, yPos);
+
+            if (xDist + yDist > 1) {
+                if (xDist >  2*yDist || yDist >  2*xDist) {
+                    transmissionPower = transmissionPower - 10 * characteristic.getPathLossExponent() * (Math.log10(xDist + yDist) - Math.log10(xDist + yDist - 1));
+                    if (xDist >  2*yDist) {
+                        xPos = xPos - xDir;
+                    }
+                    else{
+                        yPos = yPos - yDir;
+                    }
+                }
+                else {
+                    transmissionPower = transmissionPower - 10 * characteristic.getPathLossExponent() * (Math.log10(xDist + yDist) - Math.log10(xDist + yDist - Math.sqrt(2)));
+                    xPos =xPos - xDir;
+                    yPos = yPos - yDir;
+                }
+            }
+
+            else if (xDist + yDist == 1) {
+                if (xDist >  yDist) {
+                    xPos = xPos - xDir;
+                }
+                else {
+                    yPos = yPos - yDir;
+                }
+            }
+
+        }
+        return transmissionPower;
+    }
+}
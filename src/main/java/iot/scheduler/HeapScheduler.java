@@ -0,0 +1,50 @@
+package iot.scheduler;
+
+import java.util.*;
+
+/**
+ * Scheduler which keeps all the elements in a single binary heap ordered by time.
+ * @param <E> The type of the scheduled elements.
+ */
+public class HeapScheduler<E> implements TriggerScheduler<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private long currentTime = 0;
+
+    private long nextSequenceNumber = 0;
+
+    private PriorityQueue<ScheduledEntry<E>> heap = new PriorityQueue<>(ScheduledEntry.FIRING_ORDER);
+
+    @Override
+    public void schedule(long time, E element) {
+        if (time > currentTime) {
+            heap.add(new ScheduledEntry<>(time, nextSequenceNumber++, element));
+        }
+    }
+
+    @Override
+    public OptionalLong getNextTime() {
+        return heap.isEmpty() ? OptionalLong.empty() : OptionalLong.of(heap.peek().time);
+    }
+
+    @Override
+    public List<E> poll(long time) {
+        currentTime = time;
+        if (heap.isEmpty() || heap.peek().time != time) {
+            return List.of();
+        }
+        List<E> ret = new ArrayList<>();
+        while (!heap.isEmpty() && heap.peek().time == time) {
+            ret.add(heap.poll().element);
+        }
+        return ret;
+    }
+
+    @Override
+    public void reset() {
+        currentTime = 0;
+        nextSequenceNumber = 0;
+        heap = new PriorityQueue<>(ScheduledEntry.FIRING_ORDER);
+    }
+}
@@ -0,0 +1,54 @@
+package iot.scheduler;
+
+import java.util.*;
+
+/**
+ * Scheduler which stores the elements in a stack (list LIFO) per time,
+ * the used times are kept in a priority queue to find the next one.
+ * @param <E> The type of the scheduled elements.
+ */
+public class LegacyScheduler<E> implements TriggerScheduler<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private long currentTime = 0;
+
+    private Map<Long, List<E>> elements = new HashMap<>();
+
+    private PriorityQueue<Long> times = new PriorityQueue<>();
+
+    @Override
+    public void schedule(long time, E element) {
+        if (time <= currentTime) {
+            return;
+        }
+        if (elements.containsKey(time)) {
+            elements.get(time).add(0, element);
+        } else {
+            elements.put(time, new ArrayList<>(List.of(element)));
+            times.add(time);
+        }
+    }
+
+    @Override
+    public OptionalLong getNextTime() {
+        while (!times.isEmpty() && times.peek() <= currentTime) {
+            times.poll();
+        }
+        return times.isEmpty() ? OptionalLong.empty() : OptionalLong.of(times.peek());
+    }
+
+    @Override
+    public List<E> poll(long time) {
+        currentTime = time;
+        var ret = elements.remove(time);
+        return ret == null ? List.of() : ret;
+    }
+
+    @Override
+    public void reset() {
+        currentTime = 0;
+        elements = new HashMap<>();
+        times = new PriorityQueue<>();
+    }
+}
@@ -0,0 +1,32 @@
+package iot.scheduler;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * An element scheduled at a certain time, together with the order in which it was scheduled.
+ * @param <E> The type of the scheduled element.
+ */
+class ScheduledEntry<E> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The firing order of the entries: by time, and the most recently scheduled first for the same time.
+     */
+    static final Comparator<ScheduledEntry<?>> FIRING_ORDER =
+        (Comparator<ScheduledEntry<?>> & Serializable) (e1, e2) -> {
+            int byTime = Long.compare(e1.time, e2.time);
+            return byTime != 0 ? byTime : Long.compare(e2.sequenceNumber, e1.sequenceNumber);
+        };
+
+    final long time;
+    final long sequenceNumber;
+    final E element;
+
+    ScheduledEntry(long time, long sequenceNumber, E element) {
+        this.time = time;
+        this.sequenceNumber = sequenceNumber;
+        this.element = element;
+    }
+}
@@ -0,0 +1,37 @@
+package iot.scheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * The available implementations of {@link TriggerScheduler}.
+ */
+public enum SchedulerType {
+    /**
+     * A hash map with a list of elements per millisecond, together with a priority queue of the used times.
+     */
+    LEGACY(LegacyScheduler::new),
+    /**
+     * A binary heap of all the scheduled elements.
+     */
+    HEAP(HeapScheduler::new),
+    /**
+     * A hierarchical timing wheel with a resolution of one millisecond.
+     */
+    TIMING_WHEEL(TimingWheelScheduler::new);
+
+    private final Supplier<TriggerScheduler<?>> factory;
+
+    SchedulerType(Supplier<TriggerScheduler<?>> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a new, empty scheduler of this type.
+     * @param <E> The type of the scheduled elements.
+     * @return the new scheduler
+     */
+    @SuppressWarnings("unchecked")
+    public <E> TriggerScheduler<E> create() {
+        return (TriggerScheduler<E>) factory.get();
+    }
+}
@@ -0,0 +1,187 @@
+package iot.scheduler;
+
+import util.TimeHelper;
+
+import java.util.*;
+
+/**
+ * Scheduler which stores the elements in a hierarchical timing wheel with a resolution of one millisecond.
+ * Every level of the wheel has {@value #SLOTS} slots, and a slot of a level covers all the slots of the level below.
+ * An element is stored in the level of the highest group of bits in which its millisecond differs from the current one,
+ * and cascades to the lower levels when the current time reaches its slot.
+ * Scheduling and expiring an element therefore takes constant time, independently of the number of scheduled elements.
+ * Elements which are too far in the future for the wheel (about 2 years) are kept in a separate priority queue.
+ * @param <E> The type of the scheduled elements.
+ */
+public class TimingWheelScheduler<E> implements TriggerScheduler<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int SLOTS = 1 << BITS_PER_LEVEL;
+    private static final int LEVELS = 6;
+
+    /**
+     * The current time, in milliseconds.
+     */
+    private long currentTick;
+
+    private long nextSequenceNumber;
+
+    private List<ScheduledEntry<E>>[][] wheel;
+
+    /**
+     * Per level, a bitmap of the slots which contain at least one element.
+     */
+    private long[] occupied;
+
+    /**
+     * The elements which are too far in the future to be stored in the wheel.
+     */
+    private PriorityQueue<ScheduledEntry<E>> overflow;
+
+    /**
+     * Cached result of {@link #getNextTime()}, only valid if {@link #nextTimeKnown} is true.
+     */
+    private long nextTime;
+    private boolean nextTimeKnown;
+
+    public TimingWheelScheduler() {
+        reset();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void reset() {
+        currentTick = 0;
+        nextSequenceNumber = 0;
+        wheel = (List<ScheduledEntry<E>>[][]) new List<?>[LEVELS][SLOTS];
+        occupied = new long[LEVELS];
+        overflow = new PriorityQueue<>(ScheduledEntry.FIRING_ORDER);
+        nextTimeKnown = false;
+    }
+
+    @Override
+    public void schedule(long time, E element) {
+        if (time <= currentTick * TimeHelper.NANOS_PER_MILLI) {
+            return;
+        }
+        if (time % TimeHelper.NANOS_PER_MILLI != 0) {
+            throw new IllegalArgumentException("The time of a scheduled element has to be rounded to the millisecond.");
+        }
+        insert(new ScheduledEntry<>(time, nextSequenceNumber++, element));
+        if (nextTimeKnown && time < nextTime) {
+            nextTime = time;
+        }
+    }
+
+    private void insert(ScheduledEntry<E> entry) {
+        long tick = toTick(entry.time);
+        int level = getLevel(tick);
+        if (level >= LEVELS) {
+            overflow.add(entry);
+            return;
+        }
+        int slot = getSlot(tick, level);
+        if (wheel[level][slot] == null) {
+            wheel[level][slot] = new ArrayList<>();
+        }
+        wheel[level][slot].add(entry);
+        occupied[level] |= 1L << slot;
+    }
+
+    /**
+     * The level is the highest group of bits in which the tick differs from the current tick
+     * (0 if they are equal).
+     */
+    private int getLevel(long tick) {
+        return (63 - Long.numberOfLeadingZeros(tick ^ currentTick)) / BITS_PER_LEVEL;
+    }
+
+    private static int getSlot(long tick, int level) {
+        return (int) (tick >>> (level * BITS_PER_LEVEL)) & (SLOTS - 1);
+    }
+
+    private static long toTick(long time) {
+        return time / TimeHelper.NANOS_PER_MILLI;
+    }
+
+    private List<ScheduledEntry<E>> removeSlot(int level, int slot) {
+        var entries = wheel[level][slot];
+        if (entries == null || entries.isEmpty()) {
+            return List.of();
+        }
+        wheel[level][slot] = null;
+        occupied[level] &= ~(1L << slot);
+        return entries;
+    }
+
+    @Override
+    public OptionalLong getNextTime() {
+        if (!nextTimeKnown) {
+            nextTime = findNextTime();
+            nextTimeKnown = true;
+        }
+        return nextTime == Long.MAX_VALUE ? OptionalLong.empty() : OptionalLong.of(nextTime);
+    }
+
+    private long findNextTime() {
+        for (int level = 0; level < LEVELS; level++) {
+            // Only the slots after the one of the current tick can contain elements
+            long slots = occupied[level] & (-2L << getSlot(currentTick, level));
+            if (slots != 0) {
+                int slot = Long.numberOfTrailingZeros(slots);
+                if (level == 0) {
+                    return ((currentTick & ~(SLOTS - 1L)) | slot) * TimeHelper.NANOS_PER_MILLI;
+                }
+                return wheel[level][slot].stream()
+                    .mapToLong(e -> e.time)
+                    .min()
+                    .orElseThrow();
+            }
+        }
+        return overflow.isEmpty() ? Long.MAX_VALUE : overflow.peek().time;
+    }
+
+    @Override
+    public List<E> poll(long time) {
+        advance(toTick(time));
+        var entries = removeSlot(0, getSlot(currentTick, 0));
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        nextTimeKnown = false;
+        List<E> ret = new ArrayList<>(entries.size());
+        if (entries.size() == 1) {
+            ret.add(entries.get(0).element);
+        } else {
+            entries.sort(ScheduledEntry.FIRING_ORDER);
+            entries.forEach(e -> ret.add(e.element));
+        }
+        return ret;
+    }
+
+    /**
+     * Moves the current tick and cascades the elements in the slots of the new tick to the lower levels.
+     */
+    private void advance(long tick) {
+        if (tick <= currentTick) {
+            return;
+        }
+        int highestLevel = getLevel(tick);
+        currentTick = tick;
+        nextTimeKnown = false;
+
+        if (highestLevel >= LEVELS) {
+            while (!overflow.isEmpty() && getLevel(toTick(overflow.peek().time)) < LEVELS) {
+                insert(overflow.poll());
+            }
+            highestLevel = LEVELS - 1;
+        }
+        for (int level = highestLevel; level > 0; level--) {
+            for (var entry : removeSlot(level, getSlot(tick, level))) {
+                insert(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package iot.scheduler;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Interface for the data structure in which a {@link iot.GlobalClock} keeps its scheduled triggers.
+ * All times are expressed in nanoseconds since the start of the simulation and are rounded to the millisecond.
+ * A scheduler is serializable with its elements, as part of a snapshot of the simulation.
+ * @param <E> The type of the scheduled elements.
+ */
+public interface TriggerScheduler<E> extends Serializable {
+
+    /**
+     * Schedules an element at the given time.
+     * Elements scheduled at or before the current time of the scheduler are never returned.
+     * @param time the time at which the element is due
+     * @param element the element to schedule
+     */
+    void schedule(long time, E element);
+
+    /**
+     *
+     * @return the earliest time after the current time at which elements are scheduled, if any
+     */
+    OptionalLong getNextTime();
+
+    /**
+     * Moves the current time of the scheduler to the given time and removes the elements scheduled at that time.
+     * No elements may be scheduled between the previous current time and the given time.
+     * @param time the new current time
+     * @return the elements scheduled at the given time, the most recently scheduled first
+     */
+    List<E> poll(long time);
+
+    /**
+     * remove all the scheduled elements and set the current time to 0
+     */
+    void reset();
+}
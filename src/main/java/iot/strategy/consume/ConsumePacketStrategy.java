@@ -3,11 +3,13 @@ package iot.strategy.consume;
 import iot.lora.LoraWanPacket;
 import iot.networkentity.Mote;
 
+import java.io.Serializable;
+
 /**
  * Consumer of a {@link LoraWanPacket} received from a {@link Mote}
  */
 @FunctionalInterface
-public interface ConsumePacketStrategy {
+public interface ConsumePacketStrategy extends Serializable {
 
     /**
      *
@@ -4,12 +4,13 @@ import iot.Environment;
 import iot.lora.LoraWanPacket;
 import iot.networkentity.Gateway;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 /**
  * Strategy to define with which packet a {@link Gateway} has to reply to a {@link iot.networkentity.Mote}
  */
-public interface ResponseStrategy {
+public interface ResponseStrategy extends Serializable {
 
     /**
      * initialize the strategy
@@ -2,12 +2,13 @@ package iot.strategy.store;
 
 import iot.lora.LoraWanPacket;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 /**
  * Strategy to define how manage the packet received from a {@link iot.networkentity.Mote}
  */
-public interface ReceivedPacketStrategy {
+public interface ReceivedPacketStrategy extends Serializable {
 
     /**
      * manage the new received packet
@@ -1,8 +1,12 @@
 package selfadaptation.adaptationgoals;
 
+import java.io.Serializable;
+
 /**
  * An abstract class representing an adaptation goal.
  */
-public abstract class AdaptationGoal {
+public abstract class AdaptationGoal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
 }
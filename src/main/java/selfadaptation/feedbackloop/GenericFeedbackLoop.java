@@ -7,10 +7,14 @@ import iot.networkentity.Mote;
 import selfadaptation.instrumentation.MoteEffector;
 import selfadaptation.instrumentation.MoteProbe;
 
+import java.io.Serializable;
+
 /**
  * A class representing an adaptation approach for the simulation.
  */
-public abstract class GenericFeedbackLoop {
+public abstract class GenericFeedbackLoop implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * A string representing the name of the approach.
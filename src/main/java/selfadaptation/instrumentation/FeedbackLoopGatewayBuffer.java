@@ -8,12 +8,16 @@ import util.ListHelper;
 import util.Pair;
 import util.Statistics;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-public class FeedbackLoopGatewayBuffer {
+public class FeedbackLoopGatewayBuffer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private Map<Mote, List<List<Pair<Gateway, LoraTransmission>>>> gatewayBuffer;
 
     public FeedbackLoopGatewayBuffer() {
@@ -23,7 +27,9 @@ public class FeedbackLoopGatewayBuffer {
     public void add(Mote mote, Gateway gateway) {
         // FIXME this needs looking into, not sure how this is used in the actual simulation
         var environment = SimulationRunner.getInstance().getEnvironment();
-        var transmissions = Statistics.getInstance().getReceivedTransmissions(gateway.getEUI(), environment.getNumberOfRuns() - 1);
+        var transmission = Statistics.getInstance()
+            .getLastReceivedTransmission(gateway.getEUI(), environment.getNumberOfRuns() - 1)
+            .orElseThrow();
 
         if (gatewayBuffer.containsKey(mote)) {
             boolean contains = false;
@@ -37,11 +43,11 @@ public class FeedbackLoopGatewayBuffer {
                 gatewayBuffer.get(mote).add(new LinkedList<>());
             }
 
-            ListHelper.getLast(gatewayBuffer.get(mote)).add(new Pair<>(gateway, ListHelper.getLast(transmissions)));
+            ListHelper.getLast(gatewayBuffer.get(mote)).add(new Pair<>(gateway, transmission));
         } else {
             List<Pair<Gateway, LoraTransmission>> buffer = new LinkedList<>();
 
-            buffer.add(new Pair<>(gateway, ListHelper.getLast(transmissions)));
+            buffer.add(new Pair<>(gateway, transmission));
 
             List<List<Pair<Gateway, LoraTransmission>>> buffers = new LinkedList<>();
             buffers.add(buffer);
@@ -8,12 +8,15 @@ import org.jxmapviewer.viewer.GeoPosition;
 import util.GraphStructure;
 import util.Path;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * A class to allow self-adaptation software to edit mote settings.
  */
-public class MoteEffector {
+public class MoteEffector implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * Constructs a MoteEffector.
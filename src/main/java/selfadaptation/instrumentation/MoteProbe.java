@@ -9,6 +9,7 @@ import selfadaptation.feedbackloop.GenericFeedbackLoop;
 import util.Connection;
 import util.Path;
 
+import java.io.Serializable;
 import java.sql.Time;
 import java.util.HashMap;
 import java.util.List;
@@ -17,7 +18,10 @@ import java.util.Map;
 /**
  * A class representing methods for probing.
  */
-public class MoteProbe {
+public class MoteProbe implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     /**
      * A list with feedBackLoops using the probe.
      */
@@ -61,9 +65,8 @@ public class MoteProbe {
      * @param devEUI
      */
     public void trigger(Gateway gateway, long devEUI) {
-        SimulationRunner.getInstance().getEnvironment().getMotes().stream()
-            .filter(m -> m.getEUI() == devEUI && getGenericFeedbackLoop().isActive())
-            .reduce((a, b) -> b)
+        SimulationRunner.getInstance().getEnvironment().getNetworkEntityRegistry().getMote(devEUI)
+            .filter(m -> getGenericFeedbackLoop().isActive())
             .ifPresent(m -> getGenericFeedbackLoop().adapt(m, gateway));
     }
 
@@ -0,0 +1,256 @@
+package util;
+
+import iot.lora.Channel;
+import iot.lora.LoraTransmission;
+import iot.lora.LoraWanPacket;
+import iot.lora.RegionalParameter;
+
+import java.io.Serializable;
+import java.util.LinkedList;
+import java.util.Optional;
+
+/**
+ * The aggregates of the statistics of a network entity in one run, which are updated for every transmission it sends
+ * or receives (see {@link Statistics}) and read in constant time, also when the transmissions themselves are not kept.
+ */
+public class AggregatedStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The range of spreading factors of the histogram of the spreading factors.
+     */
+    private static final int LOWEST_SPREADING_FACTOR = 7;
+    private static final int HIGHEST_SPREADING_FACTOR = 12;
+
+    // As sender
+    private long sentPackets = 0;
+    private long deliveredPackets = 0;
+    private long receptionsAtGateways = 0;
+    private long collisionsAtGateways = 0;
+    private double usedEnergy = 0.0;
+    private final RunningStatistic powerSettings = new RunningStatistic();
+    private final Histogram spreadingFactors = new Histogram(LOWEST_SPREADING_FACTOR, HIGHEST_SPREADING_FACTOR);
+    private int lastPowerSetting = 0;
+    private long lastDeliveredDepartureTime = Long.MIN_VALUE;
+
+    // As receiver
+    private long receivedPackets = 0;
+    private long collidedPackets = 0;
+    private final RunningStatistic receivedPower = new RunningStatistic();
+
+    // The fields of the last transmission received without collision, so that the transmission and its packet are not
+    // kept alive. Of the packet only the EUIs and the length of the payload are kept, like in a TransmissionTable.
+    private boolean hasReceivedTransmission = false;
+    private long lastDepartureTime;
+    private long lastSender;
+    private long lastReceiver;
+    private double lastTransmissionPower;
+    private double lastTimeOnAir;
+    private int lastXPos;
+    private int lastYPos;
+    private long lastPacketSender;
+    private long lastPacketReceiver;
+    private int lastPayloadLength;
+    private RegionalParameter lastRegionalParameter;
+    private Channel lastChannel;
+    private boolean lastArrived;
+
+    void addPowerSetting(int powerSetting) {
+        powerSettings.add(powerSetting);
+        lastPowerSetting = powerSetting;
+    }
+
+    /**
+     * @return The last added power setting, with which the next transmission is sent.
+     */
+    int getLastPowerSetting() {
+        return lastPowerSetting;
+    }
+
+    void addSpreadingFactor(int spreadingFactor) {
+        spreadingFactors.add(spreadingFactor);
+    }
+
+    /**
+     * Adds a sent transmission, which is sent with the last added power setting.
+     */
+    void addSentTransmission(LoraTransmission transmission) {
+        sentPackets++;
+        usedEnergy += Math.pow(10, ((double) lastPowerSetting) / 10) * transmission.getTimeOnAir() / 1000;
+    }
+
+    /**
+     * Adds a transmission of this entity which is received by a gateway.
+     */
+    void addReceptionAtGateway(LoraTransmission transmission) {
+        receptionsAtGateways++;
+        if (transmission.isCollided()) {
+            collisionsAtGateways++;
+        } else if (transmission.getDepartureTime() != lastDeliveredDepartureTime) {
+            // The gateways which receive the same packet do so at the same time, before the next packet of this entity
+            deliveredPackets++;
+            lastDeliveredDepartureTime = transmission.getDepartureTime();
+        }
+    }
+
+    /**
+     * Adds a transmission received by this entity.
+     */
+    void addReceivedTransmission(LoraTransmission transmission) {
+        receivedPackets++;
+        if (transmission.isCollided()) {
+            collidedPackets++;
+        } else {
+            receivedPower.add(transmission.getTransmissionPower());
+            setLastReceivedTransmission(transmission);
+        }
+    }
+
+    private void setLastReceivedTransmission(LoraTransmission transmission) {
+        var content = transmission.getContent();
+        hasReceivedTransmission = true;
+        lastDepartureTime = transmission.getDepartureTime();
+        lastSender = transmission.getSender();
+        lastReceiver = transmission.getReceiver();
+        lastTransmissionPower = transmission.getTransmissionPower();
+        lastTimeOnAir = transmission.getTimeOnAir();
+        lastXPos = transmission.getXPos();
+        lastYPos = transmission.getYPos();
+        lastPacketSender = content.getSenderEUI();
+        lastPacketReceiver = content.getReceiverEUI();
+        lastPayloadLength = content.getPayload().length;
+        lastRegionalParameter = transmission.getRegionalParameter();
+        lastChannel = transmission.getChannel();
+        lastArrived = transmission.isArrived();
+    }
+
+    private LoraTransmission createLastReceivedTransmission() {
+        var content = new LoraWanPacket(lastPacketSender, lastPacketReceiver, new byte[lastPayloadLength],
+            new LinkedList<>());
+        var transmission = new LoraTransmission(lastSender, lastReceiver, new Pair<>(lastXPos, lastYPos),
+            lastTransmissionPower, lastRegionalParameter, lastChannel, lastTimeOnAir, lastDepartureTime, content);
+        if (lastArrived) {
+            transmission.setArrived();
+        }
+        return transmission;
+    }
+
+    /**
+     * Adds the aggregates of another run, e.g. executed in another {@link iot.SimulationContext}.
+     */
+    void merge(AggregatedStatistics other) {
+        sentPackets += other.sentPackets;
+        deliveredPackets += other.deliveredPackets;
+        receptionsAtGateways += other.receptionsAtGateways;
+        collisionsAtGateways += other.collisionsAtGateways;
+        usedEnergy += other.usedEnergy;
+        powerSettings.merge(other.powerSettings);
+        spreadingFactors.merge(other.spreadingFactors);
+        if (other.powerSettings.getCount() > 0) {
+            lastPowerSetting = other.lastPowerSetting;
+        }
+        lastDeliveredDepartureTime = other.lastDeliveredDepartureTime;
+
+        receivedPackets += other.receivedPackets;
+        collidedPackets += other.collidedPackets;
+        receivedPower.merge(other.receivedPower);
+        if (other.hasReceivedTransmission) {
+            setLastReceivedTransmission(other.createLastReceivedTransmission());
+        }
+    }
+
+    /**
+     * @return The number of transmissions sent by this entity.
+     */
+    public long getSentPackets() {
+        return sentPackets;
+    }
+
+    /**
+     * @return The number of transmissions of this entity which are received by at least one gateway without collision.
+     */
+    public long getDeliveredPackets() {
+        return deliveredPackets;
+    }
+
+    /**
+     * @return The fraction of the transmissions of this entity which are delivered, {@link Double#NaN} if it sent none.
+     */
+    public double getPacketDeliveryRatio() {
+        return sentPackets == 0 ? Double.NaN : (double) deliveredPackets / sentPackets;
+    }
+
+    /**
+     * @return The number of times a transmission of this entity is received by a gateway, collided or not.
+     */
+    public long getReceptionsAtGateways() {
+        return receptionsAtGateways;
+    }
+
+    /**
+     * @return The number of times a transmission of this entity collided at a gateway.
+     */
+    public long getCollisionsAtGateways() {
+        return collisionsAtGateways;
+    }
+
+    /**
+     * @return The energy used for the transmissions of this entity.
+     */
+    public double getUsedEnergy() {
+        return usedEnergy;
+    }
+
+    /**
+     * @return The statistic of the power settings of the transmissions of this entity.
+     */
+    public RunningStatistic getPowerSettings() {
+        return powerSettings;
+    }
+
+    /**
+     * @return The histogram of the spreading factors of the transmissions of this entity.
+     */
+    public Histogram getSpreadingFactors() {
+        return spreadingFactors;
+    }
+
+    /**
+     * @return The number of transmissions received by this entity, collided or not.
+     */
+    public long getReceivedPackets() {
+        return receivedPackets;
+    }
+
+    /**
+     * @return The number of transmissions received by this entity which collided.
+     */
+    public long getCollidedPackets() {
+        return collidedPackets;
+    }
+
+    /**
+     * @return The fraction of the transmissions received by this entity which collided,
+     *         {@link Double#NaN} if it received none.
+     */
+    public double getCollisionRate() {
+        return receivedPackets == 0 ? Double.NaN : (double) collidedPackets / receivedPackets;
+    }
+
+    /**
+     * @return The statistic of the received power (RSSI) of the transmissions received by this entity without collision.
+     */
+    public RunningStatistic getReceivedPower() {
+        return receivedPower;
+    }
+
+    /**
+     * Returns the last transmission received by this entity without collision, as a new transmission with the same
+     * fields of which the packet has an empty payload (like the transmissions of a {@link TransmissionTable}).
+     * @return The last transmission received by this entity without collision, if any.
+     */
+    public Optional<LoraTransmission> getLastReceivedTransmission() {
+        return hasReceivedTransmission ? Optional.of(createLastReceivedTransmission()) : Optional.empty();
+    }
+}
@@ -0,0 +1,224 @@
+package util;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * A table of entries of a network entity in one run, of which the fields are stored in columns of primitive arrays.
+ * <p>
+ * The table keeps at most a maximum number of rows: when it is full, a new row replaces the oldest row (ring buffer).
+ * The columns grow up to the maximum number of rows, so a table with a maximum never takes more memory than
+ * the maximum number of rows. When the run is finished the table is sealed: its columns are trimmed to its size
+ * and it can no longer change.
+ */
+abstract class ColumnTable implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int maximumSize;
+
+    private int size = 0;
+    private int capacity = 0;
+    private boolean sealed = false;
+
+    /**
+     * The column index of the oldest row.
+     */
+    private int start = 0;
+
+    /**
+     * The number of rows which are replaced by newer rows.
+     */
+    private long dropped = 0;
+
+    /**
+     * @param maximumSize The maximum number of rows kept by the table.
+     */
+    ColumnTable(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("A table keeps at least one row: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return The number of rows in this table.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return True if this table is sealed.
+     */
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Seals this table, after which it can no longer change, and trims its columns to its size.
+     */
+    void seal() {
+        if (sealed) {
+            return;
+        }
+        resize(size);
+        sealed = true;
+    }
+
+    /**
+     * Changes the maximum number of rows kept by this table. If the table has more rows, the oldest rows are dropped
+     * (as if they are replaced by newer rows) and the columns are trimmed to the new maximum.
+     * A sealed table keeps its rows unless there are more than the new maximum.
+     * @param maximumSize The maximum number of rows kept by the table.
+     */
+    void setMaximumSize(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("A table keeps at least one row: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        if (size > maximumSize) {
+            int excess = size - maximumSize;
+            start = (start + excess) % capacity;
+            size = maximumSize;
+            dropped += excess;
+            resize(maximumSize);
+        }
+    }
+
+    /**
+     * Adds a row, which replaces the oldest row if the table is full.
+     * @return The column index of the new row.
+     * @throws IllegalStateException if this table is sealed.
+     */
+    int addRow() {
+        if (sealed) {
+            throw new IllegalStateException("Entries cannot be added to a sealed run");
+        }
+        if (size == maximumSize) {
+            int index = start;
+            start = (start + 1) % capacity;
+            dropped++;
+            return index;
+        }
+        if (size == capacity) {
+            resize((int) Math.min(maximumSize, Math.max(INITIAL_CAPACITY, 2L * size)));
+        }
+        return size++;
+    }
+
+    /**
+     * @param row A row of this table, where 0 is the oldest row.
+     * @return The column index of the row.
+     */
+    int getIndex(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return (start + row) % capacity;
+    }
+
+    /**
+     * @return The sequence number of the last added row, which identifies the row as long as it is kept.
+     */
+    long getLastSequenceNumber() {
+        return dropped + size - 1;
+    }
+
+    /**
+     * @param sequenceNumber The sequence number of a row.
+     * @return The column index of the row, or -1 if the row is replaced by a newer row.
+     */
+    int getIndexOfSequenceNumber(long sequenceNumber) {
+        long row = sequenceNumber - dropped;
+        return row < 0 ? -1 : getIndex((int) row);
+    }
+
+    /**
+     * Returns a view of the rows of this table which are in the table when the view is created.
+     * Accessing a row of the view which is replaced since then throws a {@link ConcurrentModificationException}.
+     * @param getter The function which creates an element from the column index of a row.
+     * @return The view.
+     */
+    <E> List<E> getView(IntFunction<E> getter) {
+        return new RowView<>(getter, null, size);
+    }
+
+    /**
+     * Returns a view of some rows of this table, like {@link ColumnTable#getView(IntFunction)}.
+     * @param getter The function which creates an element from the column index of a row.
+     * @param rows The rows of the view, where 0 is the oldest row when the view is created.
+     * @return The view.
+     */
+    <E> List<E> getView(IntFunction<E> getter, int[] rows) {
+        return new RowView<>(getter, rows, rows.length);
+    }
+
+    /**
+     * Resizes every column of the table with {@link ColumnTable#copyColumn(Object, int)}.
+     * @param capacity The new number of rows of the columns.
+     */
+    abstract void resizeColumns(int capacity);
+
+    /**
+     * Copies the rows of a column in order, from the oldest to the newest.
+     * @param column The column.
+     * @param capacity The number of rows of the copy.
+     * @return The copy of the column.
+     */
+    <A> A copyColumn(A column, int capacity) {
+        @SuppressWarnings("unchecked")
+        A copy = (A) Array.newInstance(column.getClass().getComponentType(), capacity);
+        int length = Array.getLength(column);
+        int first = Math.min(size, length - start);
+        System.arraycopy(column, start, copy, 0, first);
+        System.arraycopy(column, 0, copy, first, size - first);
+        return copy;
+    }
+
+    private void resize(int capacity) {
+        resizeColumns(capacity);
+        this.capacity = capacity;
+        start = 0;
+    }
+
+    /**
+     * A view of rows of the table: the rows of the table, or the given rows.
+     */
+    private class RowView<E> extends AbstractList<E> implements RandomAccess {
+        private final IntFunction<E> getter;
+        private final int[] rows;
+        private final int size;
+        private final long firstSequenceNumber = dropped;
+
+        RowView(IntFunction<E> getter, int[] rows, int size) {
+            this.getter = getter;
+            this.rows = rows;
+            this.size = size;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            int columnIndex = getIndexOfSequenceNumber(firstSequenceNumber + (rows == null ? index : rows[index]));
+            if (columnIndex == -1) {
+                throw new ConcurrentModificationException("The row is replaced by a newer row");
+            }
+            return getter.apply(columnIndex);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package util;
 
-public class Connection {
+import java.io.Serializable;
+
+public class Connection implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private long from;
     private long to;
 
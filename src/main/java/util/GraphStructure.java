@@ -3,10 +3,14 @@ package util;
 import iot.Environment;
 import org.jxmapviewer.viewer.GeoPosition;
 
+import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class GraphStructure {
+public class GraphStructure implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private Map<Long, GeoPosition> wayPoints;
     private Map<Long, Connection> connections;
 
@@ -0,0 +1,86 @@
+package util;
+
+import java.io.Serializable;
+
+/**
+ * A histogram of integer values with a bucket for every value in a fixed range.
+ * Values outside the range are counted in the bucket of the nearest end of the range.
+ */
+public class Histogram implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int lowest;
+    private final long[] counts;
+
+    /**
+     * A constructor creating an empty histogram of the values from {@code lowest} to {@code highest}.
+     * @param lowest The lowest value with its own bucket.
+     * @param highest The highest value with its own bucket.
+     */
+    public Histogram(int lowest, int highest) {
+        if (highest < lowest) {
+            throw new IllegalArgumentException("Invalid range of the histogram: " + lowest + " to " + highest);
+        }
+        this.lowest = lowest;
+        this.counts = new long[highest - lowest + 1];
+    }
+
+    /**
+     * Counts a value.
+     * @param value The value.
+     */
+    public void add(int value) {
+        counts[getBucket(value)]++;
+    }
+
+    /**
+     * Adds the counts of another histogram with the same range.
+     * @param other The other histogram.
+     */
+    public void merge(Histogram other) {
+        if (other.lowest != lowest || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Histograms with a different range cannot be merged");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * @param value A value.
+     * @return The number of values counted in the bucket of the value.
+     */
+    public long getCount(int value) {
+        return counts[getBucket(value)];
+    }
+
+    /**
+     * @return The number of values counted in all buckets.
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return The lowest value with its own bucket.
+     */
+    public int getLowest() {
+        return lowest;
+    }
+
+    /**
+     * @return The highest value with its own bucket.
+     */
+    public int getHighest() {
+        return lowest + counts.length - 1;
+    }
+
+    private int getBucket(int value) {
+        return Math.min(Math.max(value - lowest, 0), counts.length - 1);
+    }
+}
@@ -2,7 +2,12 @@ package util;
 
 import org.jxmapviewer.viewer.GeoPosition;
 
-public class MapHelper {
+import java.io.Serializable;
+
+public class MapHelper implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private GeoPosition origin;
 
     public MapHelper(GeoPosition origin) {
@@ -1,10 +1,15 @@
 package util;
 
+import java.io.Serializable;
+
 
 /**
  * Class used to store an Integer object that is mutable after creation.
  */
-public class MutableInteger {
+public class MutableInteger implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private int value;
 
     public MutableInteger(int value) {
@@ -3,13 +3,17 @@ package util;
 import org.jetbrains.annotations.NotNull;
 import org.jxmapviewer.viewer.GeoPosition;
 
+import java.io.Serializable;
 import java.util.*;
 
 
 /**
  * Class which represents a path of a mote.
  */
-public class Path implements Iterable<GeoPosition> {
+public class Path implements Iterable<GeoPosition>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     // A list with waypoints of the path
     private List<GeoPosition> points;
 
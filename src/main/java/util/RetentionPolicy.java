@@ -0,0 +1,149 @@
+package util;
+
+import java.io.Serializable;
+
+/**
+ * The policy which determines which entries of the {@link Statistics} are kept as traces: the transmissions and the
+ * power settings and spreading factors of the transmissions. The aggregates of the entries (see
+ * {@link AggregatedStatistics}) are always kept, for every run and whatever the policy, and take about 400 bytes per
+ * network entity per run.
+ * <p>
+ * A policy keeps
+ * <ul>
+ *     <li>the traces of the last runs only, where the current run is the last run;</li>
+ *     <li>the last transmissions of every network entity in a run only (ring buffer);</li>
+ *     <li>every n-th transmission of every network entity only (sampling).</li>
+ * </ul>
+ * The traces of a network entity take at most {@link RetentionPolicy#getMemoryCeilingPerEntity()} bytes, if both the
+ * number of runs and the number of transmissions are bounded. The aggregates are not part of this ceiling:
+ * they grow with the number of runs.
+ */
+public final class RetentionPolicy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The value of a setting without a bound.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * The number of bytes of a sent transmission (with the power setting it is sent with), its power setting entry
+     * and spreading factor, and of a received transmission.
+     */
+    private static final long BYTES_PER_TRANSMISSION = 2L * TransmissionTable.BYTES_PER_ROW + 4 + 8 + 1;
+
+    /**
+     * The policy which keeps all traces (the default).
+     */
+    public static final RetentionPolicy ALL = new RetentionPolicy(UNBOUNDED, UNBOUNDED, 1);
+
+    /**
+     * The policy which keeps no traces, only the aggregates.
+     */
+    public static final RetentionPolicy AGGREGATES_ONLY = new RetentionPolicy(0, UNBOUNDED, 1);
+
+    private final int numberOfRuns;
+    private final int transmissionsPerRun;
+    private final int samplingInterval;
+
+    /**
+     * A constructor creating a retention policy.
+     * @param numberOfRuns The number of (last) runs of which the traces are kept, 0 to keep no traces at all.
+     * @param transmissionsPerRun The number of (last) transmissions of a network entity kept in a run.
+     * @param samplingInterval The interval between the kept transmissions of a network entity, 1 to keep all.
+     */
+    public RetentionPolicy(int numberOfRuns, int transmissionsPerRun, int samplingInterval) {
+        if (numberOfRuns < 0) {
+            throw new IllegalArgumentException("Invalid number of runs: " + numberOfRuns);
+        }
+        if (transmissionsPerRun < 1) {
+            throw new IllegalArgumentException("Invalid number of transmissions per run: " + transmissionsPerRun);
+        }
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("Invalid sampling interval: " + samplingInterval);
+        }
+        this.numberOfRuns = numberOfRuns;
+        this.transmissionsPerRun = transmissionsPerRun;
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * @param numberOfRuns The number of (last) runs of which the traces are kept.
+     * @return The policy which keeps all traces of the last runs.
+     */
+    public static RetentionPolicy lastRuns(int numberOfRuns) {
+        return new RetentionPolicy(numberOfRuns, UNBOUNDED, 1);
+    }
+
+    /**
+     * @param transmissionsPerRun The number of (last) transmissions of a network entity kept in a run.
+     * @return The policy which keeps the last transmissions of every network entity in every run.
+     */
+    public static RetentionPolicy lastTransmissions(int transmissionsPerRun) {
+        return new RetentionPolicy(UNBOUNDED, transmissionsPerRun, 1);
+    }
+
+    /**
+     * @param samplingInterval The interval between the kept transmissions of a network entity.
+     * @return The policy which keeps every n-th transmission of every network entity.
+     */
+    public static RetentionPolicy sampling(int samplingInterval) {
+        return new RetentionPolicy(UNBOUNDED, UNBOUNDED, samplingInterval);
+    }
+
+    /**
+     * @return The number of (last) runs of which the traces are kept.
+     */
+    public int getNumberOfRuns() {
+        return numberOfRuns;
+    }
+
+    /**
+     * @return The number of (last) transmissions of a network entity kept in a run.
+     */
+    public int getTransmissionsPerRun() {
+        return transmissionsPerRun;
+    }
+
+    /**
+     * @return The interval between the kept transmissions of a network entity.
+     */
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * @return True if traces are kept, and not only the aggregates.
+     */
+    public boolean isRecordingTraces() {
+        return numberOfRuns > 0;
+    }
+
+    /**
+     * @param count The number of entries of a kind which a network entity has in the current run, including this one.
+     * @return True if the entry is kept.
+     */
+    boolean isSampled(long count) {
+        return (count - 1) % samplingInterval == 0;
+    }
+
+    /**
+     * Returns the maximum number of bytes of the columns of the traces of a network entity: for every kept
+     * transmission {@value TransmissionTable#BYTES_PER_ROW} bytes and 4 bytes for its power setting as sent
+     * transmission, {@value TransmissionTable#BYTES_PER_ROW} bytes as received transmission and 9 bytes for its power
+     * setting entry and spreading factor. The dictionaries and objects of the
+     * tables add less than a kilobyte per run. The aggregates, which are kept for every run, are not included.
+     * @return The maximum number of bytes of the traces of a network entity,
+     *         or {@link Long#MAX_VALUE} if the number of runs or transmissions is unbounded.
+     */
+    public long getMemoryCeilingPerEntity() {
+        if (!isRecordingTraces()) {
+            return 0;
+        }
+        if (numberOfRuns == UNBOUNDED || transmissionsPerRun == UNBOUNDED) {
+            return Long.MAX_VALUE;
+        }
+        return numberOfRuns * (transmissionsPerRun * BYTES_PER_TRANSMISSION);
+    }
+}
@@ -0,0 +1,91 @@
+package util;
+
+import java.io.Serializable;
+
+/**
+ * The count, mean, variance, minimum and maximum of a stream of values, updated for every value
+ * (Welford's algorithm) so that the values themselves are not kept.
+ */
+public class RunningStatistic implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long count = 0;
+    private double mean = 0.0;
+    // The sum of the squared differences from the mean
+    private double sumOfSquares = 0.0;
+    private double minimum = Double.POSITIVE_INFINITY;
+    private double maximum = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a value.
+     * @param value The value to add.
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (value - mean);
+        minimum = Math.min(minimum, value);
+        maximum = Math.max(maximum, value);
+    }
+
+    /**
+     * Adds all values of another statistic, as if they were added to this statistic one by one.
+     * @param other The other statistic.
+     */
+    public void merge(RunningStatistic other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        sumOfSquares += other.sumOfSquares + delta * delta * count * other.count / total;
+        count = total;
+        minimum = Math.min(minimum, other.minimum);
+        maximum = Math.max(maximum, other.maximum);
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The mean of the values, {@link Double#NaN} if there are none.
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return The (sample) variance of the values, {@link Double#NaN} if there are less than two.
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : sumOfSquares / (count - 1);
+    }
+
+    /**
+     * @return The standard deviation of the values, {@link Double#NaN} if there are less than two.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return The smallest value, {@link Double#NaN} if there are none.
+     */
+    public double getMinimum() {
+        return count == 0 ? Double.NaN : minimum;
+    }
+
+    /**
+     * @return The largest value, {@link Double#NaN} if there are none.
+     */
+    public double getMaximum() {
+        return count == 0 ? Double.NaN : maximum;
+    }
+}
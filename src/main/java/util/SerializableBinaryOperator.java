@@ -0,0 +1,12 @@
+package util;
+
+import java.io.Serializable;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@link BinaryOperator} of which the lambdas are serializable, so that they can be part of a snapshot of a
+ * simulation (see {@link iot.SimulationContext#snapshot()}).
+ */
+@FunctionalInterface
+public interface SerializableBinaryOperator<T> extends BinaryOperator<T>, Serializable {
+}
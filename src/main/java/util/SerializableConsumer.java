@@ -0,0 +1,12 @@
+package util;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Consumer} of which the lambdas are serializable, so that they can be part of a snapshot of a simulation
+ * (see {@link iot.SimulationContext#snapshot()}).
+ */
+@FunctionalInterface
+public interface SerializableConsumer<T> extends Consumer<T>, Serializable {
+}
@@ -0,0 +1,12 @@
+package util;
+
+import java.io.Serializable;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Predicate} of which the lambdas are serializable, so that they can be part of a snapshot of a simulation
+ * (see {@link iot.SimulationContext#snapshot()}).
+ */
+@FunctionalInterface
+public interface SerializablePredicate<T> extends Predicate<T>, Serializable {
+}
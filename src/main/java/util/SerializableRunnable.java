@@ -0,0 +1,11 @@
+package util;
+
+import java.io.Serializable;
+
+/**
+ * A {@link Runnable} of which the lambdas are serializable, so that they can be part of a snapshot of a simulation
+ * (see {@link iot.SimulationContext#snapshot()}).
+ */
+@FunctionalInterface
+public interface SerializableRunnable extends Runnable, Serializable {
+}
@@ -0,0 +1,12 @@
+package util;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Supplier} of which the lambdas are serializable, so that they can be part of a snapshot of a simulation
+ * (see {@link iot.SimulationContext#snapshot()}).
+ */
+@FunctionalInterface
+public interface SerializableSupplier<T> extends Supplier<T>, Serializable {
+}
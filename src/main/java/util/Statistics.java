@@ -1,45 +1,128 @@
 package util;
 
+import iot.SimulationContext;
 import iot.lora.LoraTransmission;
+import iot.networkentity.Gateway;
 import iot.networkentity.NetworkEntity;
 
+import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
-
-public class Statistics {
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The statistics of the simulation: the transmissions sent and received by every network entity and the power setting
+ * and spreading factor of every sent transmission, for every run.
+ * <p>
+ * The entries are stored per network entity and per run in columns of primitive arrays (see {@link TransmissionTable}),
+ * so the entries of a run are found without going over the other runs. The getters of a run return views which create
+ * the transmissions and values from these columns when they are accessed. When a run is finished (see
+ * {@link Statistics#addRun()}) its entries are sealed: they are trimmed to their size and can no longer change.
+ * <p>
+ * The transmissions returned by the getters are new transmissions created from the columns, not the transmissions
+ * which were added. Of their packets only the EUIs and the length of the payload are kept (see
+ * {@link TransmissionTable}), so they are not equal (see {@link LoraTransmission#equals(Object)}) to the added
+ * transmissions if those have a payload, MAC commands or a frame header, and a new transmission is created every time
+ * an element is accessed.
+ * <p>
+ * Besides these traces, the statistics keep the aggregates of every network entity in every run (see
+ * {@link AggregatedStatistics}), which are updated for every entry. Which traces are kept is determined by a
+ * {@link RetentionPolicy}, so that long runs of which only the aggregates or the last transmissions are needed
+ * take a bounded amount of memory.
+ */
+public class Statistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static Statistics instance = new Statistics();
 
     private int runNumber = 0;
 
-    // A list representing the power setting of every transmission.
-    private final Map<Long, List<PowerSettingDataPoint>> powerSettingHistory;
+    // The entries which are kept, besides their aggregates.
+    private RetentionPolicy retentionPolicy = RetentionPolicy.ALL;
+
+    // The aggregates of the entries, by entity and by run.
+    private final Map<Long, List<AggregatedStatistics>> aggregatedStatistics;
+
+    // The power setting of every transmission, by entity and by run.
+    private final Map<Long, List<PowerSettingTable>> powerSettingHistory;
+
+    // The spreading factor of every transmission, by entity and by run.
+    private final Map<Long, List<SpreadingFactorTable>> spreadingFactorHistory;
 
-    // A list representing the spreading factor of every transmission.
-    private final Map<Long, List<SpreadingFactorDataPoint>> spreadingFactorHistory;
+    // The transmissions received by the entity and if they collided with an other packet, by run.
+    private final Map<Long, List<TransmissionTable>> receivedTransmissions;
 
-    // A map with the transmissions received by the entity and if they collided with an other packet.
-    // TODO make sure the order is also preserved when streaming the results and filtering on runNumbers
-    private final Map<Long, LinkedHashSet<LoraTransmissionDataPoint>> receivedTransmissions;
+    // The transmissions transmitted by the entity and the power setting with which they are sent, by run.
+    private final Map<Long, List<SentTransmissionTable>> sentTransmissions;
 
-    // A list with the transmissions transmitted by the entity
-    private final Map<Long, List<LoraTransmissionDataPoint>> sentTransmissions;
+    // The sequence numbers of the sent transmissions which did not arrive yet, of which the flags can still change.
+    private final Map<LoraTransmission, Long> sentTransmissionsInTheAir;
 
     private Statistics() {
         powerSettingHistory = new HashMap<>();
         spreadingFactorHistory = new HashMap<>();
         receivedTransmissions = new HashMap<>();
         sentTransmissions = new HashMap<>();
+        sentTransmissionsInTheAir = new IdentityHashMap<>();
+        aggregatedStatistics = new HashMap<>();
     }
 
     public static Statistics getInstance() {
-        return instance;
+        return SimulationContext.getSingleton(Statistics.class, Statistics::new).orElse(instance);
+    }
+
+    /**
+     * Sets which entries are kept, besides their aggregates. The sampling interval applies from the next entry on and
+     * the number of runs from the next run on. The number of transmissions per run applies to the entries which are
+     * already kept as well: of every network entity in every run only the last entries are kept.
+     * Without traces, the getters of the entries of a run return empty lists, from the current run on.
+     * @param retentionPolicy The retention policy.
+     */
+    public void setRetentionPolicy(RetentionPolicy retentionPolicy) {
+        if (retentionPolicy.getTransmissionsPerRun() != this.retentionPolicy.getTransmissionsPerRun()) {
+            int maximumSize = retentionPolicy.getTransmissionsPerRun();
+            setMaximumSize(powerSettingHistory, maximumSize);
+            setMaximumSize(spreadingFactorHistory, maximumSize);
+            setMaximumSize(receivedTransmissions, maximumSize);
+            setMaximumSize(sentTransmissions, maximumSize);
+        }
+        this.retentionPolicy = retentionPolicy;
+        if (!retentionPolicy.isRecordingTraces()) {
+            sentTransmissionsInTheAir.clear();
+        }
+    }
+
+    /**
+     * @return The retention policy which determines which entries are kept, besides their aggregates.
+     */
+    public RetentionPolicy getRetentionPolicy() {
+        return retentionPolicy;
+    }
+
+    /**
+     * Sets whether all entries are kept (the default), or only their aggregates
+     * (see {@link Statistics#setRetentionPolicy(RetentionPolicy)}).
+     * @param recordingTraces True if the entries are kept.
+     */
+    public void setRecordingTraces(boolean recordingTraces) {
+        setRetentionPolicy(recordingTraces ? RetentionPolicy.ALL : RetentionPolicy.AGGREGATES_ONLY);
+    }
+
+    /**
+     * @return True if the entries themselves are kept, and not only their aggregates.
+     */
+    public boolean isRecordingTraces() {
+        return retentionPolicy.isRecordingTraces();
     }
 
     public void addPowerSettingEntry(long networkEntity, int timeInSeconds, int powerSetting) {
-        initIfAbsent(powerSettingHistory, networkEntity);
-        var lists = powerSettingHistory.get(networkEntity);
-        lists.add(new PowerSettingDataPoint(this.runNumber, timeInSeconds, powerSetting));
+        var aggregates = getCurrentRun(aggregatedStatistics, networkEntity, AggregatedStatistics::new);
+        aggregates.addPowerSetting(powerSetting);
+        if (isRecordingTraces() && retentionPolicy.isSampled(aggregates.getPowerSettings().getCount())) {
+            getCurrentRun(powerSettingHistory, networkEntity, this::createPowerSettingTable)
+                .add(timeInSeconds, powerSetting);
+        }
     }
 
     public void addSpreadingFactorEntry(NetworkEntity networkEntity, int entry) {
@@ -47,21 +130,49 @@ public class Statistics {
     }
 
     public void addSpreadingFactorEntry(long networkEntity, int entry) {
-        initIfAbsent(spreadingFactorHistory, networkEntity);
-        var lists = spreadingFactorHistory.get(networkEntity);
-        lists.add(new SpreadingFactorDataPoint(this.runNumber, entry));
+        var aggregates = getCurrentRun(aggregatedStatistics, networkEntity, AggregatedStatistics::new);
+        aggregates.addSpreadingFactor(entry);
+        if (isRecordingTraces() && retentionPolicy.isSampled(aggregates.getSpreadingFactors().getTotalCount())) {
+            getCurrentRun(spreadingFactorHistory, networkEntity, this::createSpreadingFactorTable).add(entry);
+        }
     }
 
+    /**
+     * Adds a transmission received by a network entity, which counts as delivered if the entity is a gateway.
+     * @param networkEntity The network entity which received the transmission.
+     * @param entry The received transmission.
+     */
     public void addReceivedTransmissionsEntry(NetworkEntity networkEntity, LoraTransmission entry) {
-        addReceivedTransmissionsEntry(networkEntity.getEUI(), entry);
+        addReceivedTransmissionsEntry(networkEntity.getEUI(), entry, networkEntity instanceof Gateway);
     }
 
+    /**
+     * Adds a transmission received by a network entity which is not a gateway.
+     * @param networkEntity The EUI of the network entity which received the transmission.
+     * @param entry The received transmission.
+     */
     public void addReceivedTransmissionsEntry(long networkEntity, LoraTransmission entry) {
-        if (!receivedTransmissions.containsKey(networkEntity)) {
-            receivedTransmissions.put(networkEntity, new LinkedHashSet<>());
+        addReceivedTransmissionsEntry(networkEntity, entry, false);
+    }
+
+    private void addReceivedTransmissionsEntry(long networkEntity, LoraTransmission entry, boolean atGateway) {
+        var aggregates = getCurrentRun(aggregatedStatistics, networkEntity, AggregatedStatistics::new);
+        aggregates.addReceivedTransmission(entry);
+        if (atGateway) {
+            getCurrentRun(aggregatedStatistics, entry.getSender(), AggregatedStatistics::new).addReceptionAtGateway(entry);
+        }
+        if (!isRecordingTraces()) {
+            return;
+        }
+        if (retentionPolicy.isSampled(aggregates.getReceivedPackets())) {
+            getCurrentRun(receivedTransmissions, networkEntity, this::createTransmissionTable).add(entry);
+        }
+
+        // The transmission returned by the sender is the one of its first receiver, so its flags are final now
+        var sentSequenceNumber = sentTransmissionsInTheAir.remove(entry);
+        if (sentSequenceNumber != null) {
+            getRun(sentTransmissions, entry.getSender(), runNumber).update(sentSequenceNumber, entry);
         }
-        var lists = receivedTransmissions.get(networkEntity);
-        lists.add(new LoraTransmissionDataPoint(runNumber, entry));
     }
 
     public void addSentTransmissionsEntry(NetworkEntity networkEntity, LoraTransmission entry) {
@@ -69,14 +180,91 @@ public class Statistics {
     }
 
     public void addSentTransmissionsEntry(long networkEntity, LoraTransmission entry) {
-        initIfAbsent(sentTransmissions, networkEntity);
-        var lists = sentTransmissions.get(networkEntity);
-        lists.add(new LoraTransmissionDataPoint(runNumber, entry));
+        var aggregates = getCurrentRun(aggregatedStatistics, networkEntity, AggregatedStatistics::new);
+        aggregates.addSentTransmission(entry);
+        if (!isRecordingTraces() || !retentionPolicy.isSampled(aggregates.getSentPackets())) {
+            return;
+        }
+        long sequenceNumber = getCurrentRun(sentTransmissions, networkEntity, this::createSentTransmissionTable)
+            .add(entry, aggregates.getLastPowerSetting());
+        if (!entry.isArrived() && entry.getSender() == networkEntity) {
+            sentTransmissionsInTheAir.put(entry, sequenceNumber);
+        }
     }
 
-    private <E> void initIfAbsent(Map<Long, List<E>> map, long id) {
-        if (!map.containsKey(id)) {
-            map.put(id, new LinkedList<E>());
+    private PowerSettingTable createPowerSettingTable() {
+        return new PowerSettingTable(retentionPolicy.getTransmissionsPerRun());
+    }
+
+    private SpreadingFactorTable createSpreadingFactorTable() {
+        return new SpreadingFactorTable(retentionPolicy.getTransmissionsPerRun());
+    }
+
+    private TransmissionTable createTransmissionTable() {
+        return new TransmissionTable(retentionPolicy.getTransmissionsPerRun());
+    }
+
+    private SentTransmissionTable createSentTransmissionTable() {
+        return new SentTransmissionTable(retentionPolicy.getTransmissionsPerRun());
+    }
+
+    /**
+     * Returns the entries of a network entity in the current run, which are created if there are none yet.
+     */
+    private <T> T getCurrentRun(Map<Long, List<T>> entries, long networkEntity, Supplier<T> factory) {
+        var runs = entries.computeIfAbsent(networkEntity, id -> new ArrayList<>());
+        while (runs.size() <= runNumber) {
+            // Runs without entries are null
+            runs.add(runs.size() == runNumber ? factory.get() : null);
+        }
+        var current = runs.get(runNumber);
+        if (current == null) {
+            current = factory.get();
+            runs.set(runNumber, current);
+        }
+        return current;
+    }
+
+    /**
+     * Returns the entries of a network entity in a run, or {@code null} if it has none.
+     */
+    private static <T> T getRun(Map<Long, List<T>> entries, long networkEntity, int run) {
+        var runs = entries.get(networkEntity);
+        return runs == null || run < 0 || run >= runs.size() ? null : runs.get(run);
+    }
+
+    /**
+     * Seals the entries of all network entities in a run.
+     */
+    private static <T> void sealRun(Map<Long, List<T>> entries, int run, Consumer<T> seal) {
+        for (var runs : entries.values()) {
+            if (run < runs.size() && runs.get(run) != null) {
+                seal.accept(runs.get(run));
+            }
+        }
+    }
+
+    /**
+     * Changes the maximum number of entries of all network entities in all runs.
+     */
+    private static <T extends ColumnTable> void setMaximumSize(Map<Long, List<T>> entries, int maximumSize) {
+        for (var runs : entries.values()) {
+            for (var run : runs) {
+                if (run != null) {
+                    run.setMaximumSize(maximumSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of all network entities in the runs before a run.
+     */
+    private static <T> void dropRunsBefore(Map<Long, List<T>> entries, int run) {
+        for (var runs : entries.values()) {
+            for (int i = 0; i < Math.min(run, runs.size()); i++) {
+                runs.set(i, null);
+            }
         }
     }
 
@@ -85,75 +273,319 @@ public class Statistics {
         spreadingFactorHistory.clear();
         receivedTransmissions.clear();
         sentTransmissions.clear();
+        sentTransmissionsInTheAir.clear();
+        aggregatedStatistics.clear();
 
         runNumber = 0;
     }
 
+    /**
+     * Finishes the current run, of which the entries are sealed, and starts a new run.
+     */
     public void addRun() {
+        // Transmissions which did not arrive at the end of a run never will
+        sentTransmissionsInTheAir.clear();
+        sealRun(powerSettingHistory, runNumber, PowerSettingTable::seal);
+        sealRun(spreadingFactorHistory, runNumber, SpreadingFactorTable::seal);
+        sealRun(receivedTransmissions, runNumber, TransmissionTable::seal);
+        sealRun(sentTransmissions, runNumber, TransmissionTable::seal);
         runNumber++;
+
+        if (retentionPolicy.getNumberOfRuns() != RetentionPolicy.UNBOUNDED) {
+            // The current run is one of the runs of which the traces are kept
+            int firstKeptRun = runNumber - Math.max(retentionPolicy.getNumberOfRuns() - 1, 0);
+            dropRunsBefore(powerSettingHistory, firstKeptRun);
+            dropRunsBefore(spreadingFactorHistory, firstKeptRun);
+            dropRunsBefore(receivedTransmissions, firstKeptRun);
+            dropRunsBefore(sentTransmissions, firstKeptRun);
+        }
+    }
+
+    /**
+     * Adds all the entries of other statistics to the current run of these statistics.
+     * The entries which are kept by the other statistics are not sampled again.
+     * @param other The statistics of a single run, e.g. executed in another {@link SimulationContext}.
+     */
+    public void mergeRun(Statistics other) {
+        if (isRecordingTraces()) {
+            other.powerSettingHistory.forEach((id, runs) -> runs.stream().filter(Objects::nonNull).forEach(entries ->
+                getCurrentRun(powerSettingHistory, id, this::createPowerSettingTable).addAll(entries)));
+            other.spreadingFactorHistory.forEach((id, runs) -> runs.stream().filter(Objects::nonNull).forEach(entries ->
+                getCurrentRun(spreadingFactorHistory, id, this::createSpreadingFactorTable).addAll(entries)));
+            other.receivedTransmissions.forEach((id, runs) -> runs.stream().filter(Objects::nonNull).forEach(entries ->
+                getCurrentRun(receivedTransmissions, id, this::createTransmissionTable).addAll(entries)));
+            other.sentTransmissions.forEach((id, runs) -> runs.stream().filter(Objects::nonNull).forEach(entries ->
+                getCurrentRun(sentTransmissions, id, this::createSentTransmissionTable).addAll(entries)));
+        }
+        other.aggregatedStatistics.forEach((id, runs) -> runs.stream().filter(Objects::nonNull).forEach(aggregates ->
+            getCurrentRun(aggregatedStatistics, id, AggregatedStatistics::new).merge(aggregates)));
+    }
+
+    /**
+     * Returns the aggregates of the entries of a network entity in a run, which are also kept without traces.
+     * @param networkEntity The EUI of the network entity.
+     * @param run The run.
+     * @return The aggregates of the entity in the run (empty if it has no entries in the run).
+     */
+    public AggregatedStatistics getAggregatedStatistics(long networkEntity, int run) {
+        var aggregates = getRun(aggregatedStatistics, networkEntity, run);
+        return aggregates == null ? new AggregatedStatistics() : aggregates;
     }
 
     public List<PowerSettingDataPoint> getPowerSettingHistory(long networkEntity) {
-        return powerSettingHistory.get(networkEntity);
+        var runs = powerSettingHistory.get(networkEntity);
+        if (runs == null) {
+            return null;
+        }
+        List<PowerSettingDataPoint> dataPoints = new ArrayList<>();
+        for (int run = 0; run < runs.size(); run++) {
+            var entries = runs.get(run);
+            for (int i = 0; entries != null && i < entries.size(); i++) {
+                dataPoints.add(new PowerSettingDataPoint(run, entries.getTimeInSeconds(i), entries.getPowerSetting(i)));
+            }
+        }
+        return dataPoints;
     }
 
     public List<Pair<Integer,Integer>> getPowerSettingHistory(long networkEntity, int run) {
-        return getPowerSettingHistory(networkEntity).stream()
-            .filter(o -> o.runNumber == run)
-            .map(o -> new Pair<>(o.timeInSeconds, o.powerSetting))
-            .collect(Collectors.toList());
+        var entries = getRun(powerSettingHistory, networkEntity, run);
+        return entries == null ? List.of() : entries.getPowerSettings();
     }
 
     public List<SpreadingFactorDataPoint> getSpreadingFactorHistory(long networkEntity) {
-        return spreadingFactorHistory.get(networkEntity);
+        var runs = spreadingFactorHistory.get(networkEntity);
+        if (runs == null) {
+            return null;
+        }
+        List<SpreadingFactorDataPoint> dataPoints = new ArrayList<>();
+        for (int run = 0; run < runs.size(); run++) {
+            var entries = runs.get(run);
+            for (int i = 0; entries != null && i < entries.size(); i++) {
+                dataPoints.add(new SpreadingFactorDataPoint(run, entries.getSpreadingFactor(i)));
+            }
+        }
+        return dataPoints;
     }
 
     public List<Integer> getSpreadingFactorHistory(long networkEntity, int run) {
-        return getSpreadingFactorHistory(networkEntity).stream()
-            .filter(o -> o.runNumber == run)
-            .map(o -> o.spreadingFactor)
-            .collect(Collectors.toList());
+        var entries = getRun(spreadingFactorHistory, networkEntity, run);
+        return entries == null ? List.of() : entries.getSpreadingFactors();
     }
 
     public LinkedHashSet<LoraTransmissionDataPoint> getReceivedTransmissions(long networkEntity) {
-        return receivedTransmissions.get(networkEntity);
+        var runs = receivedTransmissions.get(networkEntity);
+        return runs == null ? null : toDataPoints(runs, LinkedHashSet::new);
     }
 
+    /**
+     * Returns the transmissions received by a network entity in a run which did not collide.
+     * @param eui The EUI of the network entity.
+     * @param run The run.
+     * @return A view of the transmissions, which are created from the traces (see {@link Statistics}).
+     */
     public List<LoraTransmission> getReceivedTransmissions(long eui, int run) {
-        return this.getAllReceivedTransmissions(eui, run).stream()
-            .filter(t -> !t.isCollided())
-            .collect(Collectors.toList());
+        var entries = getRun(receivedTransmissions, eui, run);
+        return entries == null ? List.of() : entries.getNotCollidedTransmissions();
+    }
+
+    /**
+     * Returns the last transmission received by a network entity in a run which did not collide,
+     * which is also kept without traces.
+     * @param eui The EUI of the network entity.
+     * @param run The run.
+     * @return The last transmission which did not collide, if any, created from its fields like the transmissions of
+     *         the traces (see {@link Statistics}).
+     */
+    public Optional<LoraTransmission> getLastReceivedTransmission(long eui, int run) {
+        return getAggregatedStatistics(eui, run).getLastReceivedTransmission();
     }
 
-    public LinkedHashSet<LoraTransmission> getAllReceivedTransmissions(long eui, int run) {
-        return getReceivedTransmissions(eui).stream()
-            .filter(o -> o.runNumber == run)
-            .map(o -> o.transmission)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+    /**
+     * Returns the transmissions received by a network entity in a run, in the order in which they are received.
+     * This is a list instead of a set: a network entity receives every transmission once, so it has no duplicates.
+     * @param eui The EUI of the network entity.
+     * @param run The run.
+     * @return A view of the transmissions, which are created from the traces (see {@link Statistics}).
+     */
+    public List<LoraTransmission> getAllReceivedTransmissions(long eui, int run) {
+        var entries = getRun(receivedTransmissions, eui, run);
+        return entries == null ? List.of() : entries.getTransmissions();
     }
 
 
     public List<LoraTransmissionDataPoint> getSentTransmissions(long networkEntity) {
-        return sentTransmissions.get(networkEntity);
+        var runs = sentTransmissions.get(networkEntity);
+        return runs == null ? null : toDataPoints(runs, ArrayList::new);
     }
 
+    /**
+     * Returns the transmissions sent by a network entity in a run.
+     * @param networkEntity The EUI of the network entity.
+     * @param run The run.
+     * @return A view of the transmissions, which are created from the traces (see {@link Statistics}).
+     */
     public List<LoraTransmission> getSentTransmissions(long networkEntity, int run) {
-        return getSentTransmissions(networkEntity).stream()
-            .filter(o -> o.runNumber == run)
-            .map(o -> o.transmission)
-            .collect(Collectors.toList());
+        // Entities which never sent anything (e.g. gateways) have no entry
+        var entries = getRun(sentTransmissions, networkEntity, run);
+        return entries == null ? List.of() : entries.getTransmissions();
     }
 
+    /**
+     * Returns the transmissions sent by a network entity in a run, each with the power setting with which it was sent.
+     * @param networkEntity The EUI of the network entity.
+     * @param run The run.
+     * @return A view of the transmissions and their power settings, in the order of
+     *         {@link Statistics#getSentTransmissions(long, int)}.
+     */
+    public List<Pair<LoraTransmission, Integer>> getSentTransmissionsWithPowerSetting(long networkEntity, int run) {
+        var entries = getRun(sentTransmissions, networkEntity, run);
+        return entries == null ? List.of() : entries.getTransmissionsWithPowerSetting();
+    }
+
+    /**
+     * Returns the energy used for every kept transmission of a network entity in a run, with the power setting which
+     * was added last before the transmission was sent (like {@link AggregatedStatistics#getUsedEnergy()}).
+     * @param networkEntity The EUI of the network entity.
+     * @param run The run.
+     * @return The energy of the transmissions in the order of {@link Statistics#getSentTransmissions(long, int)}.
+     */
     public List<Double> getUsedEnergy(long networkEntity, int run) {
-        List<Double> usedEnergy = new LinkedList<>();
-        int i= 0;
-        for (LoraTransmission transmission: getSentTransmissions(networkEntity, run)) {
-            usedEnergy.add(Math.pow(10,((double)getPowerSettingHistory(networkEntity, run).get(i).getRight())/10)*transmission.getTimeOnAir()/1000);
-            i++;
+        List<Double> usedEnergy = new ArrayList<>();
+        var transmissions = getRun(sentTransmissions, networkEntity, run);
+        for (int i = 0; transmissions != null && i < transmissions.size(); i++) {
+            usedEnergy.add(Math.pow(10,((double) transmissions.getPowerSetting(i))/10)*transmissions.getTimeOnAir(i)/1000);
         }
         return usedEnergy;
     }
 
+    private static <C extends Collection<LoraTransmissionDataPoint>> C toDataPoints(
+        List<? extends TransmissionTable> runs, Supplier<C> factory) {
+        C dataPoints = factory.get();
+        for (int run = 0; run < runs.size(); run++) {
+            var entries = runs.get(run);
+            for (int i = 0; entries != null && i < entries.size(); i++) {
+                dataPoints.add(new LoraTransmissionDataPoint(run, entries.get(i)));
+            }
+        }
+        return dataPoints;
+    }
+
+    /**
+     * The transmissions sent by a network entity in one run and the power setting with which every transmission
+     * is sent, in columns. The power setting is kept with the transmission, since the power settings themselves can be
+     * added without a transmission.
+     */
+    private static class SentTransmissionTable extends TransmissionTable {
+        private int[] powerSettings = new int[0];
+
+        SentTransmissionTable(int maximumSize) {
+            super(maximumSize);
+        }
+
+        long add(LoraTransmission transmission, int powerSetting) {
+            long sequenceNumber = add(transmission);
+            powerSettings[getIndexOfSequenceNumber(sequenceNumber)] = powerSetting;
+            return sequenceNumber;
+        }
+
+        void addAll(SentTransmissionTable other) {
+            for (int i = 0; i < other.size(); i++) {
+                add(other.get(i), other.getPowerSetting(i));
+            }
+        }
+
+        int getPowerSetting(int row) {
+            return powerSettings[getIndex(row)];
+        }
+
+        List<Pair<LoraTransmission, Integer>> getTransmissionsWithPowerSetting() {
+            return getView(i -> new Pair<>(create(i), powerSettings[i]));
+        }
+
+        @Override
+        void resizeColumns(int capacity) {
+            super.resizeColumns(capacity);
+            powerSettings = copyColumn(powerSettings, capacity);
+        }
+    }
+
+    /**
+     * The power settings of the transmissions of a network entity in one run, in columns.
+     */
+    private static class PowerSettingTable extends ColumnTable {
+        private int[] timesInSeconds = new int[0];
+        private int[] powerSettings = new int[0];
+
+        PowerSettingTable(int maximumSize) {
+            super(maximumSize);
+        }
+
+        void add(int timeInSeconds, int powerSetting) {
+            int index = addRow();
+            timesInSeconds[index] = timeInSeconds;
+            powerSettings[index] = powerSetting;
+        }
+
+        void addAll(PowerSettingTable other) {
+            for (int i = 0; i < other.size(); i++) {
+                add(other.getTimeInSeconds(i), other.getPowerSetting(i));
+            }
+        }
+
+        int getTimeInSeconds(int row) {
+            return timesInSeconds[getIndex(row)];
+        }
+
+        int getPowerSetting(int row) {
+            return powerSettings[getIndex(row)];
+        }
+
+        List<Pair<Integer,Integer>> getPowerSettings() {
+            return getView(i -> new Pair<>(timesInSeconds[i], powerSettings[i]));
+        }
+
+        @Override
+        void resizeColumns(int capacity) {
+            timesInSeconds = copyColumn(timesInSeconds, capacity);
+            powerSettings = copyColumn(powerSettings, capacity);
+        }
+    }
+
+    /**
+     * The spreading factors of the transmissions of a network entity in one run, in a column.
+     */
+    private static class SpreadingFactorTable extends ColumnTable {
+        private byte[] spreadingFactors = new byte[0];
+
+        SpreadingFactorTable(int maximumSize) {
+            super(maximumSize);
+        }
+
+        void add(int spreadingFactor) {
+            int index = addRow();
+            spreadingFactors[index] = (byte) spreadingFactor;
+        }
+
+        void addAll(SpreadingFactorTable other) {
+            for (int i = 0; i < other.size(); i++) {
+                add(other.getSpreadingFactor(i));
+            }
+        }
+
+        int getSpreadingFactor(int row) {
+            return spreadingFactors[getIndex(row)];
+        }
+
+        List<Integer> getSpreadingFactors() {
+            return getView(i -> (int) spreadingFactors[i]);
+        }
+
+        @Override
+        void resizeColumns(int capacity) {
+            spreadingFactors = copyColumn(spreadingFactors, capacity);
+        }
+    }
+
 
     public static class PowerSettingDataPoint {
         public int runNumber;
@@ -1,9 +1,12 @@
 package util;
 
 import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
 
 public class TimeHelper {
+    public static final long NANOS_PER_MILLI = 1_000_000L;
+    public static final long NANOS_PER_SECOND = 1_000_000_000L;
+    public static final long NANOS_PER_DAY = 24 * 60 * 60 * NANOS_PER_SECOND;
+
     public static double nanoToMili(double nanoTime) {
         return  nanoTime / 1e6;
     }
@@ -13,16 +16,38 @@ public class TimeHelper {
     }
 
     public static long miliToNano(long miliTime) {
-        return miliTime * (long) 1e6;
+        return miliTime * NANOS_PER_MILLI;
     }
 
     public static double secToMili(double secTime) {
         return  secTime * 1e3;
     }
 
-    public static LocalTime roundToMilli(LocalTime time) {
-        var lowerBound = time.truncatedTo(ChronoUnit.MILLIS);
-        var threshold = lowerBound.plus(500, ChronoUnit.MICROS);
-        return time.isBefore(threshold) ? lowerBound : lowerBound.plus(1, ChronoUnit.MILLIS);
+    public static long secToNano(long secTime) {
+        return secTime * NANOS_PER_SECOND;
+    }
+
+    public static double nanoToSec(double nanoTime) {
+        return nanoTime / 1e9;
+    }
+
+    /**
+     * Rounds a time expressed in nanoseconds to the closest millisecond (half up).
+     * @param time The time in nanoseconds.
+     * @return The rounded time in nanoseconds.
+     */
+    public static long roundToMilli(long time) {
+        var lowerBound = time - Math.floorMod(time, NANOS_PER_MILLI);
+        var threshold = lowerBound + NANOS_PER_MILLI / 2;
+        return time < threshold ? lowerBound : lowerBound + NANOS_PER_MILLI;
+    }
+
+    /**
+     * Converts a simulation time expressed in nanoseconds to a time of the day (wrapping around after 24 hours).
+     * @param time The time in nanoseconds.
+     * @return The corresponding time of the day.
+     */
+    public static LocalTime toLocalTime(long time) {
+        return LocalTime.ofNanoOfDay(Math.floorMod(time, NANOS_PER_DAY));
     }
 }
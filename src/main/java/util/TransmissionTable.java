@@ -0,0 +1,243 @@
+package util;
+
+import iot.lora.Channel;
+import iot.lora.LoraTransmission;
+import iot.lora.LoraWanPacket;
+import iot.lora.RegionalParameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A table of the transmissions of a network entity in one run, which stores every field in a primitive array (column),
+ * so that a recorded transmission takes {@value TransmissionTable#BYTES_PER_ROW} bytes and does not keep its
+ * {@link LoraTransmission} and packet alive.
+ * <p>
+ * The regional parameters and channels are stored as an index in a small dictionary of the table. Of the content only
+ * the EUIs and the length of the payload are kept, so the packets of the transmissions returned by
+ * {@link TransmissionTable#get(int)} have an empty payload of the same length, without MAC commands.
+ */
+class TransmissionTable extends ColumnTable {
+
+    /**
+     * The number of bytes of the columns of a row.
+     */
+    static final int BYTES_PER_ROW = 69;
+
+    private static final byte COLLIDED = 1;
+    private static final byte ARRIVED = 2;
+
+    /**
+     * The rows of the transmissions which did not collide, computed once the table is sealed.
+     */
+    private int[] notCollidedRows;
+
+    private long[] departureTimes = new long[0];
+    private long[] senders = new long[0];
+    private long[] receivers = new long[0];
+    private double[] transmissionPowers = new double[0];
+    private double[] timesOnAir = new double[0];
+    private int[] xPositions = new int[0];
+    private int[] yPositions = new int[0];
+    private long[] packetSenders = new long[0];
+    private long[] packetReceivers = new long[0];
+    private short[] payloadLengths = new short[0];
+    private byte[] regionalParameters = new byte[0];
+    private byte[] channels = new byte[0];
+    private byte[] flags = new byte[0];
+
+    private final List<RegionalParameter> regionalParameterDictionary = new ArrayList<>();
+    private final List<Channel> channelDictionary = new ArrayList<>();
+
+    /**
+     * A constructor creating an empty table which keeps all transmissions.
+     */
+    TransmissionTable() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * A constructor creating an empty table which keeps the last transmissions.
+     * @param maximumSize The maximum number of transmissions kept by the table.
+     */
+    TransmissionTable(int maximumSize) {
+        super(maximumSize);
+    }
+
+    /**
+     * Adds a transmission to this table, which replaces the oldest transmission if the table is full.
+     * @param transmission The transmission.
+     * @return The sequence number of the transmission (see {@link TransmissionTable#update(long, LoraTransmission)}).
+     * @throws IllegalStateException if this table is sealed.
+     */
+    long add(LoraTransmission transmission) {
+        int index = addRow();
+        var content = transmission.getContent();
+        departureTimes[index] = transmission.getDepartureTime();
+        senders[index] = transmission.getSender();
+        receivers[index] = transmission.getReceiver();
+        transmissionPowers[index] = transmission.getTransmissionPower();
+        timesOnAir[index] = transmission.getTimeOnAir();
+        xPositions[index] = transmission.getXPos();
+        yPositions[index] = transmission.getYPos();
+        packetSenders[index] = content.getSenderEUI();
+        packetReceivers[index] = content.getReceiverEUI();
+        payloadLengths[index] = (short) content.getPayload().length;
+        regionalParameters[index] =
+            (byte) getDictionaryIndex(regionalParameterDictionary, transmission.getRegionalParameter());
+        channels[index] = (byte) getDictionaryIndex(channelDictionary, transmission.getChannel());
+        setFlags(index, transmission);
+        return getLastSequenceNumber();
+    }
+
+    /**
+     * Adds all transmissions of another table to this table.
+     * @param other The other table.
+     * @throws IllegalStateException if this table is sealed.
+     */
+    void addAll(TransmissionTable other) {
+        for (int i = 0; i < other.size(); i++) {
+            add(other.get(i));
+        }
+    }
+
+    /**
+     * Updates the flags (collided, arrived) of a transmission which changed since it was added.
+     * Nothing changes if the transmission is replaced by a newer transmission.
+     * @param sequenceNumber The sequence number of the transmission.
+     * @param transmission The transmission.
+     * @throws IllegalStateException if this table is sealed.
+     */
+    void update(long sequenceNumber, LoraTransmission transmission) {
+        if (isSealed()) {
+            throw new IllegalStateException("The transmissions of a sealed run cannot change");
+        }
+        int index = getIndexOfSequenceNumber(sequenceNumber);
+        if (index != -1) {
+            setFlags(index, transmission);
+        }
+    }
+
+    @Override
+    void setMaximumSize(int maximumSize) {
+        super.setMaximumSize(maximumSize);
+        // The rows shift if the oldest transmissions are dropped
+        notCollidedRows = null;
+    }
+
+    private void setFlags(int index, LoraTransmission transmission) {
+        flags[index] = (byte) ((transmission.isCollided() ? COLLIDED : 0) | (transmission.isArrived() ? ARRIVED : 0));
+    }
+
+    /**
+     * @param row A row of this table.
+     * @return True if the transmission in the row collided.
+     */
+    boolean isCollided(int row) {
+        return (flags[getIndex(row)] & COLLIDED) != 0;
+    }
+
+    /**
+     * @param row A row of this table.
+     * @return The time on air of the transmission in the row.
+     */
+    double getTimeOnAir(int row) {
+        return timesOnAir[getIndex(row)];
+    }
+
+    /**
+     * Creates a transmission with the fields of a row.
+     * @param row A row of this table.
+     * @return A new transmission with the fields of the row.
+     */
+    LoraTransmission get(int row) {
+        return create(getIndex(row));
+    }
+
+    /**
+     * @param index An index in the columns of this table.
+     * @return A new transmission with the fields at the index.
+     */
+    LoraTransmission create(int index) {
+        var content = new LoraWanPacket(packetSenders[index], packetReceivers[index], new byte[payloadLengths[index]],
+            new LinkedList<>());
+        var transmission = new LoraTransmission(senders[index], receivers[index],
+            new Pair<>(xPositions[index], yPositions[index]), transmissionPowers[index],
+            regionalParameterDictionary.get(regionalParameters[index]), channelDictionary.get(channels[index]),
+            timesOnAir[index], departureTimes[index], content);
+        if ((flags[index] & COLLIDED) != 0) {
+            transmission.setCollided();
+        }
+        if ((flags[index] & ARRIVED) != 0) {
+            transmission.setArrived();
+        }
+        return transmission;
+    }
+
+    /**
+     * Returns a view of the transmissions of this table, which creates a transmission when an element is accessed.
+     * The view contains the transmissions which are in this table when it is created.
+     * @return The transmissions of this table.
+     */
+    List<LoraTransmission> getTransmissions() {
+        return getView(this::create);
+    }
+
+    /**
+     * Returns a view of the transmissions of this table which did not collide.
+     * The view contains the transmissions which are in this table when it is created.
+     * @return The transmissions of this table which did not collide.
+     */
+    List<LoraTransmission> getNotCollidedTransmissions() {
+        if (notCollidedRows != null) {
+            return getView(this::create, notCollidedRows);
+        }
+        var rows = computeNotCollidedRows();
+        if (isSealed()) {
+            notCollidedRows = rows;
+        }
+        return getView(this::create, rows);
+    }
+
+    private int[] computeNotCollidedRows() {
+        int[] rows = new int[size()];
+        int numberOfRows = 0;
+        for (int i = 0; i < size(); i++) {
+            if (!isCollided(i)) {
+                rows[numberOfRows++] = i;
+            }
+        }
+        return Arrays.copyOf(rows, numberOfRows);
+    }
+
+    @Override
+    void resizeColumns(int capacity) {
+        departureTimes = copyColumn(departureTimes, capacity);
+        senders = copyColumn(senders, capacity);
+        receivers = copyColumn(receivers, capacity);
+        transmissionPowers = copyColumn(transmissionPowers, capacity);
+        timesOnAir = copyColumn(timesOnAir, capacity);
+        xPositions = copyColumn(xPositions, capacity);
+        yPositions = copyColumn(yPositions, capacity);
+        packetSenders = copyColumn(packetSenders, capacity);
+        packetReceivers = copyColumn(packetReceivers, capacity);
+        payloadLengths = copyColumn(payloadLengths, capacity);
+        regionalParameters = copyColumn(regionalParameters, capacity);
+        channels = copyColumn(channels, capacity);
+        flags = copyColumn(flags, capacity);
+    }
+
+    private static <E> int getDictionaryIndex(List<E> dictionary, E value) {
+        int index = dictionary.indexOf(value);
+        if (index == -1) {
+            if (dictionary.size() == Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values in the transmission table: " + value);
+            }
+            dictionary.add(value);
+            index = dictionary.size() - 1;
+        }
+        return index;
+    }
+}
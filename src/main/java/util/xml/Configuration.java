@@ -0,0 +1,235 @@
+package util.xml;
+
+import iot.CharacteristicRaster;
+import iot.Environment;
+import iot.networkcommunication.impl.CollisionModel;
+import iot.networkentity.*;
+import iot.propagation.PropagationModel;
+import org.jxmapviewer.viewer.GeoPosition;
+import util.Connection;
+import util.MapHelper;
+import util.Pair;
+import util.Path;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class representing a configuration of a simulation, as read from a configuration file
+ * (see {@link ConfigurationReader#readConfiguration(File)}).
+ * A configuration is immutable: every environment created from it gets its own characteristics, graph, motes and
+ * gateways, so that the environments of several runs can be created from the same configuration at the same time.
+ */
+public class Configuration {
+
+    /**
+     * The characteristics of the map, which are copied into every environment.
+     */
+    private final CharacteristicRaster characteristics;
+
+    private final GeoPosition mapOrigin;
+    private final int numberOfZones;
+    private final PropagationModel propagationModel;
+    private final int numberOfChannels;
+    private final CollisionModel collisionModel;
+
+    /**
+     * The waypoints and connections of the map, by their remapped ids.
+     */
+    private final Map<Long, GeoPosition> wayPoints;
+    private final Map<Long, Connection> connections;
+
+    private final List<MoteDescription> motes;
+    private final List<GatewayDescription> gateways;
+
+    Configuration(CharacteristicRaster characteristics, GeoPosition mapOrigin, int numberOfZones,
+                  PropagationModel propagationModel, int numberOfChannels, CollisionModel collisionModel,
+                  Map<Long, GeoPosition> wayPoints, Map<Long, Connection> connections,
+                  List<MoteDescription> motes, List<GatewayDescription> gateways) {
+        this.characteristics = characteristics.copy();
+        this.mapOrigin = mapOrigin;
+        this.numberOfZones = numberOfZones;
+        this.propagationModel = propagationModel;
+        this.numberOfChannels = numberOfChannels;
+        this.collisionModel = collisionModel;
+        this.wayPoints = Collections.unmodifiableMap(new HashMap<>(wayPoints));
+        this.connections = Collections.unmodifiableMap(new HashMap<>(connections));
+        this.motes = List.copyOf(motes);
+        this.gateways = List.copyOf(gateways);
+    }
+
+    /**
+     * Creates a new environment with the map, motes and gateways of this configuration.
+     * @return A new environment, which does not share any state with other environments of this configuration.
+     */
+    public Environment createEnvironment() {
+        Environment environment = new Environment(characteristics.copy(), mapOrigin, numberOfZones,
+            new HashMap<>(wayPoints), new HashMap<>(connections));
+        environment.setPropagationModel(propagationModel);
+        environment.setNumberOfChannels(numberOfChannels);
+        environment.setCollisionModel(collisionModel);
+
+        for (MoteDescription mote : motes) {
+            environment.addMote(mote.createMote(environment));
+        }
+        for (GatewayDescription gateway : gateways) {
+            environment.addGateway(gateway.createGateway(environment));
+        }
+        return environment;
+    }
+
+    /**
+     * @return The length of the longest connection of the map.
+     */
+    public double getLongestEdge() {
+        double greatestDistance = 0;
+        for (Connection conn : connections.values()) {
+            double distanceEdge = MapHelper.distance(wayPoints.get(conn.getFrom()), wayPoints.get(conn.getTo()));
+            if (distanceEdge > greatestDistance) {
+                greatestDistance = distanceEdge;
+            }
+        }
+        return greatestDistance;
+    }
+
+
+    /**
+     * A class representing a mote of a configuration.
+     */
+    static class MoteDescription {
+        protected final long devEUI;
+        protected final GeoPosition location;
+        protected final int transmissionPower;
+        protected final int spreadingFactor;
+        protected final int energyLevel;
+        protected final double movementSpeed;
+        protected final List<MoteSensor> moteSensors;
+        protected final List<GeoPosition> path;
+
+        /**
+         * The offsets and period of the mote, {@code null} if they are not configured.
+         */
+        protected final Integer startMovementOffset;
+        protected final Integer periodSendingPacket;
+        protected final Integer startSendingOffset;
+
+        MoteDescription(long devEUI, GeoPosition location, int transmissionPower, int spreadingFactor,
+                        int energyLevel, double movementSpeed, List<MoteSensor> moteSensors, List<GeoPosition> path,
+                        Integer startMovementOffset, Integer periodSendingPacket, Integer startSendingOffset) {
+            this.devEUI = devEUI;
+            this.location = location;
+            this.transmissionPower = transmissionPower;
+            this.spreadingFactor = spreadingFactor;
+            this.energyLevel = energyLevel;
+            this.movementSpeed = movementSpeed;
+            this.moteSensors = List.copyOf(moteSensors);
+            this.path = List.copyOf(path);
+            this.startMovementOffset = startMovementOffset;
+            this.periodSendingPacket = periodSendingPacket;
+            this.startSendingOffset = startSendingOffset;
+        }
+
+        Pair<Integer, Integer> getMapCoordinates(Environment environment) {
+            return environment.getMapHelper().toMapCoordinate(location);
+        }
+
+        Mote createMote(Environment environment) {
+            var coordinates = getMapCoordinates(environment);
+            if (startMovementOffset != null && periodSendingPacket != null && startSendingOffset != null) {
+                return MoteFactory.createMote(
+                    devEUI,
+                    coordinates.getLeft(),
+                    coordinates.getRight(),
+                    transmissionPower,
+                    spreadingFactor,
+                    new LinkedList<>(moteSensors),
+                    energyLevel,
+                    new Path(path, environment.getGraph()),
+                    movementSpeed,
+                    startMovementOffset,
+                    periodSendingPacket,
+                    startSendingOffset,
+                    environment
+                );
+            }
+            return MoteFactory.createMote(
+                devEUI,
+                coordinates.getLeft(),
+                coordinates.getRight(),
+                transmissionPower,
+                spreadingFactor,
+                new LinkedList<>(moteSensors),
+                energyLevel,
+                new Path(path, environment.getGraph()),
+                movementSpeed,
+                environment
+            );
+        }
+    }
+
+    /**
+     * A class representing a user mote of a configuration, of which the offsets and period are always configured.
+     */
+    static class UserMoteDescription extends MoteDescription {
+        private final GeoPosition destination;
+        private final boolean active;
+
+        UserMoteDescription(MoteDescription mote, GeoPosition destination, boolean active) {
+            super(mote.devEUI, mote.location, mote.transmissionPower, mote.spreadingFactor, mote.energyLevel,
+                mote.movementSpeed, mote.moteSensors, mote.path,
+                mote.startMovementOffset, mote.periodSendingPacket, mote.startSendingOffset);
+            this.destination = destination;
+            this.active = active;
+        }
+
+        @Override
+        Mote createMote(Environment environment) {
+            var coordinates = getMapCoordinates(environment);
+            UserMote userMote = MoteFactory.createUserMote(
+                devEUI,
+                coordinates.getLeft(),
+                coordinates.getRight(),
+                transmissionPower,
+                spreadingFactor,
+                new LinkedList<>(moteSensors),
+                energyLevel,
+                new Path(path, environment.getGraph()),
+                movementSpeed,
+                startMovementOffset,
+                periodSendingPacket,
+                startSendingOffset,
+                destination,
+                environment
+            );
+            userMote.setActive(active);
+            return userMote;
+        }
+    }
+
+    /**
+     * A class representing a gateway of a configuration.
+     */
+    static class GatewayDescription {
+        private final long devEUI;
+        private final int xPos;
+        private final int yPos;
+        private final int transmissionPower;
+        private final int spreadingFactor;
+
+        GatewayDescription(long devEUI, int xPos, int yPos, int transmissionPower, int spreadingFactor) {
+            this.devEUI = devEUI;
+            this.xPos = xPos;
+            this.yPos = yPos;
+            this.transmissionPower = transmissionPower;
+            this.spreadingFactor = spreadingFactor;
+        }
+
+        Gateway createGateway(Environment environment) {
+            return new Gateway(devEUI, xPos, yPos, transmissionPower, spreadingFactor, environment);
+        }
+    }
+}
@@ -1,175 +1,209 @@
 package util.xml;
 
 import iot.Characteristic;
-import iot.Environment;
+import iot.CharacteristicRaster;
 import iot.SimulationRunner;
-import iot.networkentity.*;
+import iot.networkcommunication.impl.CollisionModel;
+import iot.networkentity.MoteSensor;
+import iot.propagation.PropagationModel;
 import org.jxmapviewer.viewer.GeoPosition;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 import util.Connection;
-import util.Pair;
-import util.Path;
-import util.Connection;
-import util.MapHelper;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Map;
 
 public class ConfigurationReader {
-    private static IdRemapping idRemapping = new IdRemapping();
+
+    /**
+     * The last loaded configuration, of which {@link ConfigurationReader#getLongestEdge()} is determined.
+     */
+    private static volatile Configuration lastConfiguration;
 
     public static double getLongestEdge(){
-        Map<Long,Connection> allConnections = idRemapping.getConnections();
-        double greatestDistance = 0;
-        for (Connection conn : allConnections.values()) {
-            double distanceEdge = MapHelper.distance(idRemapping.getWayPointWithNewId(conn.getFrom()), idRemapping.getWayPointWithNewId(conn.getTo()));
-            if (distanceEdge > greatestDistance) {
-                greatestDistance = distanceEdge;
-            }
-        }
-        return greatestDistance;
+        var configuration = lastConfiguration;
+        return configuration == null ? 0 : configuration.getLongestEdge();
     }
 
 
     public static void loadConfiguration(File file, SimulationRunner simulationRunner) {
-        idRemapping.reset();
+        readConfiguration(file).ifPresent(configuration -> loadConfiguration(configuration, simulationRunner));
+    }
 
+    /**
+     * Reads a configuration file, so that it can be loaded several times without reading it again.
+     * @param file The configuration file.
+     * @return The configuration, or an empty optional if the file could not be parsed.
+     */
+    public static Optional<Configuration> readConfiguration(File file) {
+        Document doc;
         try {
-            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
-            Element configuration = doc.getDocumentElement();
-
-
-            // ---------------
-            //      Map
-            // ---------------
-
-            Element map = (Element) configuration.getElementsByTagName("map").item(0);
-            Element region = (Element) map.getElementsByTagName("region").item(0);
-            int width = Integer.parseInt(XMLHelper.readChild(region, "width"));
-            int height = Integer.parseInt(XMLHelper.readChild(region, "height"));
-
-            Element origin = (Element) region.getElementsByTagName("origin").item(0);
-            GeoPosition mapOrigin = new GeoPosition(
-                Double.parseDouble(XMLHelper.readChild(origin, "latitude")),
-                Double.parseDouble(XMLHelper.readChild(origin, "longitude"))
-            );
-
-
-            // ---------------
-            // Characteristics
-            // ---------------
-
-            Element characteristics = (Element) configuration.getElementsByTagName("characteristics").item(0);
-            int numberOfZones = Integer.parseInt(((Element) characteristics.getElementsByTagName("regionProperty").item(0)).getAttribute("numberOfZones"));
-            long n = Math.round(Math.sqrt(numberOfZones));
-            Characteristic[][] characteristicsMap = new Characteristic[width][height];
-
-            for (int i = 0; i < n; i++) {
-                String[] characteristicsRow = characteristics.getElementsByTagName("row").item(i).getTextContent().split("-");
-                for (int j = 0; j < characteristicsRow.length; j++) {
-                    Characteristic characteristic = Characteristic.valueOf(characteristicsRow[j]);
+            doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+        } catch (ParserConfigurationException | SAXException | IOException e1) {
+            e1.printStackTrace();
+            return Optional.empty();
+        }
+        return Optional.of(readConfiguration(doc));
+    }
 
-                    double widthSize = ((double) width) / n;
-                    double heightSize = ((double) height) / n;
-                    for (int x = (int) Math.round(j * widthSize); x < (int) Math.round((j + 1) * widthSize); x++) {
-                        for (int y = (int) Math.round(i * heightSize); y < (int) Math.round((i + 1) * heightSize); y++) {
-                            characteristicsMap[x][y] = characteristic;
-                        }
-                    }
-                }
+    /**
+     * Loads a configuration in the simulation runner.
+     * N.B. not synchronized: the environment is created from the immutable configuration, so that several simulation
+     * runners (in different contexts) can load the same configuration at the same time.
+     * @param configuration The configuration.
+     * @param simulationRunner The simulation runner in which the environment is loaded.
+     */
+    public static void loadConfiguration(Configuration configuration, SimulationRunner simulationRunner) {
+        lastConfiguration = configuration;
+        simulationRunner.setEnvironment(configuration.createEnvironment());
+    }
 
+    /**
+     * Reads a parsed configuration file, on the thread which parsed it.
+     * @param doc The parsed configuration file.
+     * @return The configuration.
+     */
+    private static Configuration readConfiguration(Document doc) {
+        IdRemapping idRemapping = new IdRemapping();
+
+        Element configuration = doc.getDocumentElement();
+
+
+        // ---------------
+        //      Map
+        // ---------------
+
+        Element map = (Element) configuration.getElementsByTagName("map").item(0);
+        Element region = (Element) map.getElementsByTagName("region").item(0);
+        int width = Integer.parseInt(XMLHelper.readChild(region, "width"));
+        int height = Integer.parseInt(XMLHelper.readChild(region, "height"));
+
+        Element origin = (Element) region.getElementsByTagName("origin").item(0);
+        GeoPosition mapOrigin = new GeoPosition(
+            Double.parseDouble(XMLHelper.readChild(origin, "latitude")),
+            Double.parseDouble(XMLHelper.readChild(origin, "longitude"))
+        );
+
+
+        // ---------------
+        // Characteristics
+        // ---------------
+
+        Element characteristics = (Element) configuration.getElementsByTagName("characteristics").item(0);
+        Element regionProperty = (Element) characteristics.getElementsByTagName("regionProperty").item(0);
+        int numberOfZones = Integer.parseInt(regionProperty.getAttribute("numberOfZones"));
+        PropagationModel propagationModel = regionProperty.hasAttribute("propagationModel") ?
+            PropagationModel.valueOf(regionProperty.getAttribute("propagationModel")) : PropagationModel.STEPWISE;
+        int numberOfChannels = regionProperty.hasAttribute("numberOfChannels") ?
+            Integer.parseInt(regionProperty.getAttribute("numberOfChannels")) : 1;
+        CollisionModel collisionModel = regionProperty.hasAttribute("collisionModel") ?
+            CollisionModel.valueOf(regionProperty.getAttribute("collisionModel")) : CollisionModel.PAIRWISE;
+        long n = Math.round(Math.sqrt(numberOfZones));
+        CharacteristicRaster characteristicsMap = new CharacteristicRaster(width, height);
+
+        for (int i = 0; i < n; i++) {
+            String[] characteristicsRow = characteristics.getElementsByTagName("row").item(i).getTextContent().split("-");
+            for (int j = 0; j < characteristicsRow.length; j++) {
+                Characteristic characteristic = Characteristic.valueOf(characteristicsRow[j]);
+
+                double widthSize = ((double) width) / n;
+                double heightSize = ((double) height) / n;
+                characteristicsMap.fill(characteristic,
+                    (int) Math.round(j * widthSize), (int) Math.round(i * heightSize),
+                    (int) Math.round((j + 1) * widthSize), (int) Math.round((i + 1) * heightSize));
             }
 
+        }
 
 
-            // ---------------
-            //    WayPoints
-            // ---------------
-
-            Element wayPointsElement = (Element) configuration.getElementsByTagName("wayPoints").item(0);
 
-            for (int i = 0; i < wayPointsElement.getElementsByTagName("wayPoint").getLength(); i++) {
-                Element waypoint = (Element) wayPointsElement.getElementsByTagName("wayPoint").item(i);
+        // ---------------
+        //    WayPoints
+        // ---------------
 
-                double wayPointLatitude = Double.parseDouble(waypoint.getTextContent().split(",")[0]);
-                double wayPointLongitude = Double.parseDouble(waypoint.getTextContent().split(",")[1]);
+        Element wayPointsElement = (Element) configuration.getElementsByTagName("wayPoints").item(0);
 
-                long ID = Long.parseLong(waypoint.getAttribute("id"));
-                idRemapping.addWayPoint(ID, new GeoPosition(wayPointLatitude, wayPointLongitude));
-            }
+        for (int i = 0; i < wayPointsElement.getElementsByTagName("wayPoint").getLength(); i++) {
+            Element waypoint = (Element) wayPointsElement.getElementsByTagName("wayPoint").item(i);
 
+            double wayPointLatitude = Double.parseDouble(waypoint.getTextContent().split(",")[0]);
+            double wayPointLongitude = Double.parseDouble(waypoint.getTextContent().split(",")[1]);
 
+            long ID = Long.parseLong(waypoint.getAttribute("id"));
+            idRemapping.addWayPoint(ID, new GeoPosition(wayPointLatitude, wayPointLongitude));
+        }
 
-            // ---------------
-            //   Connections
-            // ---------------
 
-            if (configuration.getElementsByTagName("connections").getLength() != 0) {
-                Element connectionsElement = (Element) configuration.getElementsByTagName("connections").item(0);
 
-                var con = connectionsElement.getElementsByTagName("connection");
+        // ---------------
+        //   Connections
+        // ---------------
 
-                for (int i = 0; i < con.getLength(); i++) {
-                    Element connectionNode = (Element) con.item(i);
+        if (configuration.getElementsByTagName("connections").getLength() != 0) {
+            Element connectionsElement = (Element) configuration.getElementsByTagName("connections").item(0);
 
-                    long ID = Long.parseLong(connectionNode.getAttribute("id"));
-                    idRemapping.addConnection(ID, new Connection(
-                        idRemapping.getNewWayPointId(Long.parseLong(connectionNode.getAttribute("src"))),
-                        idRemapping.getNewWayPointId(Long.parseLong(connectionNode.getAttribute("dst")))
-                    ));
-                }
-            }
+            var con = connectionsElement.getElementsByTagName("connection");
 
-            simulationRunner.setEnvironment(new Environment(characteristicsMap, mapOrigin, numberOfZones,
-                idRemapping.getWayPoints(), idRemapping.getConnections()));
+            for (int i = 0; i < con.getLength(); i++) {
+                Element connectionNode = (Element) con.item(i);
 
-            Environment environment = simulationRunner.getEnvironment();
+                long ID = Long.parseLong(connectionNode.getAttribute("id"));
+                idRemapping.addConnection(ID, new Connection(
+                    idRemapping.getNewWayPointId(Long.parseLong(connectionNode.getAttribute("src"))),
+                    idRemapping.getNewWayPointId(Long.parseLong(connectionNode.getAttribute("dst")))
+                ));
+            }
+        }
 
-            // ---------------
-            //      Motes
-            // ---------------
+        // ---------------
+        //      Motes
+        // ---------------
 
-            Element motes = (Element) configuration.getElementsByTagName("motes").item(0);
+        Element motes = (Element) configuration.getElementsByTagName("motes").item(0);
+        List<Configuration.MoteDescription> moteDescriptions = new ArrayList<>();
 
-            for (int i = 0; i < motes.getElementsByTagName("mote").getLength(); i++) {
-                Element moteNode = (Element) motes.getElementsByTagName("mote").item(i);
-                environment.addMote(new MoteReader(moteNode, environment).buildMote());
-            }
-            for (int i = 0; i < motes.getElementsByTagName("userMote").getLength(); i++) {
-                Element userMoteNode = (Element) motes.getElementsByTagName("userMote").item(i);
-                environment.addMote(new UserMoteReader(userMoteNode, environment).buildMote());
-            }
+        for (int i = 0; i < motes.getElementsByTagName("mote").getLength(); i++) {
+            Element moteNode = (Element) motes.getElementsByTagName("mote").item(i);
+            moteDescriptions.add(new MoteReader(moteNode, idRemapping).readMote());
+        }
+        for (int i = 0; i < motes.getElementsByTagName("userMote").getLength(); i++) {
+            Element userMoteNode = (Element) motes.getElementsByTagName("userMote").item(i);
+            moteDescriptions.add(new UserMoteReader(userMoteNode, idRemapping).readMote());
+        }
 
 
-            // ---------------
-            //    Gateways
-            // ---------------
+        // ---------------
+        //    Gateways
+        // ---------------
 
-            Element gateways = (Element) configuration.getElementsByTagName("gateways").item(0);
-            Element gatewayNode;
+        Element gateways = (Element) configuration.getElementsByTagName("gateways").item(0);
+        Element gatewayNode;
+        List<Configuration.GatewayDescription> gatewayDescriptions = new ArrayList<>();
 
-            for (int i = 0; i < gateways.getElementsByTagName("gateway").getLength(); i++) {
-                gatewayNode = (Element) gateways.getElementsByTagName("gateway").item(i);
-                long devEUI = Long.parseUnsignedLong(XMLHelper.readChild(gatewayNode, "devEUI"));
-                Element location = (Element) gatewayNode.getElementsByTagName("location").item(0);
-                int xPos = Integer.parseInt(XMLHelper.readChild(location, "xPos"));
-                int yPos = Integer.parseInt(XMLHelper.readChild(location, "yPos"));
+        for (int i = 0; i < gateways.getElementsByTagName("gateway").getLength(); i++) {
+            gatewayNode = (Element) gateways.getElementsByTagName("gateway").item(i);
+            long devEUI = Long.parseUnsignedLong(XMLHelper.readChild(gatewayNode, "devEUI"));
+            Element location = (Element) gatewayNode.getElementsByTagName("location").item(0);
+            int xPos = Integer.parseInt(XMLHelper.readChild(location, "xPos"));
+            int yPos = Integer.parseInt(XMLHelper.readChild(location, "yPos"));
 
-                int transmissionPower = Integer.parseInt(XMLHelper.readChild(gatewayNode, "transmissionPower"));
-                int spreadingFactor = Integer.parseInt(XMLHelper.readChild(gatewayNode, "spreadingFactor"));
-                environment.addGateway(new Gateway(devEUI, xPos, yPos, transmissionPower, spreadingFactor, environment));
-            }
-        } catch (ParserConfigurationException | SAXException | IOException e1) {
-            e1.printStackTrace();
+            int transmissionPower = Integer.parseInt(XMLHelper.readChild(gatewayNode, "transmissionPower"));
+            int spreadingFactor = Integer.parseInt(XMLHelper.readChild(gatewayNode, "spreadingFactor"));
+            gatewayDescriptions.add(new Configuration.GatewayDescription(devEUI, xPos, yPos, transmissionPower,
+                spreadingFactor));
         }
+
+        return new Configuration(characteristicsMap, mapOrigin, numberOfZones, propagationModel, numberOfChannels,
+            collisionModel, idRemapping.getWayPoints(), idRemapping.getConnections(),
+            moteDescriptions, gatewayDescriptions);
     }
 
     private static boolean hasChild(Element root, String childName) {
@@ -178,22 +212,21 @@ public class ConfigurationReader {
 
     private static class MoteReader {
         protected Element node;
-        protected Environment environment;
+        protected IdRemapping idRemapping;
 
-        MoteReader(Element moteNode, Environment environment) {
+        MoteReader(Element moteNode, IdRemapping idRemapping) {
             this.node = moteNode;
-            this.environment = environment;
+            this.idRemapping = idRemapping;
         }
 
         long getDevEUI() {
             return Long.parseUnsignedLong(XMLHelper.readChild(node, "devEUI"));
         }
 
-        Pair<Integer, Integer> getMapCoordinates() {
+        GeoPosition getLocation() {
             Element location = (Element) node.getElementsByTagName("location").item(0);
             Element waypoint = (Element) location.getElementsByTagName("waypoint").item(0);
-            GeoPosition position = idRemapping.getWayPointWithOriginalId(Long.parseLong(waypoint.getAttribute("id")));
-            return environment.getMapHelper().toMapCoordinate(position);
+            return idRemapping.getWayPointWithOriginalId(Long.parseLong(waypoint.getAttribute("id")));
         }
 
         int getTransmissionPower() {
@@ -223,86 +256,63 @@ public class ConfigurationReader {
             return moteSensors;
         }
 
-        Path getPath() {
-            Path path = new Path(environment.getGraph());
+        List<GeoPosition> getPath() {
+            List<GeoPosition> path = new ArrayList<>();
             Element pathElement = (Element) node.getElementsByTagName("path").item(0);
             for (int i = 0; i < pathElement.getElementsByTagName("connection").getLength(); i++) {
                 Element connectionElement = (Element) pathElement.getElementsByTagName("connection").item(i);
                 Connection connection = idRemapping.getConnectionWithOriginalId(Long.parseLong(connectionElement.getAttribute("id")));
 
-                path.addPosition(idRemapping.getWayPointWithNewId(connection.getFrom()));
+                path.add(idRemapping.getWayPointWithNewId(connection.getFrom()));
                 if (i == pathElement.getElementsByTagName("connection").getLength() - 1) {
                     // Add the last destination
-                    path.addPosition(idRemapping.getWayPointWithNewId(connection.getTo()));
+                    path.add(idRemapping.getWayPointWithNewId(connection.getTo()));
                 }
             }
             return path;
         }
 
-        Optional<Integer> getStartMovementOffset() {
+        Integer getStartMovementOffset() {
             if (hasChild(node, "startMovementOffset")) {
-                return Optional.of(Integer.parseInt(XMLHelper.readChild(node, "startMovementOffset")));
+                return Integer.parseInt(XMLHelper.readChild(node, "startMovementOffset"));
             }
-            return Optional.empty();
+            return null;
         }
 
-        Optional<Integer> getPeriodSendingPacket() {
+        Integer getPeriodSendingPacket() {
             if (hasChild(node, "periodSendingPacket")) {
-                return Optional.of(Integer.parseInt(XMLHelper.readChild(node, "periodSendingPacket")));
+                return Integer.parseInt(XMLHelper.readChild(node, "periodSendingPacket"));
             }
-            return Optional.empty();
+            return null;
         }
 
-        Optional<Integer> getStartSendingOffset() {
+        Integer getStartSendingOffset() {
             if (hasChild(node, "startSendingOffset")) {
-                return Optional.of(Integer.parseInt(XMLHelper.readChild(node, "startSendingOffset")));
+                return Integer.parseInt(XMLHelper.readChild(node, "startSendingOffset"));
             }
-            return Optional.empty();
+            return null;
         }
 
-        public Mote buildMote() {
-            var startMovementOffset = getStartMovementOffset();
-            var periodSendingPacket = getPeriodSendingPacket();
-            var startSendingOffset = getStartSendingOffset();
-            Mote mote;
-
-            if (startMovementOffset.isPresent() && periodSendingPacket.isPresent() && startSendingOffset.isPresent()) {
-                mote = MoteFactory.createMote(
-                    getDevEUI(),
-                    getMapCoordinates().getLeft(),
-                    getMapCoordinates().getRight(),
-                    getTransmissionPower(),
-                    getSpreadingFactor(),
-                    getMoteSensors(),
-                    getEnergyLevel(),
-                    getPath(),
-                    getMovementSpeed(),
-                    startMovementOffset.get(),
-                    periodSendingPacket.get(),
-                    startSendingOffset.get(),
-                    environment
-                );
-            } else {
-                mote = MoteFactory.createMote(
-                    getDevEUI(),
-                    getMapCoordinates().getLeft(),
-                    getMapCoordinates().getRight(),
-                    getTransmissionPower(),
-                    getSpreadingFactor(),
-                    getMoteSensors(),
-                    getEnergyLevel(),
-                    getPath(),
-                    getMovementSpeed(),
-                    environment
-                );
-            }
-            return mote;
+        public Configuration.MoteDescription readMote() {
+            return new Configuration.MoteDescription(
+                getDevEUI(),
+                getLocation(),
+                getTransmissionPower(),
+                getSpreadingFactor(),
+                getEnergyLevel(),
+                getMovementSpeed(),
+                getMoteSensors(),
+                getPath(),
+                getStartMovementOffset(),
+                getPeriodSendingPacket(),
+                getStartSendingOffset()
+            );
         }
     }
 
     private static class UserMoteReader extends MoteReader {
-        protected UserMoteReader(Element moteNode, Environment environment) {
-            super(moteNode, environment);
+        protected UserMoteReader(Element moteNode, IdRemapping idRemapping) {
+            super(moteNode, idRemapping);
         }
 
 
@@ -317,25 +327,13 @@ public class ConfigurationReader {
         }
 
         @Override
-        public Mote buildMote() {
-            UserMote userMote = MoteFactory.createUserMote(
-                getDevEUI(),
-                getMapCoordinates().getLeft(),
-                getMapCoordinates().getRight(),
-                getTransmissionPower(),
-                getSpreadingFactor(),
-                getMoteSensors(),
-                getEnergyLevel(),
-                getPath(),
-                getMovementSpeed(),
-                getStartMovementOffset().get(), // Intentional
-                getPeriodSendingPacket().get(), // Intentional
-                getStartSendingOffset().get(),  // Intentional
-                getDestination(),
-                environment
-            );
-            userMote.setActive(isActive());
-            return userMote;
+        public Configuration.MoteDescription readMote() {
+            var mote = super.readMote();
+            if (mote.startMovementOffset == null || mote.periodSendingPacket == null ||
+                mote.startSendingOffset == null) {
+                throw new IllegalArgumentException("A user mote needs its offsets and period of sending packets");
+            }
+            return new Configuration.UserMoteDescription(mote, getDestination(), isActive());
         }
     }
 }
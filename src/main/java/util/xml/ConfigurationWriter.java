@@ -27,7 +27,7 @@ public class ConfigurationWriter {
     private static IdRemapping idRemapping = new IdRemapping();
 
 
-    public static void saveConfigurationToFile(File file, SimulationRunner simulationRunner) {
+    public static synchronized void saveConfigurationToFile(File file, SimulationRunner simulationRunner) {
         idRemapping.reset();
 
         try {
@@ -76,6 +76,9 @@ public class ConfigurationWriter {
             Element characteristics = doc.createElement("characteristics");
             Element regionProperty = doc.createElement("regionProperty");
             regionProperty.setAttribute("numberOfZones", Integer.toString(environment.getNumberOfZones()));
+            regionProperty.setAttribute("propagationModel", environment.getPropagationModel().name());
+            regionProperty.setAttribute("numberOfChannels", Integer.toString(environment.getChannels().size()));
+            regionProperty.setAttribute("collisionModel", environment.getCollisionModel().name());
             characteristics.appendChild(regionProperty);
 
             int amountOfSquares = (int) Math.sqrt(environment.getNumberOfZones());
@@ -1,6 +1,5 @@
 package util.xml;
 
-import gui.MainGUI;
 import iot.InputProfile;
 import iot.QualityOfService;
 import org.w3c.dom.Document;
@@ -12,17 +11,40 @@ import selfadaptation.adaptationgoals.ThresholdAdaptationGoal;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 public class InputProfilesReader {
+    /**
+     * Reads the input profiles which are packaged with the simulator.
+     * @return The input profiles.
+     */
     public static List<InputProfile> readInputProfiles() {
+        return readInputProfiles(InputProfilesReader.class.getResourceAsStream("/inputProfiles/inputProfile.xml"));
+    }
+
+    /**
+     * Reads the input profiles from a file.
+     * @param file The input profiles file.
+     * @return The input profiles.
+     */
+    public static List<InputProfile> readInputProfiles(File file) {
+        try (var fileStream = new FileInputStream(file)) {
+            return readInputProfiles(fileStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new LinkedList<>();
+        }
+    }
+
+    private static List<InputProfile> readInputProfiles(InputStream fileStream) {
         List<InputProfile> inputProfiles = new LinkedList<>();
 
         try {
-            var fileStream = MainGUI.class.getResourceAsStream("/inputProfiles/inputProfile.xml");
-
             Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(fileStream);
             Element inputProfilesElement = doc.getDocumentElement();
 
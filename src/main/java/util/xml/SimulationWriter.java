@@ -8,6 +8,7 @@ import iot.networkentity.NetworkEntity;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import util.Statistics;
+import util.TimeHelper;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Transformer;
@@ -33,7 +34,7 @@ public class SimulationWriter {
                 for (Mote mote : simulation.getEnvironment().getMotes()) {
                     Element moteElement = doc.createElement("mote");
                     Element number = doc.createElement("number");
-                    number.appendChild(doc.createTextNode(Integer.toString(simulation.getEnvironment().getMotes().indexOf(mote) + 1)));
+                    number.appendChild(doc.createTextNode(Integer.toString(simulation.getEnvironment().getIndex(mote) + 1)));
                     moteElement.appendChild(number);
 
                     Element receivedTransmissions = writeLoraTransmissions(doc, mote, i, simulation);
@@ -44,7 +45,7 @@ public class SimulationWriter {
                 for (Gateway gateway : simulation.getEnvironment().getGateways()) {
                     Element gatewayElement = doc.createElement("gateway");
                     Element number = doc.createElement("number");
-                    number.appendChild(doc.createTextNode(((Integer) (simulation.getEnvironment().getGateways().indexOf(gateway) + 1)).toString()));
+                    number.appendChild(doc.createTextNode(Integer.toString(simulation.getEnvironment().getIndex(gateway) + 1)));
                     gatewayElement.appendChild(number);
 
                     Element receivedTransmissions = writeLoraTransmissions(doc, gateway, i, simulation);
@@ -72,22 +73,21 @@ public class SimulationWriter {
 
     private static Element writeLoraTransmissions(Document doc, NetworkEntity networkEntity, int run, Simulation simulation) {
         Element receivedTransmissions = doc.createElement("receivedTransmissions");
-        int i = 0;
         var env = simulation.getEnvironment();
         Statistics statistics = Statistics.getInstance();
-
-        for (LoraTransmission transmission : statistics.getSentTransmissions(networkEntity.getEUI(), run)) {
+        for (var sentTransmission : statistics.getSentTransmissionsWithPowerSetting(networkEntity.getEUI(), run)) {
+            LoraTransmission transmission = sentTransmission.getLeft();
             Element receivedTransmissionElement = doc.createElement("receivedTransmission");
             Element sender = doc.createElement("sender");
 
             var senderEntity = env.getNetworkEntityById(transmission.getSender());
             if (senderEntity instanceof Mote) {
                 Mote mote = (Mote) senderEntity;
-                int moteId = env.getMotes().indexOf(mote);
+                int moteId = env.getIndex(mote);
                 sender.appendChild(doc.createTextNode("Mote " + moteId));
             } else {
                 Gateway gateway = (Gateway) senderEntity;
-                int gatewayId = env.getGateways().indexOf(gateway);
+                int gatewayId = env.getIndex(gateway);
                 sender.appendChild(doc.createTextNode("Gateway " + gatewayId));
             }
 
@@ -100,6 +100,9 @@ public class SimulationWriter {
             Element spreadingFactor = doc.createElement("spreadingFactor");
             spreadingFactor.appendChild(doc.createTextNode(Double.toString(transmission.getSpreadingFactor())));
 
+            Element frequency = doc.createElement("frequency");
+            frequency.appendChild(doc.createTextNode(Integer.toString(transmission.getFrequency())));
+
             Element origin = doc.createElement("origin");
             Element xPos = doc.createElement("xPosition");
             xPos.appendChild(doc.createTextNode(""+transmission.getXPos()));
@@ -112,13 +115,15 @@ public class SimulationWriter {
             contentSize.appendChild(doc.createTextNode(""+transmission.getContent().getLength()));
 
             Element departureTime = doc.createElement("departureTime");
-            departureTime.appendChild(doc.createTextNode(transmission.getDepartureTime().toString()));
+            // The departure time is written as a time of the day, as before the time was kept in nanoseconds
+            var departureTimeOfDay = TimeHelper.toLocalTime(transmission.getDepartureTime());
+            departureTime.appendChild(doc.createTextNode(departureTimeOfDay.toString()));
 
             Element timeOnAir = doc.createElement("timeOnAir");
             timeOnAir.appendChild(doc.createTextNode(""+transmission.getTimeOnAir()));
 
             Element powerSetting = doc.createElement("powerSetting");
-            powerSetting.appendChild(doc.createTextNode(statistics.getPowerSettingHistory(networkEntity.getEUI(), run).get(i).toString()));
+            powerSetting.appendChild(doc.createTextNode(sentTransmission.getRight().toString()));
 
             Element collision = doc.createElement("collision");
             collision.appendChild(doc.createTextNode(""+transmission.isCollided()));
@@ -127,6 +132,7 @@ public class SimulationWriter {
             receivedTransmissionElement.appendChild(transmissionPower);
             receivedTransmissionElement.appendChild(bandwidth);
             receivedTransmissionElement.appendChild(spreadingFactor);
+            receivedTransmissionElement.appendChild(frequency);
             receivedTransmissionElement.appendChild(origin);
             receivedTransmissionElement.appendChild(contentSize);
             receivedTransmissionElement.appendChild(departureTime);
@@ -135,8 +141,6 @@ public class SimulationWriter {
             receivedTransmissionElement.appendChild(collision);
 
             receivedTransmissions.appendChild(receivedTransmissionElement);
-
-            i++;
         }
         return receivedTransmissions;
     }
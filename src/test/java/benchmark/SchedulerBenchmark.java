@@ -0,0 +1,61 @@
+package benchmark;
+
+import iot.GlobalClock;
+import iot.scheduler.SchedulerType;
+import org.openjdk.jmh.annotations.*;
+import util.TimeHelper;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link SchedulerType}s of {@link GlobalClock} on the clock alone: periodic triggers, of which every
+ * firing schedules a short one-shot trigger, advanced from event to event or in ticks of one millisecond.
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-cp %classpath org.openjdk.jmh.Main SchedulerBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    private static final int NUMBER_OF_TRIGGERS = 10_000;
+
+    @Param({"LEGACY", "HEAP", "TIMING_WHEEL"})
+    private SchedulerType schedulerType;
+
+    private GlobalClock clock;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        clock = new GlobalClock(schedulerType);
+        clock.reset();
+        var random = new Random(1);
+        for (int i = 0; i < NUMBER_OF_TRIGGERS; i++) {
+            // Periods between 1 s and 10 min, as the sampling and sending of the motes
+            long period = (1 + random.nextInt(600)) * TimeHelper.NANOS_PER_SECOND;
+            long oneShotDelay = (1 + random.nextInt(50)) * TimeHelper.NANOS_PER_MILLI;
+            clock.addTrigger(random.nextInt(600_000) * TimeHelper.NANOS_PER_MILLI, () -> {
+                clock.addTriggerOneShot(clock.getTime() + oneShotDelay, () -> {});
+                return clock.getTime() + period;
+            });
+        }
+    }
+
+    @Benchmark
+    public long nextEventSixHours() {
+        clock.advanceTo(6 * 3600 * TimeHelper.NANOS_PER_SECOND);
+        return clock.getTime();
+    }
+
+    @Benchmark
+    public long millisecondTicksOneHour() {
+        clock.tick(3600 * 1000);
+        return clock.getTime();
+    }
+}
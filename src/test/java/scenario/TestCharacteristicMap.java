@@ -0,0 +1,125 @@
+package scenario;
+
+import iot.Characteristic;
+import iot.SimulationContext;
+import iot.SimulationRunner;
+import iot.TimeAdvanceMode;
+import iot.networkentity.Gateway;
+import org.junit.jupiter.api.Test;
+import util.Statistics;
+
+import java.io.File;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCharacteristicMap {
+
+    private static final long SEED = 7;
+
+    /**
+     * The zones of test_configuration.xml.
+     */
+    private static final String[] ZONES = {
+        "Forest-Forest-Plain-Plain-City-City-City",
+        "Forest-Forest-Plain-Plain-City-City-City",
+        "Forest-Forest-Plain-Plain-City-City-City",
+        "Forest-Forest-Plain-Plain-City-City-City",
+        "Forest-Forest-City-Plain-City-City-City",
+        "City-Forest-Plain-Plain-City-City-City",
+        "City-Forest-Plain-Plain-City-City-City",
+    };
+
+    /**
+     * Fills an array with the zones like the configuration reader did before the characteristic raster,
+     * position by position.
+     */
+    private static Characteristic[][] fillZones(int width, int height) {
+        var characteristics = new Characteristic[width][height];
+        double widthSize = ((double) width) / ZONES.length;
+        double heightSize = ((double) height) / ZONES.length;
+        for (int i = 0; i < ZONES.length; i++) {
+            String[] row = ZONES[i].split("-");
+            for (int j = 0; j < row.length; j++) {
+                for (int x = (int) Math.round(j * widthSize); x < (int) Math.round((j + 1) * widthSize); x++) {
+                    for (int y = (int) Math.round(i * heightSize); y < (int) Math.round((i + 1) * heightSize); y++) {
+                        characteristics[x][y] = Characteristic.valueOf(row[j]);
+                    }
+                }
+            }
+        }
+        return characteristics;
+    }
+
+    private static void load() {
+        var runner = SimulationRunner.getInstance();
+        runner.loadConfigurationFromFile(new File(TestCharacteristicMap.class.getResource("test_configuration.xml").getPath()));
+    }
+
+    /**
+     * Simulates 30 minutes of the loaded configuration.
+     * @return The sender, departure time and transmission power of every transmission received by the gateways.
+     */
+    private static List<String> simulate() {
+        var runner = SimulationRunner.getInstance();
+        var inputProfile = runner.getInputProfiles().get(0);
+        inputProfile.setSimulationDuration(30).setTimeUnit(ChronoUnit.MINUTES);
+        runner.getSimulation().setInputProfile(inputProfile);
+        runner.setTimeAdvanceMode(TimeAdvanceMode.NEXT_EVENT);
+        runner.setupTimedRun();
+        var simulation = runner.getSimulation();
+        while (!simulation.isFinished()) {
+            simulation.simulateStep();
+        }
+        return runner.getEnvironment().getGateways().stream()
+            .map(Gateway::getEUI)
+            .flatMap(gateway -> Statistics.getInstance().getReceivedTransmissions(gateway, 0).stream())
+            .map(transmission -> transmission.getSender() + "@" + transmission.getDepartureTime() + ":" +
+                transmission.getTransmissionPower())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    void rasterHasTheCharacteristicsOfTheZones() {
+        new SimulationContext(SEED).call(() -> {
+            load();
+            var environment = SimulationRunner.getInstance().getEnvironment();
+            int width = environment.getMaxXpos() + 1;
+            int height = environment.getMaxYpos() + 1;
+            var characteristics = fillZones(width, height);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    assertEquals(characteristics[x][y], environment.getCharacteristic(x, y));
+                }
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void seededRunIsTheSameAsOnAMapOfPositions() {
+        var expected = new SimulationContext(SEED).call(() -> {
+            load();
+            return simulate();
+        });
+        var actual = new SimulationContext(SEED).call(() -> {
+            load();
+            // Store every position on its own, like the array of characteristics before the raster
+            var environment = SimulationRunner.getInstance().getEnvironment();
+            int width = environment.getMaxXpos() + 1;
+            int height = environment.getMaxYpos() + 1;
+            var characteristics = fillZones(width, height);
+            environment.setCharacteristics(null, 0, 0, width, height);
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    environment.setCharacteristics(characteristics[x][y], x, y);
+                }
+            }
+            return simulate();
+        });
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,40 @@
+package scenario;
+
+import cli.HeadlessRunner;
+import iot.SimulationContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestHeadlessRunner {
+
+    @Test
+    void timedRun(@TempDir Path output) {
+        var configuration = TestHeadlessRunner.class.getResource("test_configuration.xml").getPath();
+        var results = output.resolve("results.xml");
+        var log = new ByteArrayOutputStream();
+
+        int exitCode = new SimulationContext().call(() -> HeadlessRunner.run(new String[] {
+            "--configuration", configuration,
+            "--run", "timed",
+            "--time-advance", "NEXT_EVENT",
+            "--output", results.toString()
+        }, new PrintStream(log)));
+
+        assertEquals(exitCode, 0);
+        assertTrue(results.toFile().length() > 0);
+        assertTrue(log.toString().startsWith("Startup: "));
+    }
+
+    @Test
+    void missingConfiguration() {
+        var log = new ByteArrayOutputStream();
+        assertEquals(HeadlessRunner.run(new String[] {"--run", "single"}, new PrintStream(log)), 2);
+        assertTrue(log.toString().startsWith("Usage: "));
+    }
+}
@@ -0,0 +1,148 @@
+package scenario;
+
+import iot.MoteUpdateMode;
+import iot.SimulationContext;
+import iot.SimulationRunner;
+import iot.TimeAdvanceMode;
+import iot.lora.LoraTransmission;
+import iot.networkentity.Mote;
+import iot.networkentity.MoteFactory;
+import org.junit.jupiter.api.Test;
+import util.Path;
+import util.Statistics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMoteUpdateMode {
+
+    private static final int NUMBER_OF_COPIES = 64;
+    private static final int NO_SENDING_OFFSET = 24 * 60 * 60;
+    private static final int PATH_REPLACED_AFTER = 100;
+
+    /**
+     * @return A copy of a mote which does not send packets.
+     */
+    private static Mote copy(Mote original, int i) {
+        var environment = SimulationRunner.getInstance().getEnvironment();
+        return MoteFactory.createMote(original.getEUI() + i, original.getXPosInt(), original.getYPosInt(),
+            original.getTransmissionPower(), original.getSF(), original.getSensors(), original.getEnergyLevel(),
+            new Path(original.getPath().getWayPoints(), environment.getGraph()), original.getMovementSpeed(),
+            original.getStartMovementOffset(), original.getPeriodSendingPacket(), NO_SENDING_OFFSET, environment);
+    }
+
+    private static void simulate(MoteUpdateMode moteUpdateMode) {
+        var runner = SimulationRunner.getInstance();
+        var inputProfile = runner.getInputProfiles().get(0);
+        for (int i = 0; i < runner.getEnvironment().getMotes().size(); i++) {
+            inputProfile.putProbabilityForMote(i, 1.0);
+        }
+        runner.getSimulation().setInputProfile(inputProfile);
+        runner.setTimeAdvanceMode(TimeAdvanceMode.NEXT_EVENT);
+        runner.setMoteUpdateMode(moteUpdateMode);
+        runner.setupSingleRun();
+        while (!runner.getSimulation().isFinished()) {
+            runner.getSimulation().simulateStep();
+        }
+    }
+
+    /**
+     * Executes a single run in which the mote of the test configuration is copied a number of times,
+     * so that enough motes move at the same time to update them in parallel.
+     * Only the original mote sends packets, to keep the run short.
+     * @return The final position and the departure times of every mote.
+     */
+    private static List<String> execute(MoteUpdateMode moteUpdateMode) {
+        return new SimulationContext().call(() -> {
+            var runner = SimulationRunner.getInstance();
+            runner.loadConfigurationFromFile(new File(TestMoteUpdateMode.class.getResource("test_configuration.xml").getPath()));
+            var environment = runner.getEnvironment();
+            Mote original = environment.getMotes().get(0);
+            for (int i = 1; i <= NUMBER_OF_COPIES; i++) {
+                environment.addMote(copy(original, i));
+            }
+            simulate(moteUpdateMode);
+
+            return environment.getMotes().stream()
+                .map(mote -> mote.getXPosDouble() + "," + mote.getYPosDouble() + ":" +
+                    Statistics.getInstance().getSentTransmissions(mote.getEUI(), 0).stream()
+                        .map(LoraTransmission::getDepartureTime)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void parallelEqualsSerial() {
+        var serial = execute(MoteUpdateMode.SERIAL);
+        var parallel = execute(MoteUpdateMode.PARALLEL);
+
+        assertEquals(serial.size(), NUMBER_OF_COPIES + 1);
+        assertEquals(parallel, serial);
+    }
+
+    /**
+     * Executes a single run in which one of the copies of the mote of the test configuration gives the path of the
+     * original mote to a mote without a path, while the motes are updated.
+     * @return The time at which the path is replaced, followed by the times at which the mote without a path moves.
+     */
+    private static List<Long> executeWithPathDuringStep(MoteUpdateMode moteUpdateMode) {
+        return new SimulationContext().call(() -> {
+            var runner = SimulationRunner.getInstance();
+            runner.loadConfigurationFromFile(new File(TestMoteUpdateMode.class.getResource("test_configuration.xml").getPath()));
+            var environment = runner.getEnvironment();
+            var clock = environment.getClock();
+            Mote original = environment.getMotes().get(0);
+            List<Long> times = Collections.synchronizedList(new ArrayList<>());
+
+            // Comes after the other motes, so that it would still be handled in the step in which its path is replaced
+            Mote receiver = new Mote(original.getEUI() + NUMBER_OF_COPIES + 1, original.getXPosInt(),
+                original.getYPosInt(), original.getTransmissionPower(), original.getSF(), original.getSensors(),
+                original.getEnergyLevel(), new Path(environment.getGraph()), original.getMovementSpeed(),
+                original.getStartMovementOffset(), original.getPeriodSendingPacket(), NO_SENDING_OFFSET, environment) {
+                @Override
+                public void setPos(double xPos, double yPos) {
+                    times.add(clock.getTime());
+                    super.setPos(xPos, yPos);
+                }
+            };
+            Mote sender = new Mote(original.getEUI() + 1, original.getXPosInt(), original.getYPosInt(),
+                original.getTransmissionPower(), original.getSF(), original.getSensors(), original.getEnergyLevel(),
+                new Path(original.getPath().getWayPoints(), environment.getGraph()), original.getMovementSpeed(),
+                original.getStartMovementOffset(), original.getPeriodSendingPacket(), NO_SENDING_OFFSET, environment) {
+                private int handled = 0;
+
+                @Override
+                public void consumePackets() {
+                    super.consumePackets();
+                    if (++handled == PATH_REPLACED_AFTER) {
+                        times.add(0, clock.getTime());
+                        receiver.setPath(new ArrayList<>(original.getPath().getWayPoints()));
+                    }
+                }
+            };
+            environment.addMote(sender);
+            for (int i = 2; i <= NUMBER_OF_COPIES; i++) {
+                environment.addMote(copy(original, i));
+            }
+            environment.addMote(receiver);
+            simulate(moteUpdateMode);
+            return new ArrayList<>(times);
+        });
+    }
+
+    @Test
+    void pathReplacedDuringAStepTakesEffectInTheNextStep() {
+        var serial = executeWithPathDuringStep(MoteUpdateMode.SERIAL);
+        var parallel = executeWithPathDuringStep(MoteUpdateMode.PARALLEL);
+
+        assertTrue(serial.size() > 1);
+        assertTrue(serial.get(1) > serial.get(0));
+        assertEquals(parallel, serial);
+    }
+}
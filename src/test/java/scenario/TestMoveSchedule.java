@@ -0,0 +1,78 @@
+package scenario;
+
+import iot.Environment;
+import iot.SimulationContext;
+import iot.SimulationRunner;
+import iot.TimeAdvanceMode;
+import iot.networkentity.Mote;
+import org.junit.jupiter.api.Test;
+import util.Path;
+
+import java.io.File;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMoveSchedule {
+
+    private static final int NO_SENDING_OFFSET = 24 * 60 * 60;
+
+    /**
+     * A mote which counts how many times it is handled by the simulation (every handled mote is checked if it is
+     * enabled).
+     */
+    private static class CountingMote extends Mote {
+        private int visits = 0;
+
+        CountingMote(long devEUI, Mote original, Path path, Environment environment) {
+            super(devEUI, original.getXPosInt(), original.getYPosInt(), original.getTransmissionPower(),
+                original.getSF(), original.getSensors(), original.getEnergyLevel(), path,
+                original.getMovementSpeed(), 0, original.getPeriodSendingPacket(), NO_SENDING_OFFSET,
+                environment);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            visits++;
+            return super.isEnabled();
+        }
+    }
+
+    @Test
+    void finishedAndDisabledMotesAreNotVisited() {
+        new SimulationContext().call(() -> {
+            var runner = SimulationRunner.getInstance();
+            runner.loadConfigurationFromFile(new File(TestMoveSchedule.class.getResource("test_configuration.xml").getPath()));
+            var environment = runner.getEnvironment();
+            Mote original = environment.getMotes().get(0);
+            var wayPoints = original.getPath().getWayPoints();
+            var finished = new CountingMote(original.getEUI() + 1, original,
+                new Path(wayPoints.subList(0, 2), environment.getGraph()), environment);
+            var disabled = new CountingMote(original.getEUI() + 2, original,
+                new Path(wayPoints, environment.getGraph()), environment);
+            environment.addMote(finished);
+            environment.addMote(disabled);
+
+            var inputProfile = runner.getInputProfiles().get(0);
+            inputProfile.setSimulationDuration(30).setTimeUnit(ChronoUnit.MINUTES);
+            runner.getSimulation().setInputProfile(inputProfile);
+            runner.setTimeAdvanceMode(TimeAdvanceMode.NEXT_EVENT);
+            runner.setupTimedRun();
+            disabled.enable(false);
+
+            var simulation = runner.getSimulation();
+            while (!finished.isArrivedToDestination()) {
+                simulation.simulateStep();
+            }
+            int visits = finished.visits;
+            while (!simulation.isFinished()) {
+                simulation.simulateStep();
+            }
+
+            // Once to select the next waypoint at the destination, once to find that no waypoints are left
+            assertTrue(finished.visits <= visits + 2, "visits after arriving: " + (finished.visits - visits));
+            assertTrue(disabled.visits <= 1, "visits of the disabled mote: " + disabled.visits);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,142 @@
+package scenario;
+
+import iot.Characteristic;
+import iot.Environment;
+import iot.MultiRunExecutor;
+import iot.SimulationContext;
+import iot.SimulationRunner;
+import iot.lora.LoraTransmission;
+import iot.networkentity.Mote;
+import org.junit.jupiter.api.Test;
+import util.MutableInteger;
+import util.Pair;
+import util.Statistics;
+import util.xml.Configuration;
+import util.xml.ConfigurationReader;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestMultiRunExecutor {
+
+    private final File configuration = new File(TestMultiRunExecutor.class.getResource("test_configuration.xml").getPath());
+
+    private static void setup(SimulationRunner runner) {
+        var inputProfile = runner.getInputProfiles().get(0);
+        for (int i = 0; i < runner.getEnvironment().getMotes().size(); i++) {
+            inputProfile.putProbabilityForMote(i, 1.0);
+        }
+        runner.getSimulation().setInputProfile(inputProfile);
+    }
+
+    /**
+     * @return The EUI, position and path of every mote of an environment.
+     */
+    private static List<String> describeMotes(Environment environment) {
+        return environment.getMotes().stream()
+            .map(mote -> mote.getEUI() + "@" + mote.getXPosInt() + "," + mote.getYPosInt() + ":" +
+                mote.getPath().getWayPoints())
+            .collect(Collectors.toList());
+    }
+
+    private static Map<Long, List<Long>> getDepartureTimes(Statistics statistics, Set<Long> motes, int run) {
+        return motes.stream().collect(Collectors.toMap(eui -> eui, eui -> statistics.getSentTransmissions(eui) == null ?
+            List.of() :
+            statistics.getSentTransmissions(eui, run).stream()
+                .map(LoraTransmission::getDepartureTime)
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Executes the runs in a new context and returns the merged statistics.
+     */
+    private Statistics execute(int numberOfRuns, int numberOfThreads, List<Pair<Integer, Integer>> progress) {
+        var executor = new MultiRunExecutor(configuration, TestMultiRunExecutor::setup, numberOfThreads);
+        return new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            var merged = new MutableInteger(0);
+            executor.execute(numberOfRuns, run -> {
+                if (merged.intValue() > 0) {
+                    statistics.addRun();
+                }
+                statistics.mergeRun(run);
+                merged.setValue(merged.intValue() + 1);
+            }, progress::add);
+            assertEquals(merged.intValue(), numberOfRuns);
+            return statistics;
+        });
+    }
+
+    @Test
+    void isolatedParallelRuns() {
+        var sequential = execute(3, 1, new ArrayList<>());
+        List<Pair<Integer, Integer>> progress = Collections.synchronizedList(new ArrayList<>());
+        var parallel = execute(3, 3, progress);
+
+        var motes = new SimulationContext().call(() -> {
+            var runner = SimulationRunner.getInstance();
+            runner.loadConfigurationFromFile(configuration);
+            return runner.getEnvironment().getMotes().stream()
+                .map(Mote::getEUI)
+                .collect(Collectors.toSet());
+        });
+        // Every run is seeded in the same way, whether it is executed sequentially or in parallel
+        for (int run = 0; run < 3; run++) {
+            var expected = getDepartureTimes(sequential, motes, run);
+            assertTrue(expected.values().stream().anyMatch(l -> !l.isEmpty()));
+            assertEquals(getDepartureTimes(parallel, motes, run), expected);
+        }
+        assertTrue(getDepartureTimes(parallel, motes, 3).values().stream().allMatch(List::isEmpty));
+
+        // The last progress update is only given after all the runs have been merged
+        var last = progress.get(progress.size() - 1);
+        assertEquals(last.getLeft(), 3);
+        assertEquals(last.getRight(), 3);
+        assertEquals(progress.size(), 3);
+    }
+
+    @Test
+    void environmentsOfOneConfigurationAreCreatedInParallel() throws Exception {
+        Configuration read = ConfigurationReader.readConfiguration(configuration).orElseThrow();
+        var expected = new SimulationContext().call(() -> {
+            SimulationRunner.getInstance().loadConfigurationFromFile(configuration);
+            return describeMotes(SimulationRunner.getInstance().getEnvironment());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Environment>> environments = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                environments.add(executor.submit(() -> new SimulationContext().call(() -> {
+                    var runner = SimulationRunner.getInstance();
+                    runner.loadConfiguration(read);
+                    return runner.getEnvironment();
+                })));
+            }
+            var first = environments.get(0).get();
+            var second = environments.get(1).get();
+            for (var environment : environments) {
+                assertEquals(describeMotes(environment.get()), expected);
+            }
+
+            // Changing the map of one environment does not change the others
+            var characteristic = second.getCharacteristic(0, 0);
+            var changed = characteristic == Characteristic.City ? Characteristic.Forest : Characteristic.City;
+            int numberOfWayPoints = second.getGraph().getWayPoints().size();
+            first.setCharacteristics(changed, 0, 0);
+            first.getGraph().addWayPoint(first.getMapOrigin());
+            assertEquals(second.getCharacteristic(0, 0), characteristic);
+            assertEquals(second.getGraph().getWayPoints().size(), numberOfWayPoints);
+            assertEquals(new SimulationContext().call(() -> read.createEnvironment().getCharacteristic(0, 0)),
+                characteristic);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
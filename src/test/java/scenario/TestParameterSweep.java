@@ -0,0 +1,52 @@
+package scenario;
+
+import iot.ParameterSweep;
+import iot.QualityOfService;
+import iot.SimulationContext;
+import iot.SimulationRunner;
+import iot.TimeAdvanceMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import selfadaptation.adaptationgoals.IntervalAdaptationGoal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestParameterSweep {
+
+    @Test
+    void everyCombination(@TempDir Path output) throws IOException {
+        var configuration = new File(TestParameterSweep.class.getResource("test_configuration.xml").getPath());
+        var inputProfile = new SimulationContext().call(() -> SimulationRunner.getInstance().getInputProfiles().get(0));
+        inputProfile.setNumberOfRuns(2);
+        var qos = new QualityOfService(new HashMap<>());
+        qos.putAdaptationGoal("reliableCommunication", new IntervalAdaptationGoal(-48, -42));
+
+        var sweep = new ParameterSweep()
+            .addConfiguration(configuration)
+            .addInputProfile(inputProfile)
+            .addApproach("No Adaptation")
+            .addApproach("Signal-based")
+            .addQualityOfService(qos)
+            .setTimeAdvanceMode(TimeAdvanceMode.NEXT_EVENT)
+            .setNumberOfThreads(2);
+        assertEquals(sweep.getCells().size(), 2);
+
+        var results = sweep.execute(output.toFile());
+
+        assertEquals(results.size(), 2);
+        for (var cellResults : results.values()) {
+            assertEquals(cellResults.size(), 2);
+            assertTrue(cellResults.stream().allMatch(r -> r.getSentPackets() > 0));
+        }
+        assertEquals(Files.readAllLines(output.resolve("cells.csv")).size(), 3);
+        var rows = Files.readAllLines(output.resolve("cell_1.csv"));
+        assertEquals(rows.size(), 3);
+        assertTrue(rows.get(0).startsWith("run,"));
+    }
+}
@@ -0,0 +1,126 @@
+package scenario;
+
+import iot.SimulationContext;
+import iot.SimulationRunner;
+import iot.TimeAdvanceMode;
+import iot.lora.LoraTransmission;
+import org.junit.jupiter.api.Test;
+import util.Statistics;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSimulationFork {
+
+    private static final int WARM_UP_STEPS = 200;
+
+    private static void setup() {
+        var runner = SimulationRunner.getInstance();
+        runner.loadConfigurationFromFile(new File(TestSimulationFork.class.getResource("test_configuration.xml").getPath()));
+        runner.getSimulation().setInputProfile(runner.getInputProfiles().get(0));
+        runner.setTimeAdvanceMode(TimeAdvanceMode.NEXT_EVENT);
+        runner.setupSingleRun();
+    }
+
+    /**
+     * Simulates a number of steps, or until the run is finished if the number of steps is negative.
+     * @return The number of simulated steps.
+     */
+    private static int simulate(int steps) {
+        var simulation = SimulationRunner.getInstance().getSimulation();
+        int step = 0;
+        while (step != steps && !simulation.isFinished()) {
+            simulation.simulateStep();
+            step++;
+        }
+        return step;
+    }
+
+    /**
+     * @return The time, the positions of the motes and their departure times in the current context.
+     */
+    private static List<String> getState() {
+        var environment = SimulationRunner.getInstance().getEnvironment();
+        return environment.getMotes().stream()
+            .map(mote -> environment.getClock().getTime() + "@" + mote.getXPosDouble() + "," + mote.getYPosDouble() + ":" +
+                Statistics.getInstance().getSentTransmissions(mote.getEUI(), 0).stream()
+                    .map(LoraTransmission::getDepartureTime)
+                    .collect(Collectors.toList()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Changes the simulation in another way than simulating it: the motes move at half their speed from now on.
+     */
+    private static void slowDown() {
+        SimulationRunner.getInstance().getEnvironment().getMotes()
+            .forEach(mote -> mote.setMovementSpeed(mote.getMovementSpeed() / 2));
+    }
+
+    @Test
+    void restoredSnapshotContinuesLikeTheOriginal() {
+        var straight = new SimulationContext();
+        var expected = straight.call(() -> {
+            setup();
+            simulate(WARM_UP_STEPS);
+            slowDown();
+            simulate(-1);
+            return getState();
+        });
+
+        var warmUp = new SimulationContext();
+        var warmUpState = warmUp.call(() -> {
+            setup();
+            simulate(WARM_UP_STEPS);
+            slowDown();
+            return getState();
+        });
+        var snapshot = warmUp.snapshot();
+
+        var restored = snapshot.restore();
+        assertEquals(warmUpState, restored.call(TestSimulationFork::getState));
+        restored.call(() -> simulate(-1));
+        assertEquals(expected, restored.call(TestSimulationFork::getState));
+
+        // The original is not affected by the restored context
+        assertEquals(warmUpState, warmUp.call(TestSimulationFork::getState));
+        warmUp.call(() -> simulate(-1));
+        assertEquals(expected, warmUp.call(TestSimulationFork::getState));
+
+        // The snapshot can be restored again
+        var restoredAgain = snapshot.restore();
+        assertEquals(warmUpState, restoredAgain.call(TestSimulationFork::getState));
+        restoredAgain.call(() -> simulate(-1));
+        assertEquals(expected, restoredAgain.call(TestSimulationFork::getState));
+    }
+
+    @Test
+    void forkDoesNotShareStateWithTheOriginal() {
+        var straight = new SimulationContext();
+        var expected = straight.call(() -> {
+            setup();
+            simulate(-1);
+            return getState();
+        });
+
+        var original = new SimulationContext();
+        original.call(() -> {
+            setup();
+            return simulate(WARM_UP_STEPS);
+        });
+        var fork = original.fork();
+        assertNotSame(original.call(SimulationRunner::getInstance), fork.call(SimulationRunner::getInstance));
+        assertNotSame(original.call(Statistics::getInstance), fork.call(Statistics::getInstance));
+
+        fork.call(() -> {
+            slowDown();
+            return simulate(-1);
+        });
+        original.call(() -> simulate(-1));
+        assertEquals(expected, original.call(TestSimulationFork::getState));
+        assertNotEquals(expected, fork.call(TestSimulationFork::getState));
+    }
+}
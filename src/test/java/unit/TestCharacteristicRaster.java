@@ -0,0 +1,98 @@
+package unit;
+
+import iot.Characteristic;
+import iot.CharacteristicRaster;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCharacteristicRaster {
+
+    @Test
+    void rasterOfMapHasTheSameCharacteristics() {
+        var random = new Random(1);
+        Characteristic[][] characteristics = new Characteristic[150][130];
+        for (int x = 0; x < 150; x++) {
+            for (int y = 0; y < 130; y++) {
+                if (x < 64 && y < 64) {
+                    characteristics[x][y] = Characteristic.Forest;
+                } else if (x > 100 || y > 70) {
+                    characteristics[x][y] = random.nextBoolean() ? null : Characteristic.values()[random.nextInt(3)];
+                } else {
+                    characteristics[x][y] = Characteristic.City;
+                }
+            }
+        }
+        var raster = CharacteristicRaster.of(characteristics);
+        assertEquals(raster.getWidth(), 150);
+        assertEquals(raster.getHeight(), 130);
+        for (int x = 0; x < 150; x++) {
+            for (int y = 0; y < 130; y++) {
+                assertEquals(raster.get(x, y), characteristics[x][y]);
+            }
+        }
+    }
+
+    @Test
+    void setOnlyChangesOnePosition() {
+        var raster = new CharacteristicRaster(100, 100);
+        raster.fill(Characteristic.Plain, 0, 0, 100, 100);
+        raster.set(Characteristic.City, 10, 20);
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                assertEquals(raster.get(x, y), x == 10 && y == 20 ? Characteristic.City : Characteristic.Plain);
+            }
+        }
+    }
+
+    @Test
+    void fillOnlyChangesTheRectangle() {
+        var raster = new CharacteristicRaster(300, 200);
+        raster.fill(Characteristic.Forest, 0, 0, 300, 200);
+        raster.set(Characteristic.City, 70, 70);
+        raster.fill(Characteristic.Plain, 50, 30, 250, 199);
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 200; y++) {
+                boolean inside = x >= 50 && x < 250 && y >= 30 && y < 199;
+                assertEquals(raster.get(x, y), inside ? Characteristic.Plain : Characteristic.Forest);
+            }
+        }
+    }
+
+    @Test
+    void copyDoesNotShareTheTiles() {
+        var raster = new CharacteristicRaster(100, 100);
+        raster.fill(Characteristic.Plain, 0, 0, 100, 100);
+        raster.set(Characteristic.City, 10, 20);
+        var copy = raster.copy();
+        copy.set(Characteristic.Forest, 10, 20);
+        copy.fill(Characteristic.City, 64, 64, 100, 100);
+        assertEquals(raster.get(10, 20), Characteristic.City);
+        assertEquals(raster.get(80, 80), Characteristic.Plain);
+        assertEquals(copy.get(10, 20), Characteristic.Forest);
+        assertEquals(copy.get(80, 80), Characteristic.City);
+        assertEquals(copy.get(50, 50), Characteristic.Plain);
+    }
+
+    @Test
+    void positionOutsideTheRasterThrows() {
+        var raster = new CharacteristicRaster(100, 100);
+        raster.fill(Characteristic.Plain, 0, 0, 100, 100);
+        // A negative y-coordinate would otherwise read the tile of the previous column
+        assertThrows(IndexOutOfBoundsException.class, () -> raster.get(70, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> raster.get(-1, 50));
+        assertThrows(IndexOutOfBoundsException.class, () -> raster.get(100, 50));
+        assertThrows(IndexOutOfBoundsException.class, () -> raster.get(50, 100));
+        assertThrows(IndexOutOfBoundsException.class, () -> raster.set(Characteristic.City, 70, -1));
+        assertEquals(raster.get(99, 99), Characteristic.Plain);
+    }
+
+    @Test
+    void emptyRasterHasNoCharacteristics() {
+        var raster = new CharacteristicRaster(10, 10);
+        assertNull(raster.get(9, 9));
+        assertThrows(IllegalArgumentException.class, () -> new CharacteristicRaster(0, 10));
+    }
+}
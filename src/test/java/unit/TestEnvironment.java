@@ -3,6 +3,7 @@ package unit;
 
 import iot.Characteristic;
 import iot.Environment;
+import iot.lora.EU868Channel;
 import iot.networkentity.Gateway;
 import iot.networkentity.Mote;
 import iot.strategy.response.gateway.DummyResponse;
@@ -11,11 +12,12 @@ import org.jxmapviewer.viewer.GeoPosition;
 import util.Connection;
 import util.Path;
 
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,7 +38,7 @@ class TestEnvironment {
 
         assertTrue(environment.getMotes().isEmpty());
         assertTrue(environment.getGateways().isEmpty());
-        assertEquals(environment.getClock().getTime(), LocalTime.of(0,0,0));
+        assertEquals(environment.getClock().getTime(), 0);
         assertNull(environment.getCharacteristic(0,0));
         assertEquals(environment.getMapCenter(), new GeoPosition(5,5));
         assertEquals(environment.getMaxXpos(), 0);
@@ -178,6 +180,53 @@ class TestEnvironment {
         assertEquals(mote.getYPosInt(), 400);
     }
 
+    @Test
+    void channels() {
+        Environment environment = new Environment(new Characteristic[10][10], new GeoPosition(10, 10), 1, new HashMap<>(), new HashMap<>());
+        assertEquals(environment.getChannels(), List.of(EU868Channel.CHANNEL_0));
+
+        environment.setNumberOfChannels(3);
+        assertEquals(environment.getChannels(), List.of(EU868Channel.CHANNEL_0, EU868Channel.CHANNEL_1, EU868Channel.CHANNEL_2));
+
+        assertThrows(IllegalArgumentException.class, () -> environment.setNumberOfChannels(0));
+        assertThrows(IllegalArgumentException.class, () -> environment.setNumberOfChannels(9));
+    }
+
+    @Test
+    void networkEntitiesById() {
+        Environment environment = new Environment(new Characteristic[10][10], new GeoPosition(10, 10), 1, new HashMap<>(), new HashMap<>());
+
+        Mote mote1 = generateDummyMote(environment, 1);
+        Mote mote2 = generateDummyMote(environment, 2);
+        Mote duplicateMote = generateDummyMote(environment, 2);
+        Gateway gateway = generateDummyGateway(environment, 3);
+        environment.addMote(mote1);
+        environment.addMote(mote2);
+        environment.addMote(duplicateMote);
+        environment.addGateway(gateway);
+
+        var registry = environment.getNetworkEntityRegistry();
+        assertSame(environment.getNetworkEntityById(2), mote2);
+        assertSame(environment.getNetworkEntityById(3), gateway);
+        assertThrows(NoSuchElementException.class, () -> environment.getNetworkEntityById(4));
+        assertTrue(registry.isMote(1));
+        assertFalse(registry.isGateway(1));
+        assertTrue(registry.isGateway(3));
+        assertEquals(registry.getMote(3), Optional.empty());
+        assertEquals(environment.getIndex(mote2), 1);
+        assertEquals(environment.getIndex(duplicateMote), 2);
+        assertEquals(environment.getIndex(gateway), 0);
+
+        assertTrue(environment.removeMote(mote1));
+        assertFalse(environment.removeMote(mote1));
+        assertFalse(environment.getNetworkEntityRegistry().isMote(1));
+        assertEquals(environment.getIndex(mote2), 0);
+        assertEquals(environment.getIndex(duplicateMote), 1);
+
+        assertTrue(environment.removeGateway(gateway));
+        assertThrows(NoSuchElementException.class, () -> environment.getNetworkEntityById(3));
+    }
+
     @Test
     void multipleEnvironments() {
         // TODO
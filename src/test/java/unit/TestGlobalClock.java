@@ -0,0 +1,125 @@
+package unit;
+
+import iot.GlobalClock;
+import org.junit.jupiter.api.Test;
+import util.TimeHelper;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestGlobalClock {
+
+    private List<String> scheduleTriggers(GlobalClock clock) {
+        List<String> fired = new LinkedList<>();
+        clock.addTriggerOneShot(TimeHelper.secToNano(5), () -> fired.add("a"));
+        clock.addTriggerOneShot(TimeHelper.secToNano(5), () -> fired.add("b"));
+        clock.addTriggerOneShot(TimeHelper.secToNano(1), () -> fired.add("c"));
+        clock.addTrigger(TimeHelper.secToNano(2), () -> {
+            fired.add("periodic");
+            return clock.getTime() + TimeHelper.secToNano(3);
+        });
+        var removed = clock.addTriggerOneShot(TimeHelper.secToNano(3), () -> fired.add("removed"));
+        removed.cancel();
+        return fired;
+    }
+
+    @Test
+    void happyDay() {
+        GlobalClock clock = new GlobalClock();
+
+        assertEquals(clock.getTime(), 0);
+        assertTrue(clock.getNextTriggerTime().isEmpty());
+
+        clock.tick(1500);
+        assertEquals(clock.getTime(), TimeHelper.miliToNano(1500L));
+        assertEquals(clock.getTimeOfDay(), LocalTime.of(0, 0, 1, 500_000_000));
+
+        clock.advanceTo(TimeHelper.secToNano(3));
+        assertEquals(clock.getTime(), TimeHelper.secToNano(3));
+
+        clock.reset();
+        assertEquals(clock.getTime(), 0);
+    }
+
+    @Test
+    void nextTriggerTime() {
+        GlobalClock clock = new GlobalClock();
+        scheduleTriggers(clock);
+
+        assertEquals(clock.getNextTriggerTime().orElseThrow(), TimeHelper.secToNano(1));
+        clock.advanceTo(clock.getNextTriggerTime().orElseThrow());
+        assertEquals(clock.getTime(), TimeHelper.secToNano(1));
+        assertEquals(clock.getNextTriggerTime().orElseThrow(), TimeHelper.secToNano(2));
+    }
+
+    @Test
+    void sameOrderAsTick() {
+        GlobalClock tickClock = new GlobalClock();
+        List<String> ticked = scheduleTriggers(tickClock);
+        tickClock.tick(10_000);
+
+        GlobalClock eventClock = new GlobalClock();
+        List<String> advanced = scheduleTriggers(eventClock);
+        while (eventClock.getNextTriggerTime().isPresent() &&
+            eventClock.getNextTriggerTime().getAsLong() < TimeHelper.secToNano(10)) {
+            eventClock.advanceTo(eventClock.getNextTriggerTime().getAsLong());
+        }
+        eventClock.advanceTo(TimeHelper.secToNano(10));
+
+        assertEquals(advanced, ticked);
+        assertEquals(advanced, List.of("c", "periodic", "periodic", "b", "a", "periodic"));
+        assertEquals(eventClock.getTime(), tickClock.getTime());
+    }
+
+    @Test
+    void cancelAndReschedule() {
+        GlobalClock clock = new GlobalClock();
+        List<String> fired = new LinkedList<>();
+
+        var cancelled = clock.addTriggerOneShot(TimeHelper.secToNano(1), () -> fired.add("cancelled"));
+        var moved = clock.addTriggerOneShot(TimeHelper.secToNano(1), () -> fired.add("moved"));
+        var periodic = clock.addTrigger(TimeHelper.secToNano(2), () -> {
+            fired.add("periodic");
+            return clock.getTime() + TimeHelper.secToNano(1);
+        });
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.isScheduled());
+        assertFalse(cancelled.cancel());
+        moved.reschedule(TimeHelper.secToNano(3));
+        moved.reschedule(TimeHelper.secToNano(1));
+        moved.reschedule(TimeHelper.secToNano(3));
+
+        clock.advanceTo(TimeHelper.secToNano(3));
+        assertEquals(fired, List.of("periodic", "periodic", "moved"));
+        assertFalse(moved.isScheduled());
+        assertTrue(periodic.isScheduled());
+
+        // A fired one shot trigger can be scheduled again
+        moved.reschedule(TimeHelper.secToNano(5));
+        periodic.cancel();
+        clock.advanceTo(TimeHelper.secToNano(10));
+        assertEquals(fired, List.of("periodic", "periodic", "moved", "moved"));
+    }
+
+    @Test
+    void multipleDays() {
+        GlobalClock clock = new GlobalClock();
+        long oneDay = Duration.ofDays(1).toNanos();
+        List<Long> fired = new LinkedList<>();
+        clock.addTrigger(oneDay / 2, () -> {
+            fired.add(clock.getTime());
+            return clock.getTime() + oneDay;
+        });
+
+        clock.advanceTo(7 * oneDay);
+
+        assertEquals(fired.size(), 7);
+        assertEquals(fired.get(6), 6 * oneDay + oneDay / 2);
+        assertEquals(clock.getElapsedTime(), Duration.ofDays(7));
+        assertEquals(clock.getTimeOfDay(), LocalTime.of(0, 0));
+    }
+}
@@ -0,0 +1,71 @@
+package unit;
+
+import iot.Characteristic;
+import iot.Environment;
+import iot.propagation.PropagationModel;
+import org.junit.jupiter.api.Test;
+import org.jxmapviewer.viewer.GeoPosition;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestPathLossModel {
+
+    private Environment generateEnvironment(Characteristic characteristic) {
+        Characteristic[][] characteristics = new Characteristic[200][200];
+        for (Characteristic[] row : characteristics) {
+            Arrays.fill(row, characteristic);
+        }
+        return new Environment(characteristics, new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+    }
+
+    @Test
+    void modelsAgreeOnAStraightLine() {
+        var environment = generateEnvironment(Characteristic.Forest);
+        for (PropagationModel propagationModel : PropagationModel.values()) {
+            var pathLossModel = propagationModel.getPathLossModel();
+            assertEquals(pathLossModel.computeTransmissionPower(environment, 10, 20, 110, 20, 14),
+                14 - 30 * Math.log10(100), 1e-9);
+            assertEquals(pathLossModel.computeTransmissionPower(environment, 10, 20, 10, 21, 14), 14.0, 1e-9);
+            assertEquals(pathLossModel.computeTransmissionPower(environment, 10, 20, 10, 20, 14), 14.0, 1e-9);
+        }
+    }
+
+    @Test
+    void segmentedModelIsLogDistanceOnAUniformMap() {
+        var environment = generateEnvironment(Characteristic.City);
+        var pathLossModel = PropagationModel.SEGMENTED.getPathLossModel();
+        assertEquals(pathLossModel.computeTransmissionPower(environment, 0, 0, 120, 50, 14),
+            14 - 10 * Math.log10(130), 1e-9);
+        assertEquals(pathLossModel.computeTransmissionPower(environment, 120, 50, 0, 0, 14),
+            14 - 10 * Math.log10(130), 1e-9);
+    }
+
+    @Test
+    void segmentedModelSumsThePathLossPerSegment() {
+        var environment = generateEnvironment(Characteristic.City);
+        environment.setCharacteristics(Characteristic.Forest, 0, 0, 50, 200);
+        var pathLossModel = PropagationModel.SEGMENTED.getPathLossModel();
+        // From the receiver at x = 100 over City until x = 49 (distance 90), then over Forest until the sender
+        assertEquals(pathLossModel.computeTransmissionPower(environment, 10, 100, 100, 100, 14),
+            14 - 10 * (Math.log10(90) - Math.log10(39)) - 30 * Math.log10(39), 1e-9);
+    }
+
+    @Test
+    void segmentedModelRejectsASenderOutsideTheMap() {
+        var environment = generateEnvironment(Characteristic.City);
+        var pathLossModel = PropagationModel.SEGMENTED.getPathLossModel();
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> pathLossModel.computeTransmissionPower(environment, 10, 250, 10, 20, 14));
+    }
+
+    @Test
+    void environmentUsesThePathLossModelOfItsPropagationModel() {
+        var environment = generateEnvironment(Characteristic.City);
+        assertEquals(environment.getPropagationModel(), PropagationModel.STEPWISE);
+        environment.setPropagationModel(PropagationModel.SEGMENTED);
+        assertSame(environment.getPathLossModel(), PropagationModel.SEGMENTED.getPathLossModel());
+    }
+}
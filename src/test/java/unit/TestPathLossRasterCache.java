@@ -0,0 +1,61 @@
+package unit;
+
+import iot.Characteristic;
+import iot.Environment;
+import iot.networkentity.Gateway;
+import iot.strategy.response.gateway.DummyResponse;
+import org.junit.jupiter.api.Test;
+import org.jxmapviewer.viewer.GeoPosition;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestPathLossRasterCache {
+
+    private Environment generateEnvironment() {
+        Characteristic[][] characteristics = new Characteristic[200][200];
+        for (Characteristic[] row : characteristics) {
+            Arrays.fill(row, Characteristic.City);
+        }
+        Environment environment = new Environment(characteristics, new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+        environment.addGateway(new Gateway(1L, 100, 150, 14, 12, new DummyResponse(), environment));
+        return environment;
+    }
+
+    @Test
+    void onlyGatewayPositionsAreCached() {
+        var cache = generateEnvironment().getPathLossRasterCache();
+
+        assertTrue(Double.isNaN(cache.get(100, 150, 14, 10, 20)));
+        cache.put(100, 150, 14, 10, 20, -80.5);
+        cache.put(50, 50, 14, 10, 20, -70.0);
+
+        assertEquals(cache.get(100, 150, 14, 10, 20), -80.5);
+        assertTrue(Double.isNaN(cache.get(100, 150, 13, 10, 20)));
+        assertTrue(Double.isNaN(cache.get(100, 150, 14, 11, 20)));
+        assertTrue(Double.isNaN(cache.get(50, 50, 14, 10, 20)));
+        assertTrue(Double.isNaN(cache.get(100, 150, 14, -1, 20)));
+    }
+
+    @Test
+    void invalidatedByEdits() {
+        var environment = generateEnvironment();
+        var cache = environment.getPathLossRasterCache();
+
+        cache.put(100, 150, 14, 199, 199, -80.5);
+        assertEquals(cache.get(100, 150, 14, 199, 199), -80.5);
+        environment.setCharacteristics(Characteristic.Forest, 150, 150);
+        assertTrue(Double.isNaN(cache.get(100, 150, 14, 199, 199)));
+
+        cache.put(100, 150, 14, 199, 199, -80.5);
+        environment.addGateway(new Gateway(2L, 10, 10, 14, 12, new DummyResponse(), environment));
+        assertTrue(Double.isNaN(cache.get(100, 150, 14, 199, 199)));
+        cache.put(10, 10, 14, 0, 0, -60.0);
+        assertEquals(cache.get(10, 10, 14, 0, 0), -60.0);
+
+        environment.getGateways().get(1).setPos(20, 20);
+        assertTrue(Double.isNaN(cache.get(10, 10, 14, 0, 0)));
+    }
+}
@@ -0,0 +1,151 @@
+package unit;
+
+import iot.Characteristic;
+import iot.Environment;
+import iot.lora.EU868Channel;
+import iot.lora.EU868ParameterByDataRate;
+import iot.lora.LoraTransmission;
+import iot.lora.LoraWanPacket;
+import iot.lora.RegionalParameter;
+import iot.networkcommunication.impl.CollisionModel;
+import iot.networkcommunication.impl.ReceiverWaitPacket;
+import iot.networkentity.Gateway;
+import iot.strategy.response.gateway.DummyResponse;
+import org.junit.jupiter.api.Test;
+import org.jxmapviewer.viewer.GeoPosition;
+import util.Pair;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestReceiverWaitPacket {
+
+    private static final double TIME_ON_AIR = 100.0;
+
+    private LoraTransmission generateTransmission(long sender, RegionalParameter regionalParameter, long departureTime) {
+        return generateTransmission(sender, -80.0, regionalParameter, departureTime);
+    }
+
+    private LoraTransmission generateTransmission(long sender, double transmissionPower, RegionalParameter regionalParameter, long departureTime) {
+        return new LoraTransmission(sender, 1L, new Pair<>(0, 0), transmissionPower, regionalParameter, TIME_ON_AIR, departureTime,
+            new LoraWanPacket(sender, 1L, new byte[0], List.of()));
+    }
+
+    @Test
+    void collisions() {
+        Environment environment = new Environment(new Characteristic[10][10], new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+        var clock = environment.getClock();
+        var receiver = new ReceiverWaitPacket(new Gateway(1L, 0, 0, 14, 12, new DummyResponse(), environment), 10.0, clock);
+        receiver.setConsumerPacket(t -> {});
+
+        var first = generateTransmission(2L, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(first);
+        assertFalse(first.isCollided());
+
+        // A transmission with another spreading factor does not collide
+        clock.tick(10);
+        var otherSpreadingFactor = generateTransmission(3L, EU868ParameterByDataRate.DATA_RATE_5, clock.getTime());
+        receiver.receive(otherSpreadingFactor);
+        assertFalse(first.isCollided());
+        assertFalse(otherSpreadingFactor.isCollided());
+
+        clock.tick(50);
+        var overlapping = generateTransmission(4L, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(overlapping);
+        assertTrue(first.isCollided());
+        assertTrue(overlapping.isCollided());
+
+        // Once the time on air of the earlier transmissions has ended, they can no longer collide
+        clock.tick(200);
+        var later = generateTransmission(5L, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(later);
+        assertFalse(later.isCollided());
+    }
+
+    @Test
+    void transmissionsOnOtherChannelsDoNotCollide() {
+        Environment environment = new Environment(new Characteristic[10][10], new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+        var clock = environment.getClock();
+        var receiver = new ReceiverWaitPacket(new Gateway(1L, 0, 0, 14, 12, new DummyResponse(), environment), 10.0, clock);
+        receiver.setConsumerPacket(t -> {});
+
+        var first = generateTransmission(2L, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(first);
+
+        clock.tick(10);
+        var otherChannel = new LoraTransmission(3L, 1L, new Pair<>(0, 0), -80.0, EU868ParameterByDataRate.DATA_RATE_0,
+            EU868Channel.CHANNEL_3, TIME_ON_AIR, clock.getTime(), new LoraWanPacket(3L, 1L, new byte[0], List.of()));
+        receiver.receive(otherChannel);
+        assertEquals(first.getFrequency(), 868100);
+        assertEquals(otherChannel.getFrequency(), 867100);
+        assertFalse(first.isCollided());
+        assertFalse(otherChannel.isCollided());
+
+        clock.tick(10);
+        var sameChannel = generateTransmission(4L, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(sameChannel);
+        assertTrue(first.isCollided());
+        assertTrue(sameChannel.isCollided());
+        assertFalse(otherChannel.isCollided());
+    }
+
+    @Test
+    void pairwiseCollisions() {
+        Environment environment = new Environment(new Characteristic[10][10], new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+        var clock = environment.getClock();
+        var receiver = new ReceiverWaitPacket(new Gateway(1L, 0, 0, 14, 12, new DummyResponse(), environment), 10.0, clock,
+            () -> CollisionModel.PAIRWISE);
+        receiver.setConsumerPacket(t -> {});
+
+        var weak = generateTransmission(2L, -100.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(weak);
+        // A much stronger later transmission leaves the weak one intact
+        clock.tick(10);
+        var strong = generateTransmission(3L, -70.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(strong);
+        assertFalse(weak.isCollided());
+        assertFalse(strong.isCollided());
+
+        // A weaker later transmission collides with every transmission in the air
+        clock.tick(10);
+        var weaker = generateTransmission(4L, -110.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(weaker);
+        assertTrue(weak.isCollided());
+        assertTrue(strong.isCollided());
+        assertTrue(weaker.isCollided());
+    }
+
+    @Test
+    void captureCollisions() {
+        Environment environment = new Environment(new Characteristic[10][10], new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+        var clock = environment.getClock();
+        var receiver = new ReceiverWaitPacket(new Gateway(1L, 0, 0, 14, 12, new DummyResponse(), environment), 10.0, clock,
+            () -> CollisionModel.CAPTURE);
+        receiver.setConsumerPacket(t -> {});
+
+        var weak = generateTransmission(2L, -100.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(weak);
+        // A much stronger later transmission captures the receiver
+        clock.tick(10);
+        var strong = generateTransmission(3L, -70.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(strong);
+        assertTrue(weak.isCollided());
+        assertFalse(strong.isCollided());
+
+        // A much weaker later transmission is lost, the strongest one still captures the receiver
+        clock.tick(10);
+        var weaker = generateTransmission(4L, -110.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(weaker);
+        assertTrue(weaker.isCollided());
+        assertFalse(strong.isCollided());
+
+        // A transmission of about the same power as the strongest one makes both collide
+        clock.tick(10);
+        var similar = generateTransmission(5L, -75.0, EU868ParameterByDataRate.DATA_RATE_0, clock.getTime());
+        receiver.receive(similar);
+        assertTrue(strong.isCollided());
+        assertTrue(similar.isCollided());
+    }
+}
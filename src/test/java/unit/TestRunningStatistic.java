@@ -0,0 +1,66 @@
+package unit;
+
+import org.junit.jupiter.api.Test;
+import util.Histogram;
+import util.RunningStatistic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestRunningStatistic {
+
+    @Test
+    void happyDay() {
+        var statistic = new RunningStatistic();
+        assertEquals(statistic.getCount(), 0L);
+        assertTrue(Double.isNaN(statistic.getMean()));
+        assertTrue(Double.isNaN(statistic.getVariance()));
+
+        for (double value : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+            statistic.add(value);
+        }
+        assertEquals(statistic.getCount(), 8L);
+        assertEquals(statistic.getMean(), 5.0, 1e-12);
+        assertEquals(statistic.getVariance(), 32.0 / 7, 1e-12);
+        assertEquals(statistic.getMinimum(), 2.0);
+        assertEquals(statistic.getMaximum(), 9.0);
+    }
+
+    @Test
+    void mergeIsTheSameAsAddingOneByOne() {
+        var all = new RunningStatistic();
+        var left = new RunningStatistic();
+        var right = new RunningStatistic();
+        for (int i = 0; i < 100; i++) {
+            double value = Math.sin(i) * 50 - 80;
+            all.add(value);
+            (i < 30 ? left : right).add(value);
+        }
+        left.merge(right);
+        left.merge(new RunningStatistic());
+
+        assertEquals(left.getCount(), all.getCount());
+        assertEquals(left.getMean(), all.getMean(), 1e-9);
+        assertEquals(left.getVariance(), all.getVariance(), 1e-9);
+        assertEquals(left.getMinimum(), all.getMinimum());
+        assertEquals(left.getMaximum(), all.getMaximum());
+    }
+
+    @Test
+    void histogram() {
+        var histogram = new Histogram(7, 12);
+        histogram.add(7);
+        histogram.add(9);
+        histogram.add(9);
+        histogram.add(20);
+        var other = new Histogram(7, 12);
+        other.add(6);
+        histogram.merge(other);
+
+        assertEquals(histogram.getCount(9), 2L);
+        assertEquals(histogram.getCount(7), 2L);
+        assertEquals(histogram.getCount(12), 1L);
+        assertEquals(histogram.getTotalCount(), 5L);
+        assertThrows(IllegalArgumentException.class, () -> histogram.merge(new Histogram(7, 11)));
+        assertThrows(IllegalArgumentException.class, () -> new Histogram(12, 7));
+    }
+}
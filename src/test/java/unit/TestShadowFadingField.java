@@ -0,0 +1,124 @@
+package unit;
+
+import iot.Characteristic;
+import iot.Environment;
+import iot.networkentity.Gateway;
+import iot.strategy.response.gateway.DummyResponse;
+import org.junit.jupiter.api.Test;
+import org.jxmapviewer.viewer.GeoPosition;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestShadowFadingField {
+
+    private Environment generateEnvironment() {
+        Characteristic[][] characteristics = new Characteristic[1000][1000];
+        for (Characteristic[] row : characteristics) {
+            Arrays.fill(row, Characteristic.City);
+        }
+        Environment environment = new Environment(characteristics, new GeoPosition(5, 5), 1, new HashMap<>(), new HashMap<>());
+        environment.addGateway(new Gateway(1L, 100, 150, 14, 12, new DummyResponse(), environment));
+        return environment;
+    }
+
+    @Test
+    void onlyGatewayPositionsHaveAField() {
+        var field = generateEnvironment().getShadowFadingField();
+        assertTrue(Double.isNaN(field.get(101, 150, 20, 30)));
+        assertFalse(Double.isNaN(field.get(100, 150, 20, 30)));
+        assertTrue(Double.isNaN(field.get(100, 150, 1000, 30)));
+    }
+
+    @Test
+    void fieldIsReproducible() {
+        var field = generateEnvironment().getShadowFadingField();
+        var otherField = generateEnvironment().getShadowFadingField();
+        for (int x = 0; x < 1000; x += 37) {
+            for (int y = 0; y < 1000; y += 41) {
+                assertEquals(field.get(100, 150, x, y), otherField.get(100, 150, x, y));
+            }
+        }
+    }
+
+    @Test
+    void fieldIsInterpolatedBetweenGridPoints() {
+        var field = generateEnvironment().getShadowFadingField();
+        double start = field.get(100, 150, 20, 30);
+        double end = field.get(100, 150, 30, 30);
+        // The interpolation is divided by its standard deviation, for grid points at a distance of 10
+        double deviation = Math.sqrt((1 + Math.exp(-10 / 50.0)) / 2);
+        assertEquals(field.get(100, 150, 25, 30), (start + end) / 2 / deviation, 1e-6);
+    }
+
+    @Test
+    void fieldIsIsotropicWithUnitVariance() {
+        var environment = generateEnvironment();
+        int numberOfFields = 20;
+        for (int i = 1; i < numberOfFields; i++) {
+            environment.addGateway(new Gateway(1L + i, 100 + i, 150, 14, 12, new DummyResponse(), environment));
+        }
+        var field = environment.getShadowFadingField();
+        double sumOfSquaresBetweenGridPoints = 0, sumOfProductsAlongX = 0, sumOfProductsDiagonal = 0;
+        int n = 0;
+        for (int i = 0; i < numberOfFields; i++) {
+            for (int x = 0; x < 900; x += 10) {
+                for (int y = 0; y < 900; y += 10) {
+                    double value = field.get(100 + i, 150, x, y);
+                    double between = field.get(100 + i, 150, x + 5, y + 5);
+                    sumOfSquaresBetweenGridPoints += between * between;
+                    sumOfProductsAlongX += value * field.get(100 + i, 150, x + 50, y);
+                    sumOfProductsDiagonal += value * field.get(100 + i, 150, x + 30, y + 40);
+                    n++;
+                }
+            }
+        }
+        assertEquals(sumOfSquaresBetweenGridPoints / n, 1.0, 0.1);
+        // Both offsets are at a euclidean distance of 50
+        assertEquals(sumOfProductsAlongX / n, Math.exp(-1), 0.08);
+        assertEquals(sumOfProductsDiagonal / n, Math.exp(-1), 0.08);
+    }
+
+    @Test
+    void fieldIsCorrelatedOverDistance() {
+        var field = generateEnvironment().getShadowFadingField();
+        double sum = 0, sumOfSquares = 0, sumOfProductsNear = 0, sumOfProductsFar = 0;
+        int n = 0;
+        for (int x = 0; x < 790; x += 10) {
+            for (int y = 0; y < 990; y += 10) {
+                double value = field.get(100, 150, x, y);
+                sum += value;
+                sumOfSquares += value * value;
+                sumOfProductsNear += value * field.get(100, 150, x + 10, y);
+                sumOfProductsFar += value * field.get(100, 150, x + 200, y);
+                n++;
+            }
+        }
+        assertEquals(sum / n, 0.0, 0.3);
+        assertEquals(sumOfSquares / n, 1.0, 0.3);
+        // Gudmundson correlation exp(-d / 50) over a distance of 10 and 200
+        assertEquals(sumOfProductsNear / n, Math.exp(-10 / 50.0), 0.2);
+        assertEquals(sumOfProductsFar / n, Math.exp(-200 / 50.0), 0.2);
+    }
+
+    @Test
+    void addingAGatewayInvalidatesTheFields() {
+        var environment = generateEnvironment();
+        var field = environment.getShadowFadingField();
+        assertTrue(Double.isNaN(field.get(500, 500, 20, 30)));
+        environment.addGateway(new Gateway(2L, 500, 500, 14, 12, new DummyResponse(), environment));
+        assertFalse(Double.isNaN(field.get(500, 500, 20, 30)));
+    }
+
+    @Test
+    void movingAGatewayInvalidatesTheFields() {
+        var environment = generateEnvironment();
+        var field = environment.getShadowFadingField();
+        assertFalse(Double.isNaN(field.get(100, 150, 20, 30)));
+        environment.getGateways().get(0).setPos(300, 400);
+        assertTrue(Double.isNaN(field.get(100, 150, 20, 30)));
+        assertFalse(Double.isNaN(field.get(300, 400, 20, 30)));
+    }
+}
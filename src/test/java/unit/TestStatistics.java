@@ -0,0 +1,362 @@
+package unit;
+
+import iot.Characteristic;
+import iot.Environment;
+import iot.SimulationContext;
+import iot.lora.EU868Channel;
+import iot.lora.EU868ParameterByDataRate;
+import iot.lora.LoraTransmission;
+import iot.lora.LoraWanPacket;
+import iot.networkentity.Gateway;
+import iot.strategy.response.gateway.DummyResponse;
+import org.junit.jupiter.api.Test;
+import org.jxmapviewer.viewer.GeoPosition;
+import util.Pair;
+import util.RetentionPolicy;
+import util.Statistics;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestStatistics {
+
+    private LoraTransmission generateTransmission(long sender, long receiver, double transmissionPower, long departureTime) {
+        return new LoraTransmission(sender, receiver, new Pair<>(10, 20), transmissionPower, EU868ParameterByDataRate.DATA_RATE_3,
+            EU868Channel.CHANNEL_2, 150.5, departureTime, new LoraWanPacket(sender, 7L, new byte[5], List.of()));
+    }
+
+    private void send(Statistics statistics, LoraTransmission transmission, int powerSetting) {
+        statistics.addPowerSettingEntry(transmission.getSender(), (int) (transmission.getDepartureTime() / 1000), powerSetting);
+        statistics.addSpreadingFactorEntry(transmission.getSender(), transmission.getSpreadingFactor());
+        statistics.addSentTransmissionsEntry(transmission.getSender(), transmission);
+    }
+
+    private List<Long> getDepartureTimes(List<LoraTransmission> transmissions) {
+        return transmissions.stream().map(LoraTransmission::getDepartureTime).collect(Collectors.toList());
+    }
+
+    @Test
+    void transmissionsKeepTheirFields() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            var transmission = generateTransmission(1L, 2L, -84.25, 1000L);
+            send(statistics, transmission, 14);
+
+            var sent = statistics.getSentTransmissions(1L, 0);
+            assertEquals(sent.size(), 1);
+            var copy = sent.get(0);
+            assertEquals(copy, transmission);
+            assertEquals(copy.getReceiver(), 2L);
+            assertEquals(copy.getTransmissionPower(), -84.25);
+            assertEquals(copy.getTimeOnAir(), 150.5);
+            assertEquals(copy.getSpreadingFactor(), 9);
+            assertEquals(copy.getFrequency(), EU868Channel.CHANNEL_2.getFrequency());
+            assertEquals(copy.getXPos(), 10);
+            assertEquals(copy.getYPos(), 20);
+            assertEquals(copy.getContent().getLength(), transmission.getContent().getLength());
+            assertEquals(copy.getContent().getReceiverEUI(), 7L);
+            assertEquals(statistics.getPowerSettingHistory(1L, 0), List.of(new Pair<>(1, 14)));
+            assertEquals(statistics.getSpreadingFactorHistory(1L, 0), List.of(9));
+            assertNull(statistics.getSentTransmissions(2L));
+            assertTrue(statistics.getSentTransmissions(2L, 0).isEmpty());
+            return null;
+        });
+    }
+
+    @Test
+    void collisionsAreRecordedWhenTheTransmissionArrives() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            var first = generateTransmission(1L, 3L, -80.0, 1000L);
+            var second = generateTransmission(2L, 3L, -80.0, 2000L);
+            send(statistics, first, 14);
+            send(statistics, second, 14);
+            first.setCollided();
+            second.setCollided();
+            first.setArrived();
+            statistics.addReceivedTransmissionsEntry(3L, first);
+
+            assertTrue(statistics.getSentTransmissions(1L, 0).get(0).isCollided());
+            assertTrue(statistics.getSentTransmissions(1L, 0).get(0).isArrived());
+            // The second transmission did not arrive yet
+            assertFalse(statistics.getSentTransmissions(2L, 0).get(0).isCollided());
+
+            var third = generateTransmission(1L, 3L, -70.0, 5000L);
+            send(statistics, third, 14);
+            third.setArrived();
+            statistics.addReceivedTransmissionsEntry(3L, third);
+            assertEquals(statistics.getAllReceivedTransmissions(3L, 0).size(), 2);
+            assertEquals(statistics.getReceivedTransmissions(3L, 0), List.of(third));
+            assertEquals(statistics.getLastReceivedTransmission(3L, 0).orElseThrow().getTransmissionPower(), -70.0);
+            return null;
+        });
+    }
+
+    @Test
+    void entriesAreSeparatedByRun() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            send(statistics, generateTransmission(1L, 2L, -80.0, 1000L), 14);
+            statistics.addRun();
+            send(statistics, generateTransmission(1L, 2L, -80.0, 2000L), 10);
+            send(statistics, generateTransmission(1L, 2L, -80.0, 3000L), 10);
+            statistics.addRun();
+
+            assertEquals(statistics.getSentTransmissions(1L, 0).size(), 1);
+            assertEquals(statistics.getSentTransmissions(1L, 1).get(1).getDepartureTime(), 3000L);
+            assertTrue(statistics.getSentTransmissions(1L, 2).isEmpty());
+            assertEquals(statistics.getSentTransmissions(1L).size(), 3);
+            assertEquals(statistics.getPowerSettingHistory(1L, 1), List.of(new Pair<>(2, 10), new Pair<>(3, 10)));
+            assertEquals(statistics.getUsedEnergy(1L, 1), List.of(10 * 150.5 / 1000, 10 * 150.5 / 1000));
+            assertTrue(statistics.getLastReceivedTransmission(2L, 0).isEmpty());
+            return null;
+        });
+    }
+
+    @Test
+    void viewsOfARunDoNotChange() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            var first = generateTransmission(1L, 2L, -80.0, 1000L);
+            send(statistics, first, 14);
+            first.setArrived();
+            statistics.addReceivedTransmissionsEntry(2L, first);
+            var sent = statistics.getSentTransmissions(1L, 0);
+            var received = statistics.getAllReceivedTransmissions(2L, 0);
+
+            send(statistics, generateTransmission(1L, 2L, -80.0, 2000L), 14);
+            assertEquals(sent.size(), 1);
+            statistics.addRun();
+            send(statistics, generateTransmission(1L, 2L, -80.0, 3000L), 14);
+
+            assertEquals(statistics.getSentTransmissions(1L, 0).size(), 2);
+            assertEquals(statistics.getSentTransmissions(1L, 1).size(), 1);
+            assertEquals(received, List.of(first));
+            assertEquals(statistics.getReceivedTransmissions(2L, 0), List.of(first));
+            assertTrue(statistics.getAllReceivedTransmissions(2L, 1).isEmpty());
+            return null;
+        });
+    }
+
+    @Test
+    void aggregatesAreKeptWithoutTraces() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            statistics.setRecordingTraces(false);
+            var first = generateTransmission(1L, 3L, -80.0, 1000L);
+            var second = generateTransmission(1L, 3L, -90.0, 2000L);
+            send(statistics, first, 14);
+            send(statistics, second, 10);
+            first.setArrived();
+            statistics.addReceivedTransmissionsEntry(3L, first);
+            second.setCollided();
+            second.setArrived();
+            statistics.addReceivedTransmissionsEntry(3L, second);
+
+            assertTrue(statistics.getSentTransmissions(1L, 0).isEmpty());
+            assertTrue(statistics.getAllReceivedTransmissions(3L, 0).isEmpty());
+
+            var sender = statistics.getAggregatedStatistics(1L, 0);
+            assertEquals(sender.getSentPackets(), 2L);
+            assertEquals(sender.getUsedEnergy(), (Math.pow(10, 1.4) + 10) * 150.5 / 1000, 1e-9);
+            assertEquals(sender.getPowerSettings().getMean(), 12.0);
+            assertEquals(sender.getSpreadingFactors().getCount(9), 2L);
+            // Only gateways deliver the transmissions
+            assertEquals(sender.getDeliveredPackets(), 0L);
+
+            var receiver = statistics.getAggregatedStatistics(3L, 0);
+            assertEquals(receiver.getReceivedPackets(), 2L);
+            assertEquals(receiver.getCollisionRate(), 0.5);
+            assertEquals(receiver.getReceivedPower().getMean(), -80.0);
+            assertEquals(statistics.getLastReceivedTransmission(3L, 0).orElseThrow(), first);
+            assertTrue(Double.isNaN(statistics.getAggregatedStatistics(2L, 0).getPacketDeliveryRatio()));
+            return null;
+        });
+    }
+
+    @Test
+    void lastReceivedTransmissionDoesNotKeepThePacket() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            statistics.setRecordingTraces(false);
+            var transmission = new LoraTransmission(1L, 3L, new Pair<>(10, 20), -75.5,
+                EU868ParameterByDataRate.DATA_RATE_3, EU868Channel.CHANNEL_2, 150.5, 1000L,
+                new LoraWanPacket(1L, 3L, new byte[] {1, 2, 3}, List.of()));
+            transmission.setArrived();
+            statistics.addReceivedTransmissionsEntry(3L, transmission);
+
+            var last = statistics.getLastReceivedTransmission(3L, 0).orElseThrow();
+            assertNotSame(last, transmission);
+            assertEquals(last.getSender(), 1L);
+            assertEquals(last.getTransmissionPower(), -75.5);
+            assertEquals(last.getDepartureTime(), 1000L);
+            assertArrayEquals(last.getContent().getPayload(), new byte[3]);
+            return null;
+        });
+    }
+
+    @Test
+    void aTransmissionIsDeliveredOnceByAllGateways() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            var environment = new Environment(new Characteristic[1][1], new GeoPosition(0, 0), 1, new HashMap<>(), new HashMap<>());
+            var gateways = List.of(new Gateway(10L, 0, 0, 20, 12, new DummyResponse(), environment),
+                new Gateway(11L, 0, 0, 20, 12, new DummyResponse(), environment));
+
+            var first = generateTransmission(1L, 10L, -80.0, 1000L);
+            send(statistics, first, 14);
+            for (var gateway : gateways) {
+                statistics.addReceivedTransmissionsEntry(gateway, generateTransmission(1L, gateway.getEUI(), -80.0, 1000L).setArrived());
+            }
+            var second = generateTransmission(1L, 10L, -80.0, 2000L);
+            send(statistics, second, 14);
+            statistics.addReceivedTransmissionsEntry(gateways.get(0), generateTransmission(1L, 10L, -80.0, 2000L).setCollided().setArrived());
+            statistics.addReceivedTransmissionsEntry(gateways.get(1), generateTransmission(1L, 11L, -80.0, 2000L).setArrived());
+            send(statistics, generateTransmission(1L, 10L, -80.0, 3000L), 14);
+
+            var sender = statistics.getAggregatedStatistics(1L, 0);
+            assertEquals(sender.getSentPackets(), 3L);
+            assertEquals(sender.getReceptionsAtGateways(), 4L);
+            assertEquals(sender.getCollisionsAtGateways(), 1L);
+            assertEquals(sender.getDeliveredPackets(), 2L);
+            assertEquals(sender.getPacketDeliveryRatio(), 2.0 / 3);
+            assertEquals(statistics.getAggregatedStatistics(10L, 0).getCollidedPackets(), 1L);
+
+            statistics.addRun();
+            assertEquals(statistics.getAggregatedStatistics(1L, 1).getSentPackets(), 0L);
+            return null;
+        });
+    }
+
+    @Test
+    void lastTransmissionsAreKeptInARingBuffer() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            statistics.setRetentionPolicy(RetentionPolicy.lastTransmissions(3));
+            var transmissions = new ArrayList<LoraTransmission>();
+            for (int i = 1; i <= 40; i++) {
+                var transmission = generateTransmission(1L, 2L, -80.0, i * 1000L);
+                transmissions.add(transmission);
+                send(statistics, transmission, i);
+                if (i == 38) {
+                    var view = statistics.getSentTransmissions(1L, 0);
+                    assertEquals(view.get(0).getDepartureTime(), 36000L);
+                }
+            }
+            var view = statistics.getSentTransmissions(1L, 0);
+            assertEquals(getDepartureTimes(view), List.of(38000L, 39000L, 40000L));
+            assertEquals(statistics.getPowerSettingHistory(1L, 0),
+                List.of(new Pair<>(38, 38), new Pair<>(39, 39), new Pair<>(40, 40)));
+            assertEquals(statistics.getUsedEnergy(1L, 0).size(), 3);
+            assertEquals(statistics.getAggregatedStatistics(1L, 0).getSentPackets(), 40L);
+
+            // The flags of a transmission which is no longer kept are not recorded
+            transmissions.get(0).setCollided().setArrived();
+            statistics.addReceivedTransmissionsEntry(2L, transmissions.get(0));
+            transmissions.get(39).setCollided().setArrived();
+            statistics.addReceivedTransmissionsEntry(2L, transmissions.get(39));
+            assertTrue(statistics.getSentTransmissions(1L, 0).get(2).isCollided());
+
+            send(statistics, generateTransmission(1L, 2L, -80.0, 41000L), 14);
+            assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+            assertEquals(view.get(1).getDepartureTime(), 39000L);
+
+            statistics.addRun();
+            assertEquals(statistics.getSentTransmissions(1L, 0).get(0).getDepartureTime(), 39000L);
+            assertEquals(statistics.getReceivedTransmissions(2L, 0), List.of());
+            assertEquals(statistics.getAllReceivedTransmissions(2L, 0).size(), 2);
+            return null;
+        });
+    }
+
+    @Test
+    void transmissionsPerRunApplyToTheKeptTraces() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            for (int i = 1; i <= 10; i++) {
+                var transmission = generateTransmission(1L, 2L, -80.0, i * 1000L);
+                send(statistics, transmission, i);
+                transmission.setArrived();
+                statistics.addReceivedTransmissionsEntry(2L, transmission);
+            }
+            statistics.addRun();
+            assertEquals(statistics.getReceivedTransmissions(2L, 0).size(), 10);
+            for (int i = 1; i <= 5; i++) {
+                send(statistics, generateTransmission(1L, 2L, -80.0, i * 1000L), 14);
+            }
+
+            statistics.setRetentionPolicy(RetentionPolicy.lastTransmissions(3));
+            assertEquals(getDepartureTimes(statistics.getSentTransmissions(1L, 0)), List.of(8000L, 9000L, 10000L));
+            assertEquals(getDepartureTimes(statistics.getReceivedTransmissions(2L, 0)), List.of(8000L, 9000L, 10000L));
+            assertEquals(statistics.getPowerSettingHistory(1L, 0),
+                List.of(new Pair<>(8, 8), new Pair<>(9, 9), new Pair<>(10, 10)));
+            assertEquals(getDepartureTimes(statistics.getSentTransmissions(1L, 1)), List.of(3000L, 4000L, 5000L));
+            send(statistics, generateTransmission(1L, 2L, -80.0, 6000L), 14);
+            assertEquals(getDepartureTimes(statistics.getSentTransmissions(1L, 1)), List.of(4000L, 5000L, 6000L));
+            assertEquals(statistics.getSpreadingFactorHistory(1L, 1).size(), 3);
+            assertEquals(statistics.getAggregatedStatistics(1L, 0).getSentPackets(), 10L);
+            return null;
+        });
+    }
+
+    @Test
+    void usedEnergyUsesThePowerSettingOfEveryTransmission() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            // Without a power setting, and thus without power setting entries
+            statistics.addSentTransmissionsEntry(1L, generateTransmission(1L, 2L, -80.0, 1000L));
+            assertEquals(statistics.getUsedEnergy(1L, 0), List.of(150.5 / 1000));
+
+            // The power setting changes twice before the next transmission
+            statistics.addPowerSettingEntry(1L, 2, 10);
+            statistics.addPowerSettingEntry(1L, 3, 14);
+            statistics.addSentTransmissionsEntry(1L, generateTransmission(1L, 2L, -80.0, 4000L));
+            assertEquals(statistics.getUsedEnergy(1L, 0), List.of(150.5 / 1000, Math.pow(10, 1.4) * 150.5 / 1000));
+            assertEquals(statistics.getAggregatedStatistics(1L, 0).getUsedEnergy(),
+                (1 + Math.pow(10, 1.4)) * 150.5 / 1000, 1e-9);
+
+            // Every transmission is kept with its own power setting
+            var sentTransmissions = statistics.getSentTransmissionsWithPowerSetting(1L, 0);
+            assertEquals(getDepartureTimes(sentTransmissions.stream().map(Pair::getLeft).collect(Collectors.toList())),
+                List.of(1000L, 4000L));
+            assertEquals(sentTransmissions.stream().map(Pair::getRight).collect(Collectors.toList()), List.of(0, 14));
+            return null;
+        });
+    }
+
+    @Test
+    void tracesOfTheLastRunsAreKept() {
+        new SimulationContext().call(() -> {
+            var statistics = Statistics.getInstance();
+            statistics.setRetentionPolicy(new RetentionPolicy(2, RetentionPolicy.UNBOUNDED, 2));
+            for (int run = 0; run < 4; run++) {
+                for (int i = 0; i < 5; i++) {
+                    send(statistics, generateTransmission(1L, 2L, -80.0, i * 1000L), 14);
+                }
+                statistics.addRun();
+            }
+
+            assertTrue(statistics.getSentTransmissions(1L, 2).isEmpty());
+            assertEquals(getDepartureTimes(statistics.getSentTransmissions(1L, 3)), List.of(0L, 2000L, 4000L));
+            assertEquals(statistics.getSpreadingFactorHistory(1L, 3).size(), 3);
+            assertEquals(statistics.getSentTransmissions(1L).size(), 3);
+            assertEquals(statistics.getAggregatedStatistics(1L, 0).getSentPackets(), 5L);
+            return null;
+        });
+    }
+
+    @Test
+    void memoryCeilingOfARetentionPolicy() {
+        assertEquals(RetentionPolicy.ALL.getMemoryCeilingPerEntity(), Long.MAX_VALUE);
+        assertEquals(RetentionPolicy.AGGREGATES_ONLY.getMemoryCeilingPerEntity(), 0L);
+        assertEquals(RetentionPolicy.lastRuns(3).getMemoryCeilingPerEntity(), Long.MAX_VALUE);
+        assertEquals(new RetentionPolicy(2, 1000, 10).getMemoryCeilingPerEntity(), 2 * 1000 * 151L);
+        assertThrows(IllegalArgumentException.class, () -> new RetentionPolicy(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RetentionPolicy.sampling(0));
+    }
+}
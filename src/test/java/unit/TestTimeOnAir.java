@@ -0,0 +1,55 @@
+package unit;
+
+import iot.lora.EU868ParameterByDataRate;
+import iot.lora.LoraWanPacket;
+import iot.lora.RegionalParameter;
+import iot.lora.TimeOnAir;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTimeOnAir {
+
+    /**
+     * The time on air as it was computed for every packet by the sender.
+     */
+    private static double computeTimeOnAir(RegionalParameter regionalParameter, int payloadLength, boolean hasHeader,
+                                           boolean lowDataRateOptimization, int amountOfPreambleSymbols) {
+        var sf = regionalParameter.getSpreadingFactor();
+        var bandwidth = regionalParameter.getBandwidth();
+        var tSym = Math.pow(2,sf)/bandwidth;
+        var tPreamble = (amountOfPreambleSymbols+4.25) * tSym;
+        var payloadSymbNb = (8*payloadLength - 4*sf + (28+16) - 20*(hasHeader? 0: 1)) /
+            ((4*(sf - (lowDataRateOptimization?2:0))) *1.0);
+        payloadSymbNb = Math.ceil(payloadSymbNb);
+        payloadSymbNb = 8 + Math.max(payloadSymbNb, 0);
+        var tPayload = payloadSymbNb * tSym;
+        return tPayload + tPreamble;
+    }
+
+    @Test
+    void sameAsFormula() {
+        for (EU868ParameterByDataRate regionalParameter : EU868ParameterByDataRate.values()) {
+            for (int length = 0; length <= TimeOnAir.MAXIMUM_PAYLOAD_LENGTH + 10; length++) {
+                for (boolean hasHeader : new boolean[] {false, true}) {
+                    for (boolean lowDataRateOptimization : new boolean[] {false, true}) {
+                        for (int preamble : new int[] {6, 8, 12}) {
+                            assertEquals(TimeOnAir.getTimeOnAir(regionalParameter, length, hasHeader, lowDataRateOptimization, preamble),
+                                computeTimeOnAir(regionalParameter, length, hasHeader, lowDataRateOptimization, preamble));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void packet() {
+        var packet = new LoraWanPacket(1L, 2L, new byte[20], List.of());
+        var regionalParameter = EU868ParameterByDataRate.DATA_RATE_0;
+
+        assertEquals(TimeOnAir.getTimeOnAir(regionalParameter, packet), computeTimeOnAir(regionalParameter, 20, true, false, 8));
+    }
+}
@@ -0,0 +1,96 @@
+package unit;
+
+import iot.GlobalClock;
+import iot.scheduler.SchedulerType;
+import iot.scheduler.TriggerScheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import util.TimeHelper;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTriggerScheduler {
+
+    /**
+     * Schedules elements at random times (from a few milliseconds to several years ahead) while polling them,
+     * and records the order in which they are returned.
+     */
+    private List<Long> randomRun(TriggerScheduler<Long> scheduler, long seed) {
+        Random random = new Random(seed);
+        long[] maxDelays = {64, 4_096, 1_000_000, Duration.ofDays(3 * 365).toMillis()};
+        List<Long> polled = new LinkedList<>();
+        long now = 0;
+        long element = 0;
+
+        for (int i = 0; i < 2_000; i++) {
+            int toSchedule = random.nextInt(5);
+            for (int j = 0; j < toSchedule; j++) {
+                long delay = 1 + (long) (random.nextDouble() * maxDelays[random.nextInt(maxDelays.length)]);
+                scheduler.schedule(TimeHelper.miliToNano(now + delay), element++);
+            }
+            // Scheduling in the past is ignored
+            scheduler.schedule(TimeHelper.miliToNano(now), -1L);
+
+            var next = scheduler.getNextTime();
+            if (next.isEmpty()) {
+                break;
+            }
+            now = next.getAsLong() / TimeHelper.NANOS_PER_MILLI;
+            polled.add(now);
+            polled.addAll(scheduler.poll(next.getAsLong()));
+        }
+        return polled;
+    }
+
+    @ParameterizedTest
+    @EnumSource(SchedulerType.class)
+    void sameOrderAsLegacy(SchedulerType type) {
+        for (long seed = 0; seed < 5; seed++) {
+            assertEquals(randomRun(type.create(), seed), randomRun(SchedulerType.LEGACY.create(), seed));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(SchedulerType.class)
+    void pollEveryMillisecond(SchedulerType type) {
+        TriggerScheduler<String> scheduler = type.create();
+        scheduler.schedule(TimeHelper.miliToNano(70), "a");
+        scheduler.schedule(TimeHelper.miliToNano(5_000), "b");
+        scheduler.schedule(TimeHelper.miliToNano(70), "c");
+
+        List<String> polled = new LinkedList<>();
+        for (long tick = 1; tick <= 5_000; tick++) {
+            polled.addAll(scheduler.poll(TimeHelper.miliToNano(tick)));
+        }
+        assertEquals(polled, List.of("c", "a", "b"));
+        assertTrue(scheduler.getNextTime().isEmpty());
+
+        scheduler.schedule(TimeHelper.miliToNano(6_000), "d");
+        scheduler.reset();
+        assertTrue(scheduler.getNextTime().isEmpty());
+    }
+
+    @Test
+    void clockWithEveryScheduler() {
+        for (SchedulerType type : SchedulerType.values()) {
+            GlobalClock clock = new GlobalClock(type);
+            List<Long> fired = new LinkedList<>();
+            clock.addTrigger(TimeHelper.secToNano(1), () -> {
+                fired.add(clock.getTime());
+                return clock.getTime() + Duration.ofDays(400).toNanos();
+            });
+            clock.advanceTo(Duration.ofDays(1000).toNanos());
+
+            assertEquals(fired, List.of(TimeHelper.secToNano(1),
+                TimeHelper.secToNano(1) + Duration.ofDays(400).toNanos(),
+                TimeHelper.secToNano(1) + Duration.ofDays(800).toNanos()));
+            assertEquals(clock.getSchedulerType(), type);
+        }
+    }
+}